@@ -42,6 +42,7 @@
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -101,6 +102,13 @@
     private static Map<ClassLoader, Map<String, Object>> factories
             = new HashMap<ClassLoader, Map<String, Object>>(5);
 
+    /**
+     * Immutable copy of the created factory instances of each classLoader, read by getFactory without any lock.
+     * It is replaced as a whole, under the registeredFactoryNames monitor, each time a factory is created and
+     * on releaseFactories. A factory that is not in here yet is looked up through the synchronized maps above.
+     */
+    private static volatile Map<ClassLoader, Map<String, Object>> factorySnapshots = Collections.emptyMap();
+
     static
     {        
         FACTORY_MAPPING.put(APPLICATION_FACTORY, ApplicationFactory.class);
@@ -252,6 +260,16 @@ private static Object _getFactory(String factoryName) throws FacesException
     {
         ClassLoader classLoader = ClassUtils.getContextClassLoader();
 
+        Map<String, Object> snapshot = factorySnapshots.get(classLoader);
+        if (snapshot != null)
+        {
+            Object factory = snapshot.get(factoryName);
+            if (factory != null)
+            {
+                return factory;
+            }
+        }
+
         // This code must be synchronized because this could cause a problem when
         // using update feature each time of myfaces (org.apache.myfaces.CONFIG_REFRESH_PERIOD)
         // In this moment, a concurrency problem could happen
@@ -299,6 +317,7 @@ private static Object _getFactory(String factoryName) throws FacesException
             factory = factoryMap.get(factoryName);
             if (factory != null)
             {
+                // e.g. created by another thread before the snapshot of it was published
                 return factory;
             }
 
@@ -323,14 +342,42 @@ private static Object _getFactory(String factoryName) throws FacesException
         synchronized (factoryClassNames)
         {
             // check if someone else already installed the factory
-            if (factoryMap.get(factoryName) == null)
+            Object installed = factoryMap.get(factoryName);
+            if (installed == null)
             {
                 factoryMap.put(factoryName, factory);
             }
+            else
+            {
+                factory = installed;
+            }
         }
 
+        publishFactory(classLoader, factoryMap, factoryName, factory);
+
         return factory;
     }
+
+    private static void publishFactory(ClassLoader classLoader, Map<String, Object> factoryMap, String factoryName,
+            Object factory)
+    {
+        synchronized (registeredFactoryNames)
+        {
+            // the factories could have been released in the meantime
+            if (factories.get(classLoader) != factoryMap)
+            {
+                return;
+            }
+
+            Map<String, Object> snapshot = factorySnapshots.get(classLoader);
+            Map<String, Object> newSnapshot = snapshot == null ? new HashMap<>() : new HashMap<>(snapshot);
+            newSnapshot.put(factoryName, factory);
+
+            Map<ClassLoader, Map<String, Object>> newSnapshots = new HashMap<>(factorySnapshots);
+            newSnapshots.put(classLoader, Collections.unmodifiableMap(newSnapshot));
+            factorySnapshots = Collections.unmodifiableMap(newSnapshots);
+        }
+    }
     
     private static Object getInjectionProvider()
     {
@@ -653,6 +700,13 @@ private static void _releaseFactories() throws FacesException
         {
             factoryMap = factories.remove(classLoader);
 
+            if (factorySnapshots.containsKey(classLoader))
+            {
+                Map<ClassLoader, Map<String, Object>> newSnapshots = new HashMap<>(factorySnapshots);
+                newSnapshots.remove(classLoader);
+                factorySnapshots = Collections.unmodifiableMap(newSnapshots);
+            }
+
             // _registeredFactoryNames has as value type Map<String,List> and this must
             // be cleaned before release (for gc).
             Map<String, List<String>> factoryClassNames = registeredFactoryNames.get(classLoader);
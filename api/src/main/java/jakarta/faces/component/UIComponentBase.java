@@ -54,6 +54,7 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.logging.Logger;
 import jakarta.faces.event.PhaseId;
 import org.apache.myfaces.core.api.shared.lang.Assert;
@@ -1958,7 +1959,7 @@ else if (values[0] != null || (values.length == FULL_STATE_ARRAY_SIZE))
         {
             _id = (String) values[4];
             _clientId = (String) values[5];
-            _markCreated = (String) values[6];
+            setOamVfMarkCreated((String) values[6]);
             _rendererType = (String) values[7];
             _capabilities = (Integer) values[8];
         }
@@ -2305,6 +2306,12 @@ void setCachedIsRendered(Boolean rendered)
 
     void setOamVfMarkCreated(String markCreated)
     {
+        if (_parent instanceof UIComponentBase parent
+                && parent._childrenList instanceof _ComponentChildrenList children
+                && !Objects.equals(_markCreated, markCreated))
+        {
+            children.tagIdChanged();
+        }
         _markCreated = markCreated;
     }
     
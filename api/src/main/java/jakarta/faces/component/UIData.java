@@ -173,6 +173,13 @@ public class UIData extends UIComponentBase implements NamingContainer, UniqueId
     private Map<String, Map<String, Object>> _rowDeltaStates = new HashMap<>();
     private Map<String, Map<String, Object>> _rowTransientStates = new HashMap<>();
 
+    // getContainerClientId() of the current row. It is requested by every child of the row and is the key of the
+    // row states, so it is built once per row from the prefix, which only changes with the client id of this table.
+    private transient String _rowClientIdBase;
+    private transient String _rowClientIdPrefix;
+    private transient int _rowClientIdIndex = -1;
+    private transient String _rowClientId;
+
     /**
      * Handle case where this table is nested inside another table. See method getDataModel for more details.
      * <p>
@@ -1486,8 +1493,19 @@ public String getContainerClientId(FacesContext context)
             return clientId;
         }
 
-        StringBuilder bld = _getSharedStringBuilder(context);
-        return bld.append(clientId).append(context.getNamingContainerSeparatorChar()).append(rowIndex).toString();
+        if (!clientId.equals(_rowClientIdBase))
+        {
+            // the client id of this table changes with the row of an enclosing table
+            _rowClientIdBase = clientId;
+            _rowClientIdPrefix = clientId + context.getNamingContainerSeparatorChar();
+            _rowClientId = null;
+        }
+        if (_rowClientId == null || _rowClientIdIndex != rowIndex)
+        {
+            _rowClientIdIndex = rowIndex;
+            _rowClientId = _rowClientIdPrefix + rowIndex;
+        }
+        return _rowClientId;
     }
 
     /**
@@ -615,6 +615,13 @@ else if (FACET_CREATED_UIPANEL_MARKER.length() == keyLength &&
      */
     private PropertyDescriptorWrapper getPropertyDescriptor(String key)
     {
+        // Property names are java identifiers, so keys like "jakarta.faces.component.VIEW_LOCATION_KEY"
+        // are never properties and don't need the (per component lazily resolved) descriptor map.
+        if (isNonPropertyKey(key))
+        {
+            return null;
+        }
+
         if (_propertyDescriptorMap == null)
         {
             _propertyDescriptorMap = PropertyDescriptorUtils.getCachedPropertyDescriptors(
@@ -625,6 +632,11 @@ private PropertyDescriptorWrapper getPropertyDescriptor(String key)
     }
 
 
+    static boolean isNonPropertyKey(String key)
+    {
+        return key.indexOf('.') >= 0;
+    }
+
     /**
      * Execute the getter method of the specified property on the underlying
      * component.
@@ -688,7 +700,6 @@ private void setComponentProperty(PropertyDescriptorWrapper propertyDescriptor,
             BiConsumer<Object, Object> writeFunction = null;
             if (propertyDescriptor instanceof LambdaPropertyDescriptor descriptor)
             {
-                descriptor.getWriteFunction().accept(_component, value);
                 writeFunction = descriptor.getWriteFunction();
             }
 
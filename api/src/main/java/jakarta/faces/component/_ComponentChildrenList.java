@@ -19,17 +19,42 @@
 package jakarta.faces.component;
 
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import org.apache.myfaces.core.api.shared.ChildrenByTagIdFinder;
 import org.apache.myfaces.core.api.shared.lang.Assert;
 
-class _ComponentChildrenList extends ArrayList<UIComponent> implements Serializable
+class _ComponentChildrenList extends ArrayList<UIComponent> implements Serializable, ChildrenByTagIdFinder
 {
     private static final long serialVersionUID = -6775078929331154224L;
+
+    /**
+     * Number of children from which findChildByTagId() uses an index instead of scanning the children.
+     */
+    private static final int TAG_ID_INDEX_MIN_SIZE = 8;
+
+    private static final String MARK_CREATED = "oam.vf.MARK_ID";
+
     private UIComponent _component;
 
+    // Index of the children by the id of the facelets tag that created them (see MARK_CREATED), built on
+    // demand when the view is refreshed and kept up to date by the add and remove methods.
+    private transient Map<String, UIComponent> _tagIdIndex;
+
+    // True if two children have the same tag id, in that case the index keeps the first one and
+    // is dropped on the next change.
+    private transient boolean _tagIdIndexDuplicates;
+
     _ComponentChildrenList(UIComponent component)
     {
         super(4);
@@ -61,6 +86,11 @@ public UIComponent set(int index, UIComponent value)
             {
                 childRemoved(child);
             }
+            if (_tagIdIndex != null)
+            {
+                // the position of the new child is arbitrary, so the first child of a tag id could change
+                clearTagIdIndex();
+            }
         }
         
         return child;
@@ -75,6 +105,11 @@ public boolean add(UIComponent value)
         boolean res = super.add(value);
         
         updateParent(value);
+
+        if (_tagIdIndex != null)
+        {
+            tagIdIndexAdd(value);
+        }
         
         return res;
     }
@@ -89,6 +124,18 @@ public void add(int index, UIComponent value)
         super.add(index, value);
         
         updateParent(value);
+
+        if (_tagIdIndex != null)
+        {
+            if (index == size() - 1)
+            {
+                tagIdIndexAdd(value);
+            }
+            else
+            {
+                clearTagIdIndex();
+            }
+        }
     }
 
     @Override
@@ -106,6 +153,116 @@ public UIComponent remove(int index)
     private void childRemoved(UIComponent child)
     {
         child.setParent(null);
+        if (_tagIdIndex != null)
+        {
+            tagIdIndexRemove(child);
+        }
+    }
+
+    @Override
+    public UIComponent findChildByTagId(String tagId)
+    {
+        if (size() >= TAG_ID_INDEX_MIN_SIZE)
+        {
+            Object child = findByTagIdIndex(tagId);
+            if (child != this)
+            {
+                return (UIComponent) child;
+            }
+        }
+
+        for (int i = 0, childCount = size(); i < childCount; i++)
+        {
+            UIComponent child = get(i);
+            if (tagId.equals(child.getAttributes().get(MARK_CREATED)))
+            {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the child, null if there is none, or this list if the index cannot be used
+     */
+    private Object findByTagIdIndex(String tagId)
+    {
+        if (_tagIdIndex == null && !buildTagIdIndex())
+        {
+            return this;
+        }
+
+        UIComponent child = _tagIdIndex.get(tagId);
+        if (child != null && (child.getParent() != _component
+                || !tagId.equals(((UIComponentBase) child).getOamVfMarkCreated())))
+        {
+            // the list was changed without the add and remove methods, e.g. with replaceAll()
+            clearTagIdIndex();
+            return this;
+        }
+        return child;
+    }
+
+    private boolean buildTagIdIndex()
+    {
+        Map<String, UIComponent> index = new HashMap<>((size() * 4 + 2) / 3);
+        boolean duplicates = false;
+        for (int i = 0, childCount = size(); i < childCount; i++)
+        {
+            UIComponent child = get(i);
+            if (!(child instanceof UIComponentBase base))
+            {
+                // other components don't report a change of their tag id
+                return false;
+            }
+            String tagId = base.getOamVfMarkCreated();
+            if (tagId != null && index.putIfAbsent(tagId, child) != null)
+            {
+                duplicates = true;
+            }
+        }
+        _tagIdIndex = index;
+        _tagIdIndexDuplicates = duplicates;
+        return true;
+    }
+
+    private void tagIdIndexAdd(UIComponent child)
+    {
+        if (!(child instanceof UIComponentBase base))
+        {
+            clearTagIdIndex();
+            return;
+        }
+        String tagId = base.getOamVfMarkCreated();
+        if (tagId != null && _tagIdIndex.putIfAbsent(tagId, child) != null)
+        {
+            _tagIdIndexDuplicates = true;
+        }
+    }
+
+    private void tagIdIndexRemove(UIComponent child)
+    {
+        if (_tagIdIndexDuplicates || !(child instanceof UIComponentBase base))
+        {
+            clearTagIdIndex();
+            return;
+        }
+        String tagId = base.getOamVfMarkCreated();
+        if (tagId != null)
+        {
+            _tagIdIndex.remove(tagId, child);
+        }
+    }
+
+    void tagIdChanged()
+    {
+        clearTagIdIndex();
+    }
+
+    private void clearTagIdIndex()
+    {
+        _tagIdIndex = null;
+        _tagIdIndexDuplicates = false;
     }
 
     private void updateParent(UIComponent child)
@@ -189,6 +346,67 @@ public boolean addAll(int location, Collection<? extends UIComponent> collection
         return !collection.isEmpty();
     }
 
+    @Override
+    public boolean removeIf(Predicate<? super UIComponent> filter)
+    {
+        Assert.notNull(filter, "filter");
+
+        // through remove(int), so the removed children lose their parent and the index is kept up to date
+        boolean removed = false;
+        for (Iterator<UIComponent> it = iterator(); it.hasNext();)
+        {
+            if (filter.test(it.next()))
+            {
+                it.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> collection)
+    {
+        Assert.notNull(collection, "collection");
+        return removeIf(collection::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> collection)
+    {
+        Assert.notNull(collection, "collection");
+        return removeIf(child -> !collection.contains(child));
+    }
+
+    /**
+     * The sub list of ArrayList writes to the backing array directly, this one goes through the methods of
+     * this list, so the parent of the children and the tag id index are kept up to date.
+     */
+    @Override
+    public List<UIComponent> subList(int fromIndex, int toIndex)
+    {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex)
+        {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex
+                    + ", size: " + size());
+        }
+        return new SubList(fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<UIComponent> operator)
+    {
+        clearTagIdIndex();
+        super.replaceAll(operator);
+    }
+
+    @Override
+    public void sort(Comparator<? super UIComponent> c)
+    {
+        clearTagIdIndex();
+        super.sort(c);
+    }
+
     @Override
     protected void removeRange(int start, int end)
     {
@@ -199,4 +417,98 @@ protected void removeRange(int start, int end)
             it.remove();
         }
     }
+
+    private final class SubList extends AbstractList<UIComponent> implements RandomAccess
+    {
+        private final int _offset;
+        private int _size;
+        private int _expectedModCount;
+
+        SubList(int offset, int size)
+        {
+            _offset = offset;
+            _size = size;
+            _expectedModCount = _ComponentChildrenList.this.modCount;
+        }
+
+        @Override
+        public UIComponent get(int index)
+        {
+            checkIndex(index, _size);
+            checkForComodification();
+            return _ComponentChildrenList.this.get(_offset + index);
+        }
+
+        @Override
+        public int size()
+        {
+            checkForComodification();
+            return _size;
+        }
+
+        @Override
+        public UIComponent set(int index, UIComponent value)
+        {
+            checkIndex(index, _size);
+            checkForComodification();
+            int parentSize = _ComponentChildrenList.this.size();
+            UIComponent child = _ComponentChildrenList.this.set(_offset + index, value);
+            updateSize(parentSize);
+            return child;
+        }
+
+        @Override
+        public void add(int index, UIComponent value)
+        {
+            checkIndex(index, _size + 1);
+            checkForComodification();
+            int parentSize = _ComponentChildrenList.this.size();
+            _ComponentChildrenList.this.add(_offset + index, value);
+            updateSize(parentSize);
+        }
+
+        @Override
+        public UIComponent remove(int index)
+        {
+            checkIndex(index, _size);
+            checkForComodification();
+            int parentSize = _ComponentChildrenList.this.size();
+            UIComponent child = _ComponentChildrenList.this.remove(_offset + index);
+            updateSize(parentSize);
+            return child;
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex)
+        {
+            checkForComodification();
+            int parentSize = _ComponentChildrenList.this.size();
+            _ComponentChildrenList.this.removeRange(_offset + fromIndex, _offset + toIndex);
+            updateSize(parentSize);
+        }
+
+        private void updateSize(int parentSize)
+        {
+            // adding a child that is already in this list moves it, so the size can change on set too
+            _size += _ComponentChildrenList.this.size() - parentSize;
+            _expectedModCount = _ComponentChildrenList.this.modCount;
+            modCount++;
+        }
+
+        private void checkIndex(int index, int size)
+        {
+            if (index < 0 || index >= size)
+            {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _size);
+            }
+        }
+
+        private void checkForComodification()
+        {
+            if (_ComponentChildrenList.this.modCount != _expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
 }
\ No newline at end of file
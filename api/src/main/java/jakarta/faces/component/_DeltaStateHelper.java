@@ -29,6 +29,7 @@
 import jakarta.el.ValueExpression;
 import jakarta.faces.context.FacesContext;
 import java.util.function.Supplier;
+import org.apache.myfaces.core.api.shared.lang.CompactMap;
 
 /**
  * A delta enabled state holder implementing the StateHolder Interface. 
@@ -180,7 +181,7 @@ public _DeltaStateHelper(UIComponent component)
     {
         super();
         this._component = component;
-        _fullState = new HashMap<Serializable, Object>();
+        _fullState = new CompactMap<Serializable, Object>();
         _deltas = null;
         _transientState = null;
         _initialFullState = null;
@@ -201,7 +202,7 @@ private boolean _createDeltas(Serializable key)
                 if (_initialState == null)
                 {
                     // Copy it directly
-                    _initialFullState = new HashMap<Serializable, Object>();
+                    _initialFullState = new CompactMap<Serializable, Object>();
                     copyMap(_component.getFacesContext(), _fullState, _initialFullState);
                 }
                 else
@@ -223,14 +224,14 @@ private boolean _createDeltas(Serializable key)
                         // contains some key already defined in initialState, this key must be
                         // overriden. It is better to do in that way, because it is possible
                         // to skip resetState() if the view cannot be recycled.
-                        _initialFullState = new HashMap<Serializable, Object>();
+                        _initialFullState = new CompactMap<Serializable, Object>();
                         copyMap(_component.getFacesContext(), _fullState, _initialFullState);
                     }
                 }
             }
             if (_deltas == null)
             {
-                _deltas = new HashMap<Serializable, Object>(2);
+                _deltas = new CompactMap<Serializable, Object>();
             }
             return true;
         }
@@ -1012,7 +1013,7 @@ public Object putTransient(Object key, Object value)
     {
         if (_transientState == null)
         {
-            _transientState = new HashMap<Object, Object>();
+            _transientState = new CompactMap<Object, Object>();
         }
         return _transientState.put(key, value);
     }
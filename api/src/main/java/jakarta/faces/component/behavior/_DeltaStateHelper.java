@@ -33,6 +33,7 @@
 import jakarta.faces.context.FacesContext;
 import java.util.function.Supplier;
 import org.apache.myfaces.core.api.shared.lang.Assert;
+import org.apache.myfaces.core.api.shared.lang.CompactMap;
 
 /**
  * A delta enabled state holder implementing the StateHolder Interface. 
@@ -163,7 +164,7 @@ public _DeltaStateHelper(A target)
     {
         super();
         this._target = target;
-        this._fullState = new HashMap<>();
+        this._fullState = new CompactMap<>();
         this._deltas = null;
     }
 
@@ -178,7 +179,7 @@ private boolean _createDeltas()
         {
             if (_deltas == null)
             {
-                _deltas = new HashMap<>(2, 1f);
+                _deltas = new CompactMap<>();
             }
             return true;
         }
@@ -31,7 +31,9 @@
 import java.time.format.FormatStyle;
 import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalQuery;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
 
@@ -113,7 +115,7 @@ public Object getAsObject(FacesContext facesContext, UIComponent uiComponent, St
             {
                 if (isJava8DateTimeFormatter())
                 {
-                    DateTimeFormatter format = getDateTimeFormatter();
+                    DateTimeFormatter format = getDateTimeFormatter(facesContext);
                     try
                     {
                         TemporalQuery tq = getTemporalQuery();
@@ -168,7 +170,7 @@ else if (type.equals(TYPE_LOCAL_DATE_TIME) || type.equals(TYPE_OFFSET_DATE_TIME)
                 }
                 else
                 {
-                    DateFormat format = getDateFormat();
+                    DateFormat format = getDateFormat(facesContext);
                     TimeZone tz = getTimeZone();
                     if( tz != null )
                     {
@@ -225,7 +227,7 @@ public String getAsString(FacesContext facesContext, UIComponent uiComponent, Ob
 
         if (isJava8DateTimeFormatter())
         {
-            DateTimeFormatter format = getDateTimeFormatter();
+            DateTimeFormatter format = getDateTimeFormatter(facesContext);
             
             if (value instanceof TemporalAccessor accessor)
             {
@@ -243,7 +245,7 @@ public String getAsString(FacesContext facesContext, UIComponent uiComponent, Ob
         }
         else
         {        
-            DateFormat format = getDateFormat();
+            DateFormat format = getDateFormat(facesContext);
             TimeZone tz = getTimeZone(); 
             if (tz != null)
             {
@@ -261,15 +263,29 @@ public String getAsString(FacesContext facesContext, UIComponent uiComponent, Ob
         }
     }
 
-    private DateFormat getDateFormat()
+    private DateFormat getDateFormat(FacesContext facesContext)
     {
+        String pattern = _pattern;
         String type = getType();
+        String dateStyle = getDateStyle();
+        String timeStyle = getTimeStyle();
+        Locale locale = getLocale();
+        List<Object> key = pattern != null
+                ? Arrays.asList(DateFormat.class, pattern, null, null, null, locale)
+                : Arrays.asList(DateFormat.class, null, type, dateStyle, timeStyle, locale);
+        return _FormatCache.getInstance(facesContext).getDateFormat(key,
+                () -> createDateFormat(pattern, type, dateStyle, timeStyle, locale));
+    }
+
+    private static DateFormat createDateFormat(String pattern, String type, String dateStyle, String timeStyle,
+            Locale locale)
+    {
         DateFormat format;
-        if (_pattern != null)
+        if (pattern != null)
         {
             try 
             {
-                format = new SimpleDateFormat(_pattern, getLocale());
+                format = new SimpleDateFormat(pattern, locale);
             } 
                 catch (IllegalArgumentException iae)
             {
@@ -278,21 +294,21 @@ private DateFormat getDateFormat()
         }
         else if (type.equals(TYPE_DATE))
         {
-            format = DateFormat.getDateInstance(calcStyle(getDateStyle()), getLocale());
+            format = DateFormat.getDateInstance(calcStyle(dateStyle), locale);
         }
         else if (type.equals(TYPE_TIME))
         {
-            format = DateFormat.getTimeInstance(calcStyle(getTimeStyle()), getLocale());
+            format = DateFormat.getTimeInstance(calcStyle(timeStyle), locale);
         }
         else if (type.equals(TYPE_BOTH))
         {
-            format = DateFormat.getDateTimeInstance(calcStyle(getDateStyle()),
-                                                    calcStyle(getTimeStyle()),
-                                                    getLocale());
+            format = DateFormat.getDateTimeInstance(calcStyle(dateStyle),
+                                                    calcStyle(timeStyle),
+                                                    locale);
         }
         else
         {
-            throw new ConverterException("invalid type '" + _type + '\'');
+            throw new ConverterException("invalid type '" + type + '\'');
         }
         
         // format cannot be lenient (JSR-127)
@@ -300,14 +316,26 @@ else if (type.equals(TYPE_BOTH))
         return format;
     }
     
-    private DateTimeFormatter getDateTimeFormatter()
+    private DateTimeFormatter getDateTimeFormatter(FacesContext facesContext)
     {
-        DateTimeFormatter formatter = null;
         String type = getType();
         String pattern = getPattern();
+        String dateStyle = getDateStyle();
+        String timeStyle = getTimeStyle();
+        Locale locale = getLocale();
+        List<Object> key = pattern != null && pattern.length() > 0
+                ? Arrays.asList(DateTimeFormatter.class, pattern, null, null, null, locale)
+                : Arrays.asList(DateTimeFormatter.class, null, type, dateStyle, timeStyle, locale);
+        return _FormatCache.getInstance(facesContext).getDateTimeFormatter(key,
+                () -> createDateTimeFormatter(pattern, type, dateStyle, timeStyle, locale));
+    }
+
+    private static DateTimeFormatter createDateTimeFormatter(String pattern, String type, String dateStyle,
+            String timeStyle, Locale locale)
+    {
+        DateTimeFormatter formatter = null;
         if (pattern != null && pattern.length() > 0)
         {
-            Locale locale = getLocale();
             if (locale == null)
             {
                 formatter = DateTimeFormatter.ofPattern(pattern);
@@ -321,25 +349,24 @@ private DateTimeFormatter getDateTimeFormatter()
         {
             if (TYPE_LOCAL_DATE.equals(type))
             {
-                formatter = DateTimeFormatter.ofLocalizedDate(calcFormatStyle(getDateStyle()));
+                formatter = DateTimeFormatter.ofLocalizedDate(calcFormatStyle(dateStyle));
             }
             else if (TYPE_LOCAL_DATE_TIME.equals(type) )
             {
-                String timeStyle = getTimeStyle();
                 if (timeStyle != null && timeStyle.length() > 0)
                 {
                     formatter = DateTimeFormatter.ofLocalizedDateTime(
-                            calcFormatStyle(getDateStyle()), calcFormatStyle(timeStyle));
+                            calcFormatStyle(dateStyle), calcFormatStyle(timeStyle));
                 }
                 else
                 {
                     formatter = DateTimeFormatter.ofLocalizedDateTime(
-                            calcFormatStyle(getDateStyle()));
+                            calcFormatStyle(dateStyle));
                 }
             }
             else if (TYPE_LOCAL_TIME.equals(type) )
             {
-                formatter = DateTimeFormatter.ofLocalizedTime(calcFormatStyle(getTimeStyle()));
+                formatter = DateTimeFormatter.ofLocalizedTime(calcFormatStyle(timeStyle));
             }
             else if (TYPE_OFFSET_TIME.equals(type))
             {
@@ -354,7 +381,6 @@ else if (TYPE_ZONED_DATE_TIME.equals(type))
                 formatter = DateTimeFormatter.ISO_ZONED_DATE_TIME;
             }
             
-            Locale locale = getLocale();
             if (locale != null)
             {
                 formatter = formatter.withLocale(locale);
@@ -399,7 +425,7 @@ else if (TYPE_ZONED_DATE_TIME.equals(type))
         return null;
     }
     
-    private FormatStyle calcFormatStyle(String name)
+    private static FormatStyle calcFormatStyle(String name)
     {
         if (name.equals(STYLE_DEFAULT))
         {
@@ -425,7 +451,7 @@ private FormatStyle calcFormatStyle(String name)
         throw new ConverterException("invalid style '" + name + '\'');
     }
 
-    private int calcStyle(String name)
+    private static int calcStyle(String name)
     {
         if (name.equals(STYLE_DEFAULT))
         {
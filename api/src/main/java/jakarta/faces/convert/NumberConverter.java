@@ -25,7 +25,9 @@
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.text.ParsePosition;
+import java.util.Arrays;
 import java.util.Currency;
+import java.util.List;
 import java.util.Locale;
 
 import jakarta.el.ValueExpression;
@@ -194,7 +196,9 @@ private Object parse(String value, NumberFormat format, Class<?> destType)
         }
         if (isIntegerOnly())
         {
-            char decimalSeparater = new DecimalFormatSymbols(getLocale()).getDecimalSeparator();
+            char decimalSeparater = format instanceof DecimalFormat decimalFormat
+                    ? decimalFormat.getDecimalFormatSymbols().getDecimalSeparator()
+                    : new DecimalFormatSymbols(getLocale()).getDecimalSeparator();
             int decimalParseIndex = value.indexOf(decimalSeparater);
             if (decimalParseIndex != -1 && decimalParseIndex != parsePosition.getIndex())
             {
@@ -267,26 +271,36 @@ private NumberFormat getNumberFormat(FacesContext facesContext)
             throw new ConverterException("Cannot get NumberFormat, either type or pattern needed.");
         }
 
+        // the currency is applied to the copy, after the digits, as setCurrency() changes the fraction digits
+        String pattern = _pattern;
+        String type = _type;
+        List<Object> key = Arrays.asList(NumberFormat.class, pattern, pattern == null ? type : null, locale);
+        return _FormatCache.getInstance(facesContext).getNumberFormat(key,
+                () -> createNumberFormat(pattern, type, locale));
+    }
+
+    private static NumberFormat createNumberFormat(String pattern, String type, Locale locale)
+    {
         // pattern
-        if (_pattern != null)
+        if (pattern != null)
         {
-            return new DecimalFormat(_pattern, new DecimalFormatSymbols(locale));
+            return new DecimalFormat(pattern, new DecimalFormatSymbols(locale));
         }
 
         // type
-        if (_type.equals("number"))
+        if (type.equals("number"))
         {
             return NumberFormat.getNumberInstance(locale);
         }
-        else if (_type.equals("currency"))
+        else if (type.equals("currency"))
         {
             return NumberFormat.getCurrencyInstance(locale);
         }
-        else if (_type.equals("percent"))
+        else if (type.equals("percent"))
         {
             return NumberFormat.getPercentInstance(locale);
         }
-        throw new ConverterException("Cannot get NumberFormat, illegal type " + _type);
+        throw new ConverterException("Cannot get NumberFormat, illegal type " + type);
     }
 
     private void formatCurrency(NumberFormat format)
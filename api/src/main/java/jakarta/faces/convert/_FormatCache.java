@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package jakarta.faces.convert;
+
+import java.text.DateFormat;
+import java.text.NumberFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import jakarta.faces.context.FacesContext;
+
+/**
+ * Application scoped cache of the format objects used by NumberConverter and DateTimeConverter, keyed by all
+ * settings the format is created from, e.g. type, pattern and locale.
+ *
+ * <p>A DateTimeFormatter is immutable and handed out as is. NumberFormat and DateFormat are not thread-safe, so the
+ * cached instance is only a prototype which is cloned for each use; cloning is much cheaper than creating a new
+ * format, which parses the pattern and loads the locale data each time.</p>
+ *
+ * <p>Patterns can be dynamic, so the cache stops growing once it holds {@link #MAX_SIZE} formats; further formats
+ * are then created on each use as before.</p>
+ */
+class _FormatCache
+{
+    static final int MAX_SIZE = 1000;
+
+    private static final String INSTANCE_KEY = _FormatCache.class.getName();
+
+    private final Map<List<Object>, Object> formats = new ConcurrentHashMap<>();
+
+    static _FormatCache getInstance(FacesContext facesContext)
+    {
+        Map<String, Object> applicationMap = facesContext.getExternalContext().getApplicationMap();
+        _FormatCache cache = (_FormatCache) applicationMap.get(INSTANCE_KEY);
+        if (cache == null)
+        {
+            cache = (_FormatCache) applicationMap.computeIfAbsent(INSTANCE_KEY, k -> new _FormatCache());
+        }
+        return cache;
+    }
+
+    /**
+     * @return a NumberFormat for the exclusive use of the caller
+     */
+    NumberFormat getNumberFormat(List<Object> key, Supplier<NumberFormat> factory)
+    {
+        return (NumberFormat) get(key, factory).clone();
+    }
+
+    /**
+     * @return a DateFormat for the exclusive use of the caller
+     */
+    DateFormat getDateFormat(List<Object> key, Supplier<DateFormat> factory)
+    {
+        return (DateFormat) get(key, factory).clone();
+    }
+
+    DateTimeFormatter getDateTimeFormatter(List<Object> key, Supplier<DateTimeFormatter> factory)
+    {
+        return get(key, factory);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(List<Object> key, Supplier<T> factory)
+    {
+        Object format = formats.get(key);
+        if (format != null)
+        {
+            return (T) format;
+        }
+
+        T created = factory.get();
+        if (created != null && formats.size() < MAX_SIZE)
+        {
+            formats.putIfAbsent(key, created);
+        }
+        return created;
+    }
+
+    int size()
+    {
+        return formats.size();
+    }
+}
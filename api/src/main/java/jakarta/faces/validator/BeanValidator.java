@@ -20,10 +20,9 @@
 
 import org.apache.myfaces.core.api.shared.MessageUtils;
 import org.apache.myfaces.core.api.shared.ExternalSpecifications;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -40,7 +39,6 @@
 import jakarta.validation.Validation;
 import jakarta.validation.ValidatorFactory;
 import jakarta.validation.groups.Default;
-import jakarta.validation.metadata.BeanDescriptor;
 
 import org.apache.myfaces.buildtools.maven2.plugin.builder.annotation.JSFJspProperty;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.annotation.JSFProperty;
@@ -49,7 +47,6 @@
 import org.apache.myfaces.core.api.shared.FacesMessageInterpolator;
 import org.apache.myfaces.core.api.shared.ValueReferenceResolver;
 import org.apache.myfaces.core.api.shared.lang.Assert;
-import org.apache.myfaces.core.api.shared.lang.ClassUtils;
 
 /**
  * <p>
@@ -117,8 +114,6 @@ public class BeanValidator implements Validator, PartialStateHolder
     public static final String ENABLE_VALIDATE_WHOLE_BEAN_PARAM_NAME = 
             "jakarta.faces.validator.ENABLE_VALIDATE_WHOLE_BEAN";
     
-    private static final Class<?>[] DEFAULT_VALIDATION_GROUPS_ARRAY = new Class<?>[] { Default.class };
-
     private static final String DEFAULT_VALIDATION_GROUP_NAME = "jakarta.validation.groups.Default";
     
     private static final String CANDIDATE_COMPONENT_VALUES_MAP = "oam.WBV.candidatesMap";
@@ -183,14 +178,19 @@ public void validate(final FacesContext context, final UIComponent component, fi
 
         // Initialize Bean Validation.
         ValidatorFactory validatorFactory = createValidatorFactory(context);
-        jakarta.validation.Validator validator = createValidator(validatorFactory, context);
-        BeanDescriptor beanDescriptor = validator.getConstraintsForClass(valueBaseClass);
-        if (!beanDescriptor.isBeanConstrained())
+        _BeanValidatorCache cache = _BeanValidatorCache.getInstance(context);
+        _BeanValidatorCache.BeanMetadata beanMetadata = cache.getBeanMetadata(valueBaseClass, validatorFactory);
+        if (!beanMetadata.isConstrained())
         {
             return;
         }
-        
-        // Note that validationGroupsArray was initialized when createValidator was called
+
+        // Set default validation group when setValidationGroups has not been called.
+        // The null check is there to prevent it from happening twice.
+        if (this.validationGroupsArray == null)
+        {
+            this.validationGroupsArray = cache.getValidationGroups(this.validationGroups);
+        }
         Class[] validationGroupsArray = this.validationGroupsArray;
 
         // Faces 2.3: If the ENABLE_VALIDATE_WHOLE_BEAN_PARAM_NAME application parameter is enabled and this Validator 
@@ -208,9 +208,18 @@ public void validate(final FacesContext context, final UIComponent component, fi
             }
         }
         
-        // Delegate to Bean Validation.
-        Set<?> constraintViolations
-                = validator.validateValue(valueBaseClass, valueProperty, value, validationGroupsArray);
+        // Delegate to Bean Validation, unless the property has no constraints at all.
+        Set<?> constraintViolations;
+        if (beanMetadata.isPropertyConstrained(valueProperty))
+        {
+            jakarta.validation.Validator validator = createValidator(validatorFactory, context);
+            constraintViolations = validator.validateValue(valueBaseClass, valueProperty, value,
+                    validationGroupsArray);
+        }
+        else
+        {
+            constraintViolations = Collections.emptySet();
+        }
         if (!constraintViolations.isEmpty())
         {
             Set<FacesMessage> messages = new LinkedHashSet<>(constraintViolations.size());
@@ -279,13 +288,6 @@ private boolean isValidateWholeBeanEnabled(FacesContext facesContext)
 
     private jakarta.validation.Validator createValidator(final ValidatorFactory validatorFactory, FacesContext context)
     {
-        // Set default validation group when setValidationGroups has not been called.
-        // The null check is there to prevent it from happening twice.
-        if (validationGroupsArray == null)
-        {
-            postSetValidationGroups();
-        }
-
         return validatorFactory //
                 .usingContext() //
                 .messageInterpolator(new FacesMessageInterpolator(
@@ -331,44 +333,6 @@ private ValidatorFactory createValidatorFactory(FacesContext context)
         }
     }
 
-    /**
-     * Fully initialize the validation groups if needed.
-     * If no validation groups are specified, the Default validation group is used.
-     */
-    private void postSetValidationGroups()
-    {
-        if (this.validationGroups == null || this.validationGroups.matches(EMPTY_VALIDATION_GROUPS_PATTERN))
-        {
-            this.validationGroupsArray = DEFAULT_VALIDATION_GROUPS_ARRAY;
-        }
-        else
-        {
-            String[] classes = this.validationGroups.split(VALIDATION_GROUPS_DELIMITER);
-            List<Class<?>> validationGroupsList = new ArrayList<>(classes.length);
-
-            for (String clazz : classes)
-            {
-                clazz = clazz.trim();
-                if (!clazz.isEmpty())
-                {
-                    try
-                    {
-                        Class<?> theClass = ClassUtils.classForName(clazz);
-
-                        // the class was found
-                        validationGroupsList.add(theClass);
-                    }
-                    catch (ClassNotFoundException e)
-                    {
-                        throw new RuntimeException("Could not load validation group", e);                     
-                    }
-                }
-            }
-                    
-            this.validationGroupsArray = validationGroupsList.toArray(new Class[validationGroupsList.size()]);
-        }
-    }
-
     /** {@inheritDoc} */
     @Override
     public Object saveState(final FacesContext context)
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package jakarta.faces.validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.faces.context.FacesContext;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.groups.Default;
+import jakarta.validation.metadata.BeanDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
+
+import org.apache.myfaces.core.api.shared.lang.ClassUtils;
+
+/**
+ * Application scoped cache of the Bean Validation metadata BeanValidator needs for each validation: which properties
+ * of a bean class are constrained, and the classes of the validation groups.
+ *
+ * <p>With the metadata at hand, BeanValidator skips unconstrained properties without creating a
+ * jakarta.validation.Validator, which is the common case for f:validateBean installed as default validator.</p>
+ */
+class _BeanValidatorCache
+{
+    private static final String INSTANCE_KEY = _BeanValidatorCache.class.getName();
+
+    private static final Class<?>[] DEFAULT_VALIDATION_GROUPS_ARRAY = new Class<?>[] { Default.class };
+
+    private final Map<Class<?>, BeanMetadata> beans = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>[]> validationGroups = new ConcurrentHashMap<>();
+
+    static _BeanValidatorCache getInstance(FacesContext facesContext)
+    {
+        Map<String, Object> applicationMap = facesContext.getExternalContext().getApplicationMap();
+        _BeanValidatorCache cache = (_BeanValidatorCache) applicationMap.get(INSTANCE_KEY);
+        if (cache == null)
+        {
+            cache = (_BeanValidatorCache) applicationMap.computeIfAbsent(INSTANCE_KEY, k -> new _BeanValidatorCache());
+        }
+        return cache;
+    }
+
+    BeanMetadata getBeanMetadata(Class<?> beanClass, ValidatorFactory validatorFactory)
+    {
+        BeanMetadata metadata = beans.get(beanClass);
+        if (metadata == null)
+        {
+            metadata = beans.computeIfAbsent(beanClass,
+                    k -> new BeanMetadata(validatorFactory.getValidator().getConstraintsForClass(k)));
+        }
+        return metadata;
+    }
+
+    /**
+     * @return the classes of the comma separated validation groups; the array is shared and must not be modified
+     */
+    Class<?>[] getValidationGroups(String groups)
+    {
+        if (groups == null)
+        {
+            return DEFAULT_VALIDATION_GROUPS_ARRAY;
+        }
+        Class<?>[] classes = validationGroups.get(groups);
+        if (classes == null)
+        {
+            classes = validationGroups.computeIfAbsent(groups, _BeanValidatorCache::resolveValidationGroups);
+        }
+        return classes;
+    }
+
+    private static Class<?>[] resolveValidationGroups(String groups)
+    {
+        if (groups.matches(BeanValidator.EMPTY_VALIDATION_GROUPS_PATTERN))
+        {
+            return DEFAULT_VALIDATION_GROUPS_ARRAY;
+        }
+
+        String[] classes = groups.split(BeanValidator.VALIDATION_GROUPS_DELIMITER);
+        List<Class<?>> validationGroupsList = new ArrayList<>(classes.length);
+        for (String clazz : classes)
+        {
+            clazz = clazz.trim();
+            if (!clazz.isEmpty())
+            {
+                try
+                {
+                    validationGroupsList.add(ClassUtils.classForName(clazz));
+                }
+                catch (ClassNotFoundException e)
+                {
+                    throw new RuntimeException("Could not load validation group", e);
+                }
+            }
+        }
+        return validationGroupsList.toArray(new Class[validationGroupsList.size()]);
+    }
+
+    static final class BeanMetadata
+    {
+        private final boolean constrained;
+        private final Set<String> constrainedProperties;
+
+        BeanMetadata(BeanDescriptor beanDescriptor)
+        {
+            this.constrained = beanDescriptor.isBeanConstrained();
+            if (constrained)
+            {
+                Set<String> properties = new HashSet<>();
+                for (PropertyDescriptor property : beanDescriptor.getConstrainedProperties())
+                {
+                    properties.add(property.getPropertyName());
+                }
+                this.constrainedProperties = properties;
+            }
+            else
+            {
+                this.constrainedProperties = Collections.emptySet();
+            }
+        }
+
+        boolean isConstrained()
+        {
+            return constrained;
+        }
+
+        /**
+         * @return false if validating a value of the property can never result in a constraint violation
+         */
+        boolean isPropertyConstrained(String property)
+        {
+            return constrainedProperties.contains(property);
+        }
+    }
+}
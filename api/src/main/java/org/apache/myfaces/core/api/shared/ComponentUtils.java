@@ -23,6 +23,7 @@
 import jakarta.faces.validator.Validator;
 import jakarta.faces.validator.ValidatorException;
 import java.util.Collection;
+import java.util.List;
 import jakarta.faces.component.NamingContainer;
 import jakarta.faces.component.UIComponent;
 import jakarta.faces.component.UIInput;
@@ -60,6 +61,38 @@ private ComponentUtils()
     {
     }
 
+    /**
+     * Finds the child created by the facelets tag with the given id.
+     *
+     * @param parent the parent component
+     * @param tagId the tag id, stored in the "oam.vf.MARK_ID" attribute of the child
+     * @param markCreatedKey the attribute key of the tag id
+     * @return the first child with the tag id, or null
+     */
+    public static UIComponent findChildByTagId(UIComponent parent, String tagId, String markCreatedKey)
+    {
+        if (parent.getChildCount() == 0)
+        {
+            return null;
+        }
+
+        List<UIComponent> children = parent.getChildren();
+        if (children instanceof ChildrenByTagIdFinder finder)
+        {
+            return finder.findChildByTagId(tagId);
+        }
+
+        for (int i = 0, childCount = children.size(); i < childCount; i++)
+        {
+            UIComponent child = children.get(i);
+            if (tagId.equals(child.getAttributes().get(markCreatedKey)))
+            {
+                return child;
+            }
+        }
+        return null;
+    }
+
     public static UIComponent findClosestNamingContainer(UIComponent component, boolean returnRootIfNotFound)
     {
         NamingContainer result = findClosest(NamingContainer.class, component);
@@ -0,0 +1,391 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.core.api.shared.lang;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map for the few entries of a component state, which stores the keys and values in a single array.
+ *
+ * <p>Most components hold less than ten properties keyed by their PropertyKeys enum, so a linear scan,
+ * first by identity, is faster than hashing and does not allocate an entry node for each property. The
+ * array grows on demand; once the map holds more than {@link #MAX_ARRAY_SIZE} entries, the entries are
+ * moved to a HashMap.</p>
+ *
+ * <p>Null values are supported, null keys are not. The map is not thread-safe. It is serialized as its size
+ * followed by the keys and values, as it ends up in the state of a view, e.g. as transient state.</p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class CompactMap<K, V> extends AbstractMap<K, V> implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    static final int MAX_ARRAY_SIZE = 16;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Keys at even, values at odd indexes. Null until the first put.
+     */
+    private transient Object[] _table;
+    private transient int _size;
+
+    /**
+     * Used instead of the table once the map grows over MAX_ARRAY_SIZE.
+     */
+    private transient HashMap<K, V> _overflow;
+
+    private transient int _modCount;
+    private transient Set<Map.Entry<K, V>> _entrySet;
+
+    public CompactMap()
+    {
+    }
+
+    private int indexOf(Object key)
+    {
+        Object[] table = _table;
+        int length = _size * 2;
+        for (int i = 0; i < length; i += 2)
+        {
+            if (table[i] == key)
+            {
+                return i;
+            }
+        }
+        if (key != null)
+        {
+            for (int i = 0; i < length; i += 2)
+            {
+                if (key.equals(table[i]))
+                {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size()
+    {
+        return _overflow == null ? _size : _overflow.size();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        if (_overflow != null)
+        {
+            return _overflow.containsKey(key);
+        }
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key)
+    {
+        if (_overflow != null)
+        {
+            return _overflow.get(key);
+        }
+        int index = indexOf(key);
+        return index < 0 ? null : (V) _table[index + 1];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value)
+    {
+        if (key == null)
+        {
+            throw new NullPointerException("key");
+        }
+        if (_overflow != null)
+        {
+            return _overflow.put(key, value);
+        }
+
+        int index = indexOf(key);
+        if (index >= 0)
+        {
+            V previous = (V) _table[index + 1];
+            _table[index + 1] = value;
+            return previous;
+        }
+
+        if (_size == MAX_ARRAY_SIZE)
+        {
+            _overflow = new HashMap<>(MAX_ARRAY_SIZE * 4);
+            for (int i = 0; i < _size * 2; i += 2)
+            {
+                _overflow.put((K) _table[i], (V) _table[i + 1]);
+            }
+            _overflow.put(key, value);
+            _table = null;
+            _size = 0;
+            _modCount++;
+            return null;
+        }
+
+        if (_table == null)
+        {
+            _table = new Object[INITIAL_CAPACITY * 2];
+        }
+        else if (_size * 2 == _table.length)
+        {
+            Object[] table = new Object[_table.length * 2];
+            System.arraycopy(_table, 0, table, 0, _table.length);
+            _table = table;
+        }
+        _table[_size * 2] = key;
+        _table[_size * 2 + 1] = value;
+        _size++;
+        _modCount++;
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key)
+    {
+        if (_overflow != null)
+        {
+            return _overflow.remove(key);
+        }
+        int index = indexOf(key);
+        if (index < 0)
+        {
+            return null;
+        }
+        V previous = (V) _table[index + 1];
+        removeAt(index);
+        return previous;
+    }
+
+    private void removeAt(int index)
+    {
+        int length = _size * 2;
+        System.arraycopy(_table, index + 2, _table, index, length - index - 2);
+        _table[length - 2] = null;
+        _table[length - 1] = null;
+        _size--;
+        _modCount++;
+    }
+
+    @Override
+    public void clear()
+    {
+        if (_overflow != null)
+        {
+            _overflow = null;
+        }
+        else if (_size > 0)
+        {
+            for (int i = 0; i < _size * 2; i++)
+            {
+                _table[i] = null;
+            }
+            _size = 0;
+        }
+        _modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet()
+    {
+        if (_overflow != null)
+        {
+            return _overflow.entrySet();
+        }
+        if (_entrySet == null)
+        {
+            _entrySet = new EntrySet();
+        }
+        return _entrySet;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+        out.writeInt(size());
+        for (Map.Entry<K, V> entry : entrySet())
+        {
+            out.writeObject(entry.getKey());
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        int size = in.readInt();
+        if (size < 0)
+        {
+            throw new InvalidObjectException("Illegal size: " + size);
+        }
+        for (int i = 0; i < size; i++)
+        {
+            put((K) in.readObject(), (V) in.readObject());
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>>
+    {
+        @Override
+        public int size()
+        {
+            return CompactMap.this.size();
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator()
+        {
+            if (_overflow != null)
+            {
+                return _overflow.entrySet().iterator();
+            }
+            return new EntryIterator();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>>
+    {
+        private int _next = 0;
+        private int _last = -1;
+        private int _expectedModCount = _modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            return _next < _size * 2;
+        }
+
+        @Override
+        public Map.Entry<K, V> next()
+        {
+            if (_modCount != _expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            _last = _next;
+            _next += 2;
+            return new Entry(_last);
+        }
+
+        @Override
+        public void remove()
+        {
+            if (_last < 0)
+            {
+                throw new IllegalStateException();
+            }
+            if (_modCount != _expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(_last);
+            _next = _last;
+            _last = -1;
+            _expectedModCount = _modCount;
+        }
+    }
+
+    private final class Entry implements Map.Entry<K, V>
+    {
+        private final int _index;
+
+        Entry(int index)
+        {
+            _index = index;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K getKey()
+        {
+            return (K) _table[_index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue()
+        {
+            return (V) _table[_index + 1];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value)
+        {
+            V previous = (V) _table[_index + 1];
+            _table[_index + 1] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Map.Entry<?, ?> other))
+            {
+                return false;
+            }
+            return getKey().equals(other.getKey())
+                    && (getValue() == null ? other.getValue() == null : getValue().equals(other.getValue()));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return getKey().hashCode() ^ (getValue() == null ? 0 : getValue().hashCode());
+        }
+
+        @Override
+        public String toString()
+        {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -86,6 +86,7 @@
 import jakarta.faces.view.ViewDeclarationLanguage;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import javax.naming.Context;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
@@ -122,6 +123,7 @@
 import org.apache.myfaces.core.api.shared.lang.PropertyDescriptorWrapper;
 import org.apache.myfaces.core.api.shared.lang.Assert;
 import org.apache.myfaces.util.lang.ClassUtils;
+import org.apache.myfaces.util.lang.InstanceSuppliers;
 import org.apache.myfaces.util.lang.Lazy;
 import org.apache.myfaces.util.lang.StringUtils;
 import org.apache.myfaces.view.facelets.FaceletCompositionContext;
@@ -187,6 +189,11 @@ public class ApplicationImpl extends Application
     
     private final Map<String, Object> _behaviorClassMap = new ConcurrentHashMap<>();
 
+    /**
+     * Creates the instances of the component, converter, validator and behavior classes, resolved once per class.
+     */
+    private final Map<Class<?>, Supplier<?>> _instanceSuppliers = new ConcurrentHashMap<>();
+
     private final RuntimeConfig _runtimeConfig;
     private final MyfacesConfig _myfacesConfig;
 
@@ -204,6 +211,8 @@ public class ApplicationImpl extends Application
     private final Map<Class<?>, List<ResourceDependency>> _classToResourceDependencyMap = new ConcurrentHashMap<>();
     
     private List<Class<? extends Converter>> _noArgConstructorConverterClasses = new CopyOnWriteArrayList<>();
+
+    private final Map<Class<?>, Constructor<?>> _targetClassConverterConstructors = new ConcurrentHashMap<>();
     
     private Map<Class<? extends Converter>, Boolean> _cdiManagedConverterMap = new ConcurrentHashMap<>();
     
@@ -1039,7 +1048,7 @@ public Behavior createBehavior(String behaviorId) throws FacesException
             }
             else
             {
-                behavior = behaviorClass.newInstance();
+                behavior = newInstance(behaviorClass);
                 FacesContext facesContext = getFacesContext();
                 _handleAttachedResourceDependencyAnnotations(facesContext, behavior);
 
@@ -1283,7 +1292,7 @@ private final UIComponent createComponent(FacesContext facesContext,
 
         try
         {
-            UIComponent component = componentClass.newInstance();
+            UIComponent component = newInstance(componentClass);
             _handleAnnotations(facesContext, component, component);
             return component;
         }
@@ -1309,7 +1318,7 @@ public final UIComponent createComponent(final String componentType) throws Face
 
         try
         {
-            UIComponent component = componentClass.newInstance();
+            UIComponent component = newInstance(componentClass);
             _handleAnnotations(getFacesContext(), component, component);
             return component;
         }
@@ -1401,9 +1410,8 @@ public final Converter createConverter(final String converterId)
     }
 
     private Converter createConverterInstance(Class<? extends Converter> converterClass)
-            throws InstantiationException, IllegalAccessException
     {
-        return converterClass.newInstance();
+        return newInstance(converterClass);
     }
 
     @Override
@@ -1501,8 +1509,13 @@ else if (converterClassOrClassName instanceof String string)
                         {
                             // look for a constructor that takes a single Class object
                             // See Faces 1.2 javadoc for Converter
-                            Constructor<? extends Converter> constructor = converterClass
-                                    .getConstructor(Class.class);
+                            Constructor<? extends Converter> constructor = (Constructor<? extends Converter>)
+                                    _targetClassConverterConstructors.get(converterClass);
+                            if (constructor == null)
+                            {
+                                constructor = converterClass.getConstructor(Class.class);
+                                _targetClassConverterConstructors.put(converterClass, constructor);
+                            }
 
                             converter = constructor.newInstance(targetClass);
                         }
@@ -1901,9 +1914,19 @@ public final Validator createValidator(final String validatorId) throws FacesExc
     }
 
     private Validator createValidatorInstance(Class<? extends Validator> validatorClass)
-            throws InstantiationException, IllegalAccessException
     {
-        return validatorClass.newInstance();
+        return newInstance(validatorClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T newInstance(Class<? extends T> clazz)
+    {
+        Supplier<?> supplier = _instanceSuppliers.get(clazz);
+        if (supplier == null)
+        {
+            supplier = _instanceSuppliers.computeIfAbsent(clazz, InstanceSuppliers::create);
+        }
+        return (T) supplier.get();
     }
 
     @Override
@@ -21,6 +21,7 @@
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
@@ -45,10 +46,20 @@
         private SystemEventListener listener;
     }
     
+    private static final EventInfo[] NO_LISTENERS = new EventInfo[0];
+
     private ConcurrentHashMap<Class<? extends SystemEvent>, List<EventInfo>> globalListeners
             = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Class<? extends SystemEvent>, Constructor<? extends SystemEvent>> constructorCache
             = new ConcurrentHashMap<>();
+
+    /**
+     * The global listeners of an event class, filtered by the source base type they listen to. Computed on the
+     * first event of a source base type and dropped on each (un)subscription for the event class, so publishing
+     * an event doesn't have to check the source class of each listener.
+     */
+    private ConcurrentHashMap<Class<? extends SystemEvent>, Map<Class<?>, EventInfo[]>> globalListenerTables
+            = new ConcurrentHashMap<>();
     
     public void publishEvent(FacesContext facesContext, Class<? extends SystemEvent> systemEventClass, Object source)
     {
@@ -98,8 +109,11 @@ public void publishEvent(FacesContext facesContext, Class<? extends SystemEvent>
 
             
             // global listeners
-            List<EventInfo> eventInfos = globalListeners.get(systemEventClass);
-            event = processGlobalListeners(facesContext, eventInfos, systemEventClass, source, event, sourceBaseType);
+            EventInfo[] eventInfos = getGlobalListeners(systemEventClass, sourceBaseType);
+            if (eventInfos.length > 0)
+            {
+                event = processGlobalListeners(facesContext, eventInfos, systemEventClass, source, event);
+            }
         }
         catch (AbortProcessingException e)
         {
@@ -135,6 +149,7 @@ public void subscribeToEvent(Class<? extends SystemEvent> systemEventClass, Clas
         eventInfo.listener = listener;
         
         eventInfos.add(eventInfo);
+        globalListenerTables.remove(systemEventClass);
     }
     
     public void unsubscribeFromEvent(Class<? extends SystemEvent> systemEventClass, SystemEventListener listener)
@@ -162,6 +177,42 @@ public void unsubscribeFromEvent(Class<? extends SystemEvent> systemEventClass,
         {
             eventInfos.removeIf(e -> e.sourceClass == sourceClass && e.listener.equals(listener));
         }
+        globalListenerTables.remove(systemEventClass);
+    }
+
+    private EventInfo[] getGlobalListeners(Class<? extends SystemEvent> systemEventClass, Class<?> sourceBaseType)
+    {
+        Map<Class<?>, EventInfo[]> table = globalListenerTables.get(systemEventClass);
+        if (table == null)
+        {
+            List<EventInfo> eventInfos = globalListeners.get(systemEventClass);
+            if (eventInfos == null || eventInfos.isEmpty())
+            {
+                return NO_LISTENERS;
+            }
+            table = globalListenerTables.computeIfAbsent(systemEventClass, k -> new ConcurrentHashMap<>());
+        }
+
+        EventInfo[] eventInfos = table.get(sourceBaseType);
+        if (eventInfos == null)
+        {
+            // the table is dropped after a listener was (un)subscribed, so the listeners are read after it
+            List<EventInfo> matching = new ArrayList<>();
+            List<EventInfo> subscribed = globalListeners.get(systemEventClass);
+            if (subscribed != null)
+            {
+                for (EventInfo eventInfo : subscribed)
+                {
+                    if (eventInfo.sourceClass == null || eventInfo.sourceClass.isAssignableFrom(sourceBaseType))
+                    {
+                        matching.add(eventInfo);
+                    }
+                }
+            }
+            eventInfos = matching.isEmpty() ? NO_LISTENERS : matching.toArray(new EventInfo[matching.size()]);
+            table.put(sourceBaseType, eventInfos);
+        }
+        return eventInfos;
     }
     
   
@@ -179,7 +230,7 @@ protected SystemEvent createEvent(Class<? extends SystemEvent> systemEventClass,
 
         try
         {
-            if (constructor.getParameterTypes().length == 2)
+            if (constructor.getParameterCount() == 2)
             {
                 return constructor.newInstance(facesContext, source);
             }
@@ -201,7 +252,7 @@ protected Constructor<? extends SystemEvent> getConstructor(Class<? extends Syst
         // try to lookup the new 2 parameter constructor
         for (Constructor<?> c : constructors)
         {
-            if (c.getParameterTypes().length == 2)
+            if (c.getParameterCount() == 2)
             {
                 // Safe cast, since the constructor belongs
                 // to a class of type SystemEvent
@@ -215,7 +266,7 @@ protected Constructor<? extends SystemEvent> getConstructor(Class<? extends Syst
         {
             for (Constructor<?> c : constructors)
             {
-                if (c.getParameterTypes().length == 1)
+                if (c.getParameterCount() == 1)
                 {
                     // Safe cast, since the constructor belongs
                     // to a class of type SystemEvent
@@ -270,10 +321,30 @@ protected SystemEvent processViewAttachedListeners(FacesContext facesContext,
             return event;
         }
 
-        int processedListenerIndex = 0;
+        int processedListenerIndex;
+        List<SystemEventListener> listenersCopy;
+        if (listeners.size() == 1)
+        {
+            // The usual case, e.g. the listener of the partial state saving for PostAddToViewEvent, which is
+            // invoked for each added component, so avoid the copy unless the listener changes the list.
+            SystemEventListener listener = listeners.get(0);
+            event = processViewAttachedListener(facesContext, listener, systemEventClass, source, event);
+            if (listeners.size() == 1 && listeners.get(0) == listener)
+            {
+                return event;
+            }
 
-        // Do it with a copy because the list could be changed during a event see MYFACES-2935
-        List<SystemEventListener> listenersCopy = new ArrayList<>(listeners);
+            listenersCopy = new ArrayList<>(listeners.size() + 1);
+            listenersCopy.add(listener);
+            addChangedListeners(listeners, listenersCopy);
+            processedListenerIndex = 1;
+        }
+        else
+        {
+            // Do it with a copy because the list could be changed during a event see MYFACES-2935
+            listenersCopy = new ArrayList<>(listeners);
+            processedListenerIndex = 0;
+        }
 
         // If the inner for is succesful, processedListenerIndex == listenersCopy.size()
         // and the loop will be complete.
@@ -282,99 +353,113 @@ protected SystemEvent processViewAttachedListeners(FacesContext facesContext,
             for (; processedListenerIndex < listenersCopy.size(); processedListenerIndex++ )
             {
                 SystemEventListener listener = listenersCopy.get(processedListenerIndex);
-                if (listener.isListenerForSource(source))
-                {
-                    // Lazy construct the event; zhis same event instance must be passed to all listener instances.
-                    if (event == null)
-                    {
-                        event = createEvent(systemEventClass, facesContext, source);
-                    }
-
-                    if (event.isAppropriateListener(listener))
-                    {
-                        event.processListener(listener);
-                    }
-                }
+                event = processViewAttachedListener(facesContext, listener, systemEventClass, source, event);
             }
 
-            boolean listChanged = false;
-            if (listeners.size() == listenersCopy.size())
+            addChangedListeners(listeners, listenersCopy);
+        }
+
+        return event;
+    }
+
+    private SystemEvent processViewAttachedListener(FacesContext facesContext, SystemEventListener listener,
+            Class<? extends SystemEvent> systemEventClass, Object source, SystemEvent event)
+    {
+        if (listener.isListenerForSource(source))
+        {
+            // Lazy construct the event; zhis same event instance must be passed to all listener instances.
+            if (event == null)
             {
-                for (int i = 0; i < listenersCopy.size(); i++)
-                {
-                    if (listenersCopy.get(i) != listeners.get(i))
-                    {
-                        listChanged = true;
-                        break;
-                    }
-                }
+                event = createEvent(systemEventClass, facesContext, source);
             }
-            else
+
+            if (event.isAppropriateListener(listener))
             {
-                listChanged = true;
+                event.processListener(listener);
             }
+        }
+        return event;
+    }
 
-            if (listChanged)
+    /**
+     * Adds the listeners added to the view during the event to the copy, so they are processed as well.
+     */
+    private void addChangedListeners(List<? extends SystemEventListener> listeners,
+            List<SystemEventListener> listenersCopy)
+    {
+        boolean listChanged = false;
+        if (listeners.size() == listenersCopy.size())
+        {
+            for (int i = 0; i < listenersCopy.size(); i++)
             {
-                for (int i = 0; i < listeners.size(); i++)
+                if (listenersCopy.get(i) != listeners.get(i))
                 {
-                    SystemEventListener listener = listeners.get(i);
+                    listChanged = true;
+                    break;
+                }
+            }
+        }
+        else
+        {
+            listChanged = true;
+        }
+
+        if (listChanged)
+        {
+            for (int i = 0; i < listeners.size(); i++)
+            {
+                SystemEventListener listener = listeners.get(i);
 
-                    // check if listenersCopy.get(i) is valid
-                    if (i < listenersCopy.size())
+                // check if listenersCopy.get(i) is valid
+                if (i < listenersCopy.size())
+                {
+                    // The normal case is a listener was added, 
+                    // so as heuristic, check first if we can find it at the same location
+                    if (!listener.equals(listenersCopy.get(i)) &&
+                        !listenersCopy.contains(listener))
                     {
-                        // The normal case is a listener was added, 
-                        // so as heuristic, check first if we can find it at the same location
-                        if (!listener.equals(listenersCopy.get(i)) &&
-                            !listenersCopy.contains(listener))
-                        {
-                            listenersCopy.add(listener);
-                        }
+                        listenersCopy.add(listener);
                     }
-                    else
+                }
+                else
+                {
+                    if (!listenersCopy.contains(listener))
                     {
-                        if (!listenersCopy.contains(listener))
-                        {
-                            listenersCopy.add(listener);
-                        }
+                        listenersCopy.add(listener);
                     }
                 }
             }
         }
-
-        return event;
     }
     
-    protected SystemEvent processGlobalListeners(FacesContext facesContext, List<EventInfo> eventInfos,
-            Class<? extends SystemEvent> systemEventClass, Object source, SystemEvent event, Class<?> sourceBaseType)
+    /**
+     * @param eventInfos the listeners for the source base type, see {@link #getGlobalListeners}
+     */
+    private SystemEvent processGlobalListeners(FacesContext facesContext, EventInfo[] eventInfos,
+            Class<? extends SystemEvent> systemEventClass, Object source, SystemEvent event)
     {
-        if (eventInfos == null || eventInfos.isEmpty())
+        for (EventInfo eventInfo : eventInfos)
         {
-            return event;
+            event = processGlobalListener(facesContext, eventInfo, systemEventClass, source, event);
         }
-        
-        for (int i  = 0, size = eventInfos.size(); i < size; i++)
+        return event;
+    }
+
+    private SystemEvent processGlobalListener(FacesContext facesContext, EventInfo eventInfo,
+            Class<? extends SystemEvent> systemEventClass, Object source, SystemEvent event)
+    {
+        if (eventInfo.listener.isListenerForSource(source))
         {
-            EventInfo eventInfo = eventInfos.get(i);
-            if (eventInfo.sourceClass != null && !eventInfo.sourceClass.isAssignableFrom(sourceBaseType))
+            if (event == null)
             {
-                continue;
+                event = createEvent(systemEventClass, facesContext, source);
             }
 
-            if (eventInfo.listener.isListenerForSource(source))
+            if (event.isAppropriateListener(eventInfo.listener))
             {
-                if (event == null)
-                {
-                    event = createEvent(systemEventClass, facesContext, source);
-                }
-
-                if (event.isAppropriateListener(eventInfo.listener))
-                {
-                    event.processListener(eventInfo.listener);
-                }
+                event.processListener(eventInfo.listener);
             }
         }
-        
         return event;
     }
 }
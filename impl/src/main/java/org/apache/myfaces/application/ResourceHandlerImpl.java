@@ -40,6 +40,7 @@
 import org.apache.myfaces.resource.ContractResource;
 import org.apache.myfaces.resource.ContractResourceLoader;
 import org.apache.myfaces.resource.ResourceCachedInfo;
+import org.apache.myfaces.resource.ResourceContentCache;
 import org.apache.myfaces.resource.ResourceHandlerCache;
 import org.apache.myfaces.resource.ResourceHandlerCache.ResourceValue;
 import org.apache.myfaces.resource.ResourceHandlerSupport;
@@ -53,10 +54,15 @@
 import org.apache.myfaces.util.lang.SkipMatchIterator;
 import org.apache.myfaces.util.lang.StringUtils;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -94,6 +100,11 @@ public class ResourceHandlerImpl extends ResourceHandler
     
     public final static String RENDERED_RESOURCES_SET = "org.apache.myfaces.RENDERED_RESOURCES_SET";
 
+    private static final String TOMCAT_SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String TOMCAT_SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String TOMCAT_SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String TOMCAT_SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private static final String SHARED_STRING_BUILDER = ResourceHandlerImpl.class.getName() + ".SHARED_STRING_BUILDER";
     
     private static final String[] FACELETS_VIEW_MAPPINGS_PARAM = {ViewHandler.FACELETS_VIEW_MAPPINGS_PARAM_NAME,
@@ -101,6 +112,7 @@ public class ResourceHandlerImpl extends ResourceHandler
     
     private ResourceHandlerSupport _resourceHandlerSupport;
     private ResourceHandlerCache _resourceHandlerCache;
+    private ResourceContentCache _resourceContentCache;
     private Boolean _allowSlashLibraryName;
     private int _resourceBufferSize = -1;
     private String[] _excludedResourceExtensions;
@@ -566,6 +578,23 @@ libraryName, isAllowSlashesLibraryName()))
             return;
         }
 
+        ResourceContentCache contentCache = getResourceContentCache(facesContext);
+        if (contentCache.isEnabled() && !couldResourceContainValueExpressions(resource, extContext))
+        {
+            try
+            {
+                if (serveCachedContent(facesContext, resource, contentCache, httpServletResponse))
+                {
+                    return;
+                }
+            }
+            catch (IOException e)
+            {
+                handleResourceIOException(e, resourceName, libraryName, httpServletResponse);
+                return;
+            }
+        }
+
         if (!resource.userAgentNeedsUpdate(facesContext))
         {
             httpServletResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
@@ -587,6 +616,13 @@ libraryName, isAllowSlashesLibraryName()))
         //serve up the bytes (taken from trinidad ResourceServlet)
         try
         {
+            File file = getResourceFile(resource);
+            if (file != null)
+            {
+                sendFile(extContext, file, httpServletResponse);
+                return;
+            }
+
             InputStream in = resource.getInputStream();
             OutputStream out = httpServletResponse.getOutputStream();
             byte[] buffer = new byte[this.getResourceBufferSize()];
@@ -614,24 +650,160 @@ libraryName, isAllowSlashesLibraryName()))
         }
         catch (IOException e)
         {
-            if (isConnectionAbort(e))
+            handleResourceIOException(e, resourceName, libraryName, httpServletResponse);
+        }
+    }
+
+    /**
+     * Serves the resource from the {@link ResourceContentCache}: answers If-None-Match with the ETag of the
+     * content, without reading the resource again, and sends the best compressed variant the user agent accepts
+     * with its Content-Length.
+     *
+     * @return false if the resource is too big to be cached and must be streamed
+     */
+    private boolean serveCachedContent(FacesContext facesContext, Resource resource,
+            ResourceContentCache contentCache, HttpServletResponse httpServletResponse) throws IOException
+    {
+        ExternalContext extContext = facesContext.getExternalContext();
+        Map<String, String> requestHeaders = extContext.getRequestHeaderMap();
+        String ifNoneMatch = requestHeaders.get("If-None-Match");
+
+        // the request path identifies the library, version, locale and contract of the resource
+        String key = resource.getRequestPath();
+        ResourceContentCache.Content content = contentCache.get(key);
+        if (content == null)
+        {
+            content = contentCache.load(key, resource, _getContentType(resource, extContext));
+        }
+        if (!content.isAvailable())
+        {
+            return false;
+        }
+
+        String encoding = content.negotiateEncoding(requestHeaders.get("Accept-Encoding"));
+        if (content.matches(ifNoneMatch)
+                || (ifNoneMatch == null && !resource.userAgentNeedsUpdate(facesContext)))
+        {
+            httpServletResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            httpServletResponse.setHeader("ETag", content.getETag(encoding));
+            return true;
+        }
+
+        httpServletResponse.setContentType(_getContentType(resource, extContext));
+        for (Map.Entry<String, String> entry : resource.getResponseHeaders().entrySet())
+        {
+            httpServletResponse.setHeader(entry.getKey(), entry.getValue());
+        }
+        httpServletResponse.setHeader("ETag", content.getETag(encoding));
+        if (content.isCompressed())
+        {
+            httpServletResponse.setHeader("Vary", "Accept-Encoding");
+        }
+        if (encoding != null)
+        {
+            httpServletResponse.setHeader("Content-Encoding", encoding);
+        }
+
+        byte[] bytes = content.getBytes(encoding);
+        httpServletResponse.setContentLength(bytes.length);
+        try (OutputStream out = httpServletResponse.getOutputStream())
+        {
+            out.write(bytes);
+        }
+        return true;
+    }
+
+    /**
+     * Same rule as {@link ResourceImpl}: css resources may contain value expressions, which depend on the request.
+     */
+    private boolean couldResourceContainValueExpressions(Resource resource, ExternalContext extContext)
+    {
+        Resource unwrapped = resource;
+        while (unwrapped instanceof ResourceWrapper wrapper)
+        {
+            unwrapped = wrapper.getWrapped();
+        }
+        if (unwrapped instanceof ResourceImpl resourceImpl)
+        {
+            return resourceImpl.couldResourceContainValueExpressions();
+        }
+        return "text/css".equals(_getContentType(resource, extContext));
+    }
+
+    /**
+     * Returns the file holding the unfiltered content of the resource, if it is cached in the temporal directory,
+     * see {@link ResourceImpl#getFile()}.
+     */
+    private static File getResourceFile(Resource resource)
+    {
+        while (resource instanceof ResourceWrapper wrapper)
+        {
+            resource = wrapper.getWrapped();
+        }
+        if (resource instanceof ResourceImpl resourceImpl)
+        {
+            return resourceImpl.getFile();
+        }
+        return null;
+    }
+
+    /**
+     * Sends a file without copying it through the heap: with the sendfile support of the container if available,
+     * otherwise with {@link FileChannel#transferTo}.
+     */
+    private static void sendFile(ExternalContext extContext, File file, HttpServletResponse httpServletResponse)
+            throws IOException
+    {
+        long length = file.length();
+        httpServletResponse.setContentLengthLong(length);
+
+        Map<String, Object> requestMap = extContext.getRequestMap();
+        if (Boolean.TRUE.equals(requestMap.get(TOMCAT_SENDFILE_SUPPORT)))
+        {
+            // the container sends the file with sendfile after the request is processed
+            requestMap.put(TOMCAT_SENDFILE_FILENAME, file.getAbsolutePath());
+            requestMap.put(TOMCAT_SENDFILE_START, 0L);
+            requestMap.put(TOMCAT_SENDFILE_END, length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                OutputStream out = httpServletResponse.getOutputStream())
+        {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = 0;
+            while (position < length)
             {
-                if (log.isLoggable(Level.FINE))
+                long count = channel.transferTo(position, length - position, target);
+                if (count <= 0)
                 {
-                    log.log(Level.FINE, "Connection was aborted while loading resource " + resourceName
-                            + " with library " + libraryName);
+                    break;
                 }
+                position += count;
             }
-            else
+        }
+    }
+
+    private void handleResourceIOException(IOException e, String resourceName, String libraryName,
+            HttpServletResponse httpServletResponse)
+    {
+        if (isConnectionAbort(e))
+        {
+            if (log.isLoggable(Level.FINE))
             {
-                if (log.isLoggable(Level.WARNING))
-                {
-                    log.log(Level.WARNING,"Error trying to load and send resource " + resourceName
-                            + " with library " + libraryName + ": "
-                            + e.getMessage(), e);
-                }
-                httpServletResponse.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                log.log(Level.FINE, "Connection was aborted while loading resource " + resourceName
+                        + " with library " + libraryName);
+            }
+        }
+        else
+        {
+            if (log.isLoggable(Level.WARNING))
+            {
+                log.log(Level.WARNING,"Error trying to load and send resource " + resourceName
+                        + " with library " + libraryName + ": "
+                        + e.getMessage(), e);
             }
+            httpServletResponse.setStatus(HttpServletResponse.SC_NOT_FOUND);
         }
     }
 
@@ -916,6 +1088,15 @@ protected ResourceHandlerCache getResourceHandlerCache()
         return _resourceHandlerCache;
     }
 
+    protected ResourceContentCache getResourceContentCache(FacesContext facesContext)
+    {
+        if (_resourceContentCache == null)
+        {
+            _resourceContentCache = new ResourceContentCache(facesContext);
+        }
+        return _resourceContentCache;
+    }
+
     protected String _getContentType(Resource resource, ExternalContext externalContext)
     {
         String contentType = resource.getContentType();
@@ -0,0 +1,388 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.application.viewstate;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import jakarta.faces.application.ViewExpiredException;
+import jakarta.faces.context.ExternalContext;
+
+/**
+ * Encrypts and authenticates the client side state for {@link StateUtils}.
+ *
+ * <p>The configuration is resolved once per application and the {@link Cipher} and {@link Mac} instances
+ * are pooled, so a postback does not pay the provider lookup of <code>Cipher.getInstance</code> and
+ * <code>Mac.getInstance</code>. A pooled instance is only used by one thread at a time; the pools never
+ * hold more instances than the number of requests encrypting the state concurrently.</p>
+ *
+ * <p>Two formats are supported:</p>
+ * <ul>
+ * <li>Encrypt-then-MAC (default): the cipher text followed by the MAC of the cipher text.</li>
+ * <li>AES-GCM, if {@link StateUtils#INIT_ALGORITHM_PARAM} starts with "GCM": a random 12 byte nonce followed
+ * by the cipher text and its authentication tag. The MAC is not computed, because GCM already authenticates
+ * the data in the same pass. A configured {@link StateUtils#INIT_ALGORITHM_IV} is ignored, reusing a nonce
+ * with the same key would break GCM.</li>
+ * </ul>
+ */
+class ClientStateCrypto
+{
+    private static final Logger log = Logger.getLogger(ClientStateCrypto.class.getName());
+
+    private static final String APPLICATION_MAP_KEY = ClientStateCrypto.class.getName();
+
+    private static final int GCM_NONCE_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH = 16;
+
+    private final String transformation;
+    private final boolean aead;
+    private final byte[] iv;
+    private final String macAlgorithm;
+
+    /**
+     * The keys stored in application scope by {@link StateUtils#initSecret}, or null if the key cache is
+     * disabled and the keys have to be resolved for every use.
+     */
+    private final SecretKey secretKey;
+    private final SecretKey macSecretKey;
+
+    private final Queue<Cipher> ciphers = new ConcurrentLinkedQueue<>();
+    private final Queue<Mac> macs = new ConcurrentLinkedQueue<>();
+    private final SecureRandom random;
+
+    ClientStateCrypto(ExternalContext externalContext)
+    {
+        String algorithm = StateUtils.findAlgorithm(externalContext);
+        String algorithmParams = StateUtils.findAlgorithmParams(externalContext);
+
+        this.transformation = algorithm + '/' + algorithmParams;
+        this.aead = algorithmParams.startsWith("GCM");
+        this.macAlgorithm = StateUtils.findMacAlgorithm(externalContext);
+
+        if (aead)
+        {
+            if (externalContext.getInitParameter(StateUtils.INIT_ALGORITHM_IV) != null)
+            {
+                log.warning(StateUtils.INIT_ALGORITHM_IV + " is ignored with GCM mode, "
+                        + "a random nonce is generated for every state");
+            }
+            this.iv = null;
+            this.random = new SecureRandom();
+        }
+        else
+        {
+            StateUtils.testConfiguration(externalContext);
+            this.iv = StateUtils.findInitializationVector(externalContext);
+            this.random = null;
+        }
+
+        Object key = externalContext.getApplicationMap().get(StateUtils.INIT_SECRET_KEY_CACHE);
+        this.secretKey = key instanceof SecretKey ? (SecretKey) key : null;
+        Object macKey = externalContext.getApplicationMap().get(StateUtils.INIT_MAC_SECRET_KEY_CACHE);
+        this.macSecretKey = macKey instanceof SecretKey ? (SecretKey) macKey : null;
+
+        if (log.isLoggable(Level.FINE))
+        {
+            log.fine("De/encrypting client state with " + transformation + (aead ? "" : " and " + macAlgorithm));
+        }
+    }
+
+    public static ClientStateCrypto getInstance(ExternalContext externalContext)
+    {
+        ClientStateCrypto instance = (ClientStateCrypto)
+                externalContext.getApplicationMap().get(APPLICATION_MAP_KEY);
+        if (instance == null)
+        {
+            instance = new ClientStateCrypto(externalContext);
+            externalContext.getApplicationMap().put(APPLICATION_MAP_KEY, instance);
+        }
+        return instance;
+    }
+
+    public boolean isAead()
+    {
+        return aead;
+    }
+
+    public byte[] encrypt(byte[] insecure, ExternalContext externalContext) throws GeneralSecurityException
+    {
+        Cipher cipher = borrowCipher();
+        try
+        {
+            if (aead)
+            {
+                byte[] nonce = initEncrypt(cipher, externalContext);
+                byte[] secure = new byte[GCM_NONCE_LENGTH + cipher.getOutputSize(insecure.length)];
+                System.arraycopy(nonce, 0, secure, 0, GCM_NONCE_LENGTH);
+                int secureCount = cipher.doFinal(insecure, 0, insecure.length, secure, GCM_NONCE_LENGTH);
+                return trim(secure, GCM_NONCE_LENGTH + secureCount);
+            }
+
+            initEncrypt(cipher, externalContext);
+            Mac mac = borrowMac(externalContext);
+            try
+            {
+                //EtM (Encrypt-then-MAC) Composition Approach
+                int macLength = mac.getMacLength();
+                byte[] secure = new byte[cipher.getOutputSize(insecure.length) + macLength];
+                int secureCount = cipher.doFinal(insecure, 0, insecure.length, secure);
+                mac.update(secure, 0, secureCount);
+                mac.doFinal(secure, secureCount);
+                return trim(secure, secureCount + macLength);
+            }
+            finally
+            {
+                macs.offer(mac);
+            }
+        }
+        finally
+        {
+            ciphers.offer(cipher);
+        }
+    }
+
+    public byte[] decrypt(byte[] secure, ExternalContext externalContext) throws GeneralSecurityException
+    {
+        Cipher cipher = borrowCipher();
+        try
+        {
+            if (aead)
+            {
+                if (secure.length < GCM_NONCE_LENGTH + GCM_TAG_LENGTH)
+                {
+                    throw new ViewExpiredException();
+                }
+                cipher.init(Cipher.DECRYPT_MODE, getSecretKey(externalContext),
+                        new GCMParameterSpec(GCM_TAG_LENGTH * 8, secure, 0, GCM_NONCE_LENGTH));
+                try
+                {
+                    return cipher.doFinal(secure, GCM_NONCE_LENGTH, secure.length - GCM_NONCE_LENGTH);
+                }
+                catch (AEADBadTagException e)
+                {
+                    throw new ViewExpiredException();
+                }
+            }
+
+            int secureCount;
+            Mac mac = borrowMac(externalContext);
+            try
+            {
+                //EtM (Encrypt-then-MAC) Composition Approach
+                int macLength = mac.getMacLength();
+                secureCount = secure.length - macLength;
+                if (secureCount < 0)
+                {
+                    throw new ViewExpiredException();
+                }
+                mac.update(secure, 0, secureCount);
+                byte[] signedDigestHash = mac.doFinal();
+
+                // MYFACES-2934 Must compare *ALL* bytes of the hash, to not allow a timing attack
+                int difference = 0;
+                for (int i = 0; i < macLength; i++)
+                {
+                    difference |= signedDigestHash[i] ^ secure[secureCount + i];
+                }
+                if (difference != 0)
+                {
+                    throw new ViewExpiredException();
+                }
+            }
+            finally
+            {
+                macs.offer(mac);
+            }
+
+            initCipher(cipher, Cipher.DECRYPT_MODE, externalContext);
+            return cipher.doFinal(secure, 0, secureCount);
+        }
+        finally
+        {
+            ciphers.offer(cipher);
+        }
+    }
+
+    /**
+     * Returns a stream encrypting everything written to it into the given stream, in the same format
+     * as {@link #encrypt(byte[], ExternalContext)}. Closing the returned stream writes the final block
+     * and the MAC or tag, and closes the given stream.
+     */
+    public OutputStream encryptingStream(OutputStream out, ExternalContext externalContext)
+            throws GeneralSecurityException, IOException
+    {
+        Cipher cipher = borrowCipher();
+        byte[] nonce = initEncrypt(cipher, externalContext);
+        if (aead)
+        {
+            out.write(nonce);
+            return new PooledCipherOutputStream(out, cipher);
+        }
+        return new PooledCipherOutputStream(new MacOutputStream(out, borrowMac(externalContext)), cipher);
+    }
+
+    /**
+     * Initializes the cipher for encryption and returns the generated nonce in GCM mode.
+     */
+    private byte[] initEncrypt(Cipher cipher, ExternalContext externalContext) throws GeneralSecurityException
+    {
+        if (aead)
+        {
+            byte[] nonce = new byte[GCM_NONCE_LENGTH];
+            random.nextBytes(nonce);
+            cipher.init(Cipher.ENCRYPT_MODE, getSecretKey(externalContext),
+                    new GCMParameterSpec(GCM_TAG_LENGTH * 8, nonce));
+            return nonce;
+        }
+        initCipher(cipher, Cipher.ENCRYPT_MODE, externalContext);
+        return null;
+    }
+
+    private void initCipher(Cipher cipher, int mode, ExternalContext externalContext)
+            throws GeneralSecurityException
+    {
+        if (iv != null)
+        {
+            cipher.init(mode, getSecretKey(externalContext), new IvParameterSpec(iv));
+        }
+        else
+        {
+            cipher.init(mode, getSecretKey(externalContext));
+        }
+    }
+
+    private SecretKey getSecretKey(ExternalContext externalContext)
+    {
+        return secretKey != null ? secretKey : StateUtils.getSecret(externalContext);
+    }
+
+    private Cipher borrowCipher() throws GeneralSecurityException
+    {
+        Cipher cipher = ciphers.poll();
+        return cipher != null ? cipher : Cipher.getInstance(transformation);
+    }
+
+    private Mac borrowMac(ExternalContext externalContext) throws GeneralSecurityException
+    {
+        Mac mac = macs.poll();
+        if (mac == null)
+        {
+            mac = Mac.getInstance(macAlgorithm);
+            if (macSecretKey != null)
+            {
+                mac.init(macSecretKey);
+            }
+        }
+        if (macSecretKey == null)
+        {
+            // no cached key, it has to be resolved again for every use
+            mac.init(StateUtils.getMacSecret(externalContext));
+        }
+        return mac;
+    }
+
+    private static byte[] trim(byte[] bytes, int length)
+    {
+        return bytes.length == length ? bytes : Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Returns the cipher to the pool once the final block has been written.
+     */
+    private class PooledCipherOutputStream extends CipherOutputStream
+    {
+        private final Cipher cipher;
+        private boolean closed;
+
+        PooledCipherOutputStream(OutputStream out, Cipher cipher)
+        {
+            super(out, cipher);
+            this.cipher = cipher;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            super.close();
+            ciphers.offer(cipher);
+        }
+    }
+
+    /**
+     * Computes the MAC of everything written through it and appends it when closed.
+     */
+    private class MacOutputStream extends FilterOutputStream
+    {
+        private final Mac mac;
+        private boolean closed;
+
+        MacOutputStream(OutputStream out, Mac mac)
+        {
+            super(out);
+            this.mac = mac;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            mac.update((byte) b);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            mac.update(b, off, len);
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            out.write(mac.doFinal());
+            macs.offer(mac);
+            out.close();
+        }
+    }
+}
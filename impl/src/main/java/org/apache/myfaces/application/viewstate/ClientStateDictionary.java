@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.application.viewstate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import jakarta.faces.FacesException;
+import jakarta.faces.FactoryFinder;
+import jakarta.faces.application.Application;
+import jakarta.faces.context.ExternalContext;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.render.RenderKit;
+import jakarta.faces.render.RenderKitFactory;
+
+import org.apache.myfaces.util.lang.FastByteArrayOutputStream;
+
+/**
+ * Preset deflate dictionary used to compress the client side state, when
+ * {@link StateUtils#COMPRESS_STATE_IN_CLIENT_MODE} is "dictionary".
+ *
+ * <p>The dictionary is built once from the registered component types, component families, renderer types
+ * and the keys and class names that appear in almost every state. Because every view state is compressed
+ * independently, plain gzip has to encode these strings again in each hidden field, while with a preset
+ * dictionary they are encoded as back references.</p>
+ *
+ * <p>The compressed token starts with a marker and the Adler-32 checksum of the dictionary, so a token
+ * created with a different dictionary (e.g. another deployment) is rejected instead of being inflated
+ * with the wrong data. The dictionary only depends on the application configuration, so all nodes of a
+ * cluster running the same deployment build the same one.</p>
+ */
+class ClientStateDictionary
+{
+    private static final Logger log = Logger.getLogger(ClientStateDictionary.class.getName());
+
+    private static final String APPLICATION_MAP_KEY = ClientStateDictionary.class.getName();
+
+    private static final int MARKER = 0x44;
+
+    /**
+     * Deflate only uses the last 32K of a preset dictionary.
+     */
+    private static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * Strings found in nearly every state, independent of the components of the application.
+     */
+    private static final String[] COMMON_STATE_KEYS = {
+        "jakarta.faces.component._AttachedStateWrapper",
+        "jakarta.faces.component._AttachedDeltaWrapper",
+        "jakarta.faces.component.UIComponent$PropertyKeys",
+        "jakarta.faces.component.UIComponentBase$PropertyKeys",
+        "jakarta.faces.component.UIOutput$PropertyKeys",
+        "jakarta.faces.component.UIInput$PropertyKeys",
+        "jakarta.faces.component.UICommand$PropertyKeys",
+        "jakarta.faces.component.UIForm$PropertyKeys",
+        "jakarta.faces.component.UIData$PropertyKeys",
+        "jakarta.faces.component.UIViewRoot$PropertyKeys",
+        "org.apache.myfaces.view.facelets.AttachedFullStateWrapper",
+        "java.lang.Enum",
+        "java.lang.Number",
+        "java.lang.Integer",
+        "java.lang.Boolean",
+        "java.lang.Long",
+        "java.util.ArrayList",
+        "java.util.HashMap",
+        "[Ljava.lang.Object;",
+        "loadFactor",
+        "threshold",
+        "elementData",
+        "size",
+        "value",
+        "rendered",
+        "style",
+        "styleClass",
+        "disabled",
+        "readonly",
+        "required",
+        "immediate",
+        "localValueSet",
+        "submittedValue",
+        "valid",
+        "converter",
+        "validators",
+        "attributesMap",
+        "systemEventListenerClassMap",
+        "bindings",
+        "clientBehaviors",
+        "oam.vf.addedByHandler",
+        "oam.vf.MARK_ID",
+        "com.sun.faces.facelets.MARK_ID",
+        "j_id",
+    };
+
+    private final byte[] dictionary;
+    private final int id;
+
+    ClientStateDictionary(byte[] dictionary)
+    {
+        this.dictionary = dictionary;
+        Adler32 adler32 = new Adler32();
+        adler32.update(dictionary);
+        this.id = (int) adler32.getValue();
+    }
+
+    /**
+     * Builds the dictionary from the configuration of the application and keeps it in the application map.
+     * Called once on startup.
+     */
+    static void initialize(FacesContext facesContext)
+    {
+        ClientStateDictionary instance = new ClientStateDictionary(buildDictionary(facesContext));
+        facesContext.getExternalContext().getApplicationMap().put(APPLICATION_MAP_KEY, instance);
+
+        if (log.isLoggable(Level.FINE))
+        {
+            log.fine("Client state dictionary built with " + instance.dictionary.length
+                    + " bytes, id " + Integer.toHexString(instance.id));
+        }
+    }
+
+    public static ClientStateDictionary getInstance(ExternalContext externalContext)
+    {
+        ClientStateDictionary instance = (ClientStateDictionary)
+                externalContext.getApplicationMap().get(APPLICATION_MAP_KEY);
+        if (instance == null)
+        {
+            throw new IllegalStateException("The client state dictionary is not initialized");
+        }
+        return instance;
+    }
+
+    static byte[] buildDictionary(FacesContext facesContext)
+    {
+        // sorted, so the dictionary does not depend on the iteration order of the registries
+        Set<String> registered = new TreeSet<>();
+        Application application = facesContext.getApplication();
+        application.getComponentTypes().forEachRemaining(registered::add);
+        application.getConverterIds().forEachRemaining(registered::add);
+        application.getValidatorIds().forEachRemaining(registered::add);
+
+        RenderKitFactory renderKitFactory = (RenderKitFactory)
+                FactoryFinder.getFactory(FactoryFinder.RENDER_KIT_FACTORY);
+        RenderKit renderKit = renderKitFactory.getRenderKit(facesContext, RenderKitFactory.HTML_BASIC_RENDER_KIT);
+        if (renderKit != null)
+        {
+            for (Iterator<String> families = renderKit.getComponentFamilies(); families.hasNext();)
+            {
+                String family = families.next();
+                registered.add(family);
+                renderKit.getRendererTypes(family).forEachRemaining(registered::add);
+            }
+        }
+
+        // the common keys go last, so they are never cut off below
+        Set<String> words = new LinkedHashSet<>(registered);
+        words.addAll(Arrays.asList(COMMON_STATE_KEYS));
+
+        FastByteArrayOutputStream baos = new FastByteArrayOutputStream(MAX_DICTIONARY_SIZE);
+        for (String word : words)
+        {
+            byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+            baos.write(bytes, 0, bytes.length);
+        }
+
+        // deflate only uses the last 32K of the dictionary
+        int size = baos.getSize();
+        int from = Math.max(0, size - MAX_DICTIONARY_SIZE);
+        return Arrays.copyOfRange(baos.getByteArray(), from, size);
+    }
+
+    public int getId()
+    {
+        return id;
+    }
+
+    /**
+     * Writes the header and returns a stream compressing everything written to it with the dictionary.
+     * Closing the returned stream finishes the compressed data and closes the given stream.
+     */
+    public OutputStream compressingStream(OutputStream out) throws IOException
+    {
+        out.write(MARKER);
+        out.write(id >>> 24);
+        out.write(id >>> 16);
+        out.write(id >>> 8);
+        out.write(id);
+
+        // raw deflate, so the dictionary can be set before the first byte instead of being requested
+        // by the inflater in the middle of the stream, which InflaterInputStream cannot handle
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        deflater.setDictionary(dictionary);
+        return new DeflaterOutputStream(out, deflater, 1024)
+        {
+            @Override
+            public void close() throws IOException
+            {
+                try
+                {
+                    super.close();
+                }
+                finally
+                {
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    /**
+     * Checks the header and returns a stream inflating the rest of the given stream with the dictionary.
+     *
+     * @throws FacesException if the data was not compressed with this dictionary
+     */
+    public InputStream decompressingStream(InputStream in) throws IOException
+    {
+        int marker = in.read();
+        if (marker != MARKER)
+        {
+            throw new FacesException("Client state was not compressed with a dictionary");
+        }
+        int tokenId = 0;
+        for (int i = 0; i < 4; i++)
+        {
+            int b = in.read();
+            if (b == -1)
+            {
+                throw new FacesException("Truncated client state");
+            }
+            tokenId = (tokenId << 8) | b;
+        }
+        if (tokenId != id)
+        {
+            throw new FacesException("Client state was compressed with dictionary "
+                    + Integer.toHexString(tokenId) + ", but the current one is " + Integer.toHexString(id));
+        }
+
+        Inflater inflater = new Inflater(true);
+        inflater.setDictionary(dictionary);
+        return new InflaterInputStream(in, inflater, 1024)
+        {
+            @Override
+            public void close() throws IOException
+            {
+                try
+                {
+                    super.close();
+                }
+                finally
+                {
+                    inflater.end();
+                }
+            }
+        };
+    }
+}
@@ -74,6 +74,16 @@ public synchronized void put(FacesContext context, Object state,
     public synchronized void put(FacesContext context, Object state, 
         SerializedViewKey key, SerializedViewKey previousRestoredKey, String viewScopeId,
         Consumer<String> destroyCallback)
+    {
+        put(context, state, key, previousRestoredKey, viewScopeId, destroyCallback, null);
+    }
+
+    /**
+     * @param discardCallback if not null, receives each state that is replaced or removed from this collection
+     */
+    public synchronized void put(FacesContext context, Object state, 
+        SerializedViewKey key, SerializedViewKey previousRestoredKey, String viewScopeId,
+        Consumer<String> destroyCallback, Consumer<Object> discardCallback)
     {
         if (state == null)
         {
@@ -92,7 +102,11 @@ else if (state instanceof Object[] objects &&
         if (_serializedViews.containsKey(key))
         {
             // Update the state, the viewScopeId does not change.
-            _serializedViews.put(key, state);
+            Object oldState = _serializedViews.put(key, state);
+            if (discardCallback != null && oldState != null)
+            {
+                discardCallback.accept(oldState);
+            }
             // Make sure the view is at the end of the discard queue
             while (_keys.remove(key))
             {
@@ -170,7 +184,11 @@ else if (state instanceof Object[] objects &&
                         // do nothing
                     }
 
-                    _serializedViews.remove(keyToRemove);
+                    Object oldState = _serializedViews.remove(keyToRemove);
+                    if (discardCallback != null && oldState != null)
+                    {
+                        discardCallback.accept(oldState);
+                    }
                     
                     if (_viewScopeIds != null)
                     {
@@ -213,7 +231,11 @@ else if (state instanceof Object[] objects &&
                 while (keyToRemove != null);
             }
 
-            _serializedViews.remove(key);
+            Object oldState = _serializedViews.remove(key);
+            if (discardCallback != null && oldState != null)
+            {
+                discardCallback.accept(oldState);
+            }
             
             if (_viewScopeIds != null)
             {
@@ -279,6 +301,21 @@ public SerializedViewKey getLastWindowKey(FacesContext context, String id)
         return null;
     }
 
+    /**
+     * Passes every stored state to the given consumer, e.g. to release external resources
+     * when the session is destroyed.
+     */
+    public synchronized void forEachState(Consumer<Object> consumer)
+    {
+        for (Object state : _serializedViews.values())
+        {
+            if (state != null)
+            {
+                consumer.accept(state);
+            }
+        }
+    }
+
     public Object get(SerializedViewKey key)
     {
         Object value = _serializedViews.get(key);
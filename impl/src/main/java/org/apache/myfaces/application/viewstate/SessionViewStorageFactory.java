@@ -28,10 +28,17 @@
 abstract class SessionViewStorageFactory<T extends KeyFactory<K>, K>
 {
     private KeyFactory<K> keyFactory;
+    private ViewStateStore viewStateStore;
 
     public SessionViewStorageFactory(KeyFactory<K> keyFactory)
+    {
+        this(keyFactory, null);
+    }
+
+    public SessionViewStorageFactory(KeyFactory<K> keyFactory, ViewStateStore viewStateStore)
     {
         this.keyFactory = keyFactory;
+        this.viewStateStore = viewStateStore;
     }
 
     public KeyFactory<K> getKeyFactory()
@@ -39,6 +46,15 @@ public KeyFactory<K> getKeyFactory()
         return keyFactory;
     }
 
+    /**
+     * @return the store holding the serialized views outside of the session, or null if the
+     *         views are stored into the session
+     */
+    public ViewStateStore getViewStateStore()
+    {
+        return viewStateStore;
+    }
+
     public abstract SerializedViewCollection createSerializedViewCollection(FacesContext context);
 
     public abstract SerializedViewKey createSerializedViewKey(
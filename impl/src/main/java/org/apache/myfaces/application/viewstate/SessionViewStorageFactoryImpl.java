@@ -31,6 +31,11 @@ public SessionViewStorageFactoryImpl(KeyFactory<byte[]> keyFactory)
         super(keyFactory);
     }
 
+    public SessionViewStorageFactoryImpl(KeyFactory<byte[]> keyFactory, ViewStateStore viewStateStore)
+    {
+        super(keyFactory, viewStateStore);
+    }
+
     @Override
     public SerializedViewCollection createSerializedViewCollection(FacesContext context)
     {
@@ -21,28 +21,22 @@
 import org.apache.myfaces.util.token.CsrfSessionTokenFactory;
 import org.apache.myfaces.util.token.CsrfSessionTokenFactoryRandom;
 import org.apache.myfaces.util.token.CsrfSessionTokenFactorySecureRandom;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.OutputStream;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 import jakarta.faces.FacesWrapper;
 
 import jakarta.faces.context.ExternalContext;
 import jakarta.faces.context.FacesContext;
 import jakarta.faces.lifecycle.ClientWindow;
 
+import org.apache.myfaces.cdi.view.ViewScopeContext;
 import org.apache.myfaces.config.webparameters.MyfacesConfig;
 import org.apache.myfaces.context.flash.FlashImpl;
 import org.apache.myfaces.renderkit.RendererUtils;
-import org.apache.myfaces.util.MyFacesObjectInputStream;
+import org.apache.myfaces.spi.SerialFactory;
+import org.apache.myfaces.util.lang.ClassUtils;
 import org.apache.myfaces.view.ViewScopeProxyMap;
 
 class StateCacheServerSide extends StateCache<Object, Object>
@@ -63,8 +57,8 @@ class StateCacheServerSide extends StateCache<Object, Object>
     public static final String RESTORED_VIEW_KEY_REQUEST_ATTR = 
         StateCacheServerSide.class.getName() + ".RESTORED_VIEW_KEY";
 
-    public static final int UNCOMPRESSED_FLAG = 0;
-    public static final int COMPRESSED_FLAG = 1;
+    public static final int UNCOMPRESSED_FLAG = ViewStateSerializer.UNCOMPRESSED_FLAG;
+    public static final int COMPRESSED_FLAG = ViewStateSerializer.GZIP_FLAG;
 
     private final boolean useFlashScopePurgeViewsInSession;
     private final int numberOfSequentialViewsInSession;
@@ -74,6 +68,7 @@ class StateCacheServerSide extends StateCache<Object, Object>
     private final SessionViewStorageFactory sessionViewStorageFactory;
     private final CsrfSessionTokenFactory csrfSessionTokenFactory;
     private final StateTokenProcessor stateTokenProcessor;
+    private final ViewStateSerializer viewStateSerializer;
     
     public StateCacheServerSide()
     {
@@ -83,17 +78,22 @@ public StateCacheServerSide()
         useFlashScopePurgeViewsInSession = !config.isFlashScopeDisabled()
                 && config.isUseFlashScopePurgeViewsInSession();
         numberOfSequentialViewsInSession = config.getNumberOfSequentialViewsInSession();
-        serializeStateInSession = config.isSerializeStateInSession();
         compressStateInSession = config.isCompressStateInSession();
+
+        ViewStateStore viewStateStore = getOrCreateViewStateStore(facesContext, config);
+        // the store only holds bytes, so the state is always serialized when a store is used
+        serializeStateInSession = viewStateStore != null || config.isSerializeStateInSession();
         
         String randomMode = config.getRandomKeyInViewStateSessionToken();
         if (MyfacesConfig.RANDOM_KEY_IN_VIEW_STATE_SESSION_TOKEN_SECURE_RANDOM.equals(randomMode))
         {
-            sessionViewStorageFactory = new SessionViewStorageFactoryImpl(new KeyFactorySecureRandom(facesContext));
+            sessionViewStorageFactory = new SessionViewStorageFactoryImpl(
+                    new KeyFactorySecureRandom(facesContext), viewStateStore);
         }
         else if (MyfacesConfig.RANDOM_KEY_IN_VIEW_STATE_SESSION_TOKEN_RANDOM.equals(randomMode))
         {
-            sessionViewStorageFactory = new SessionViewStorageFactoryImpl(new KeyFactoryRandom(facesContext));
+            sessionViewStorageFactory = new SessionViewStorageFactoryImpl(
+                    new KeyFactoryRandom(facesContext), viewStateStore);
         }
         else
         {
@@ -103,7 +103,8 @@ else if (MyfacesConfig.RANDOM_KEY_IN_VIEW_STATE_SESSION_TOKEN_RANDOM.equals(rand
                         + randomMode + "\" is not supported (anymore)."
                         + " Fallback to \"secureRandom\"");
             }
-            sessionViewStorageFactory = new SessionViewStorageFactoryImpl(new KeyFactorySecureRandom(facesContext));
+            sessionViewStorageFactory = new SessionViewStorageFactoryImpl(
+                    new KeyFactorySecureRandom(facesContext), viewStateStore);
         }
         
         String csrfRandomMode = config.getRandomKeyInCsrfSessionToken();
@@ -117,6 +118,42 @@ else if (MyfacesConfig.RANDOM_KEY_IN_VIEW_STATE_SESSION_TOKEN_RANDOM.equals(rand
         }
         
         stateTokenProcessor = new StateTokenProcessorServerSide();
+
+        viewStateSerializer = new ViewStateSerializer(compressStateInSession, (SerialFactory)
+                facesContext.getExternalContext().getApplicationMap().get(StateUtils.SERIAL_FACTORY));
+        facesContext.getExternalContext().getApplicationMap().put(
+                ViewStateSerializer.APPLICATION_MAP_KEY, viewStateSerializer);
+    }
+
+    protected ViewStateStore getOrCreateViewStateStore(FacesContext facesContext, MyfacesConfig config)
+    {
+        String storeMode = config.getViewStateStore();
+        if (storeMode == null || storeMode.isBlank()
+                || MyfacesConfig.VIEW_STATE_STORE_SESSION.equals(storeMode))
+        {
+            return null;
+        }
+
+        // shared by all StateCacheServerSide instances of the application, the session listener uses it too
+        Map<String, Object> applicationMap = facesContext.getExternalContext().getApplicationMap();
+        ViewStateStore viewStateStore = (ViewStateStore) applicationMap.get(ViewStateStore.APPLICATION_MAP_KEY);
+        if (viewStateStore == null)
+        {
+            if (MyfacesConfig.VIEW_STATE_STORE_MEMORY.equals(storeMode))
+            {
+                viewStateStore = new ViewStateStoreMemory();
+            }
+            else if (MyfacesConfig.VIEW_STATE_STORE_DISK.equals(storeMode))
+            {
+                viewStateStore = new ViewStateStoreDisk();
+            }
+            else
+            {
+                viewStateStore = (ViewStateStore) ClassUtils.newInstance(storeMode, ViewStateStore.class);
+            }
+            applicationMap.put(ViewStateStore.APPLICATION_MAP_KEY, viewStateStore);
+        }
+        return viewStateStore;
     }
     
     //------------------------------------- METHODS COPIED FROM JspStateManagerImpl--------------------------------
@@ -188,14 +225,27 @@ else if (viewMap instanceof FacesWrapper wrapper)
             }
 
         }
-        if (viewScopeProxyMap != null)
+        String viewScopeId = viewScopeProxyMap != null ? viewScopeProxyMap.getViewScopeId() : null;
+
+        Object state = serializeView(context, serializedView);
+        ViewStateStore viewStateStore = sessionViewStorageFactory.getViewStateStore();
+        if (viewStateStore != null && state instanceof byte[] bytes)
         {
-            viewCollection.put(context, serializeView(context, serializedView), nextKey, key,
-                    viewScopeProxyMap.getViewScopeId());
+            // only a small reference goes into the session, the bytes are kept by the store
+            state = new ViewStateStoreReference(viewStateStore.put(context, bytes));
+            viewCollection.put(context, state, nextKey, key, viewScopeId,
+                    (oldViewScopeId) -> ViewScopeContext.destroyAll(context, oldViewScopeId),
+                    (oldState) ->
+                    {
+                        if (oldState instanceof ViewStateStoreReference reference)
+                        {
+                            viewStateStore.remove(context, reference.getId());
+                        }
+                    });
         }
         else
         {
-            viewCollection.put(context, serializeView(context, serializedView), nextKey, key);
+            viewCollection.put(context, state, nextKey, key, viewScopeId);
         }
 
         ClientWindow clientWindow = context.getExternalContext().getClientWindow();
@@ -228,6 +278,11 @@ protected Object getSerializedViewFromSession(FacesContext context, String viewI
                 {
                     Object state = viewCollection.get(
                             sessionViewStorageFactory.createSerializedViewKey(context, viewId, sequence));
+                    if (state instanceof ViewStateStoreReference reference)
+                    {
+                        ViewStateStore viewStateStore = sessionViewStorageFactory.getViewStateStore();
+                        state = viewStateStore == null ? null : viewStateStore.get(context, reference.getId());
+                    }
                     if (state != null)
                     {
                         serializedView = deserializeView(state);
@@ -317,42 +372,15 @@ protected Object serializeView(FacesContext context, Object serializedView)
                 log.finest("Processing serializeView - serialize state in session");
             }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
             try
             {
-                OutputStream os = baos;
-                if (compressStateInSession)
-                {
-                    if (log.isLoggable(Level.FINEST))
-                    {
-                        log.finest("Processing serializeView - serialize compressed");
-                    }
-
-                    os.write(COMPRESSED_FLAG);
-                    os = new GZIPOutputStream(os, 1024);
-                }
-                else
-                {
-                    if (log.isLoggable(Level.FINEST))
-                    {
-                        log.finest("Processing serializeView - serialize uncompressed");
-                    }
-
-                    os.write(UNCOMPRESSED_FLAG);
-                }
-
-                try (ObjectOutputStream out = new ObjectOutputStream(os))
-                {
-                    out.writeObject(serializedView);
-                }
-                
-                baos.close();
+                byte[] bytes = viewStateSerializer.serialize(serializedView);
 
                 if (log.isLoggable(Level.FINEST))
                 {
-                    log.finest("Exiting serializeView - serialized. Bytes : " + baos.size());
+                    log.finest("Exiting serializeView - serialized. Bytes : " + bytes.length);
                 }
-                return baos.toByteArray();
+                return bytes;
             }
             catch (IOException e)
             {
@@ -388,27 +416,7 @@ protected Object deserializeView(Object state)
 
             try
             {
-                ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-
-                InputStream is = bais;
-                if (is.read() == COMPRESSED_FLAG)
-                {
-                    is = new GZIPInputStream(is);
-                }
-
-                ObjectInputStream ois = new MyFacesObjectInputStream(is);
-                try
-                {
-                    return ois.readObject();
-                }
-                finally
-                {
-                    if (ois != null)
-                    {
-                        ois.close();
-                        ois = null;
-                    }
-                }
+                return viewStateSerializer.deserialize(bytes);
             }
             catch (IOException | ClassNotFoundException e) 
             {
@@ -21,7 +21,11 @@
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Random;
@@ -37,13 +41,15 @@
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import jakarta.faces.FacesException;
-import jakarta.faces.application.ViewExpiredException;
 import jakarta.faces.context.ExternalContext;
+import jakarta.faces.context.FacesContext;
 import jakarta.servlet.ServletContext;
 
 import org.apache.myfaces.buildtools.maven2.plugin.builder.annotation.JSFWebConfigParam;
 import org.apache.myfaces.core.api.shared.lang.Assert;
 import org.apache.myfaces.spi.SerialFactory;
+import org.apache.myfaces.util.lang.FastByteArrayInputStream;
+import org.apache.myfaces.util.lang.FastByteArrayOutputStream;
 
 /**
  * <p>This Class exposes a handful of methods related to encryption,
@@ -51,7 +57,8 @@
  * 
  * <ul>
  * <li>ISO-8859-1 is the character set used.</li>
- * <li>GZIP is used for all compression/decompression.</li>
+ * <li>GZIP is used for compression/decompression, unless a preset dictionary is enabled
+ * with <i>org.apache.myfaces.COMPRESS_STATE_IN_CLIENT_MODE</i>.</li>
  * <li>Base64 is used for all encoding and decoding.</li>
  * <li>AES is the default encryption algorithm</li>
  * <li>ECB is the default mode</li>
@@ -61,11 +68,13 @@
  * <i>org.apache.myfaces.ALGORITHM</i> parameter</li>
  * <li>The default mode and padding can be overridden using the
  * <i>org.apache.myfaces.ALGORITHM.PARAMETERS</i> parameter</li>
- * <li>This class has not been tested with modes other than ECB and CBC</li>
+ * <li>This class has not been tested with modes other than ECB, CBC and GCM</li>
  * <li>An initialization vector can be specified via the
  * <i>org.apache.myfaces.ALGORITHM.IV</i> parameter</li>
  * <li>The default MAC algorithm can be overridden using the
  * <i>org.apache.myfaces.MAC_ALGORITHM</i> parameter</li>
+ * <li>With the "GCM/NoPadding" parameters the state is encrypted and authenticated
+ * in a single pass with a random nonce, no MAC is added</li>
  * </ul>
  *
  * <p>The secret is interpreted as base 64 encoded.  In other
@@ -134,7 +143,8 @@
     public static final String INIT_ALGORITHM_IV = INIT_ALGORITHM + ".IV";
     
     /**
-     * Defines the default mode and padding used for the encryption algorithm
+     * Defines the default mode and padding used for the encryption algorithm. "GCM/NoPadding" (with AES)
+     * encrypts and authenticates the state in a single pass, instead of encrypting it and adding a MAC.
      */
     @JSFWebConfigParam(name="org.apache.myfaces.ALGORITHM.PARAMETERS",since="1.1",
             defaultValue="ECB/PKCS5Padding",group="state")
@@ -155,6 +165,19 @@
             expectedValues="true,false",group="state",tags="performance")
     public static final String COMPRESS_STATE_IN_CLIENT = INIT_PREFIX + "COMPRESS_STATE_IN_CLIENT";
 
+    public static final String COMPRESS_STATE_IN_CLIENT_MODE_GZIP = "gzip";
+    public static final String COMPRESS_STATE_IN_CLIENT_MODE_DICTIONARY = "dictionary";
+
+    /**
+     * Defines how the view state is compressed, if org.apache.myfaces.COMPRESS_STATE_IN_CLIENT is true.
+     * "gzip" compresses each state on its own. "dictionary" uses a preset deflate dictionary built from
+     * the registered component types, renderer types and common state keys, so the strings repeated in
+     * every state are not encoded again. All nodes of a cluster must run the same deployment.
+     */
+    @JSFWebConfigParam(name="org.apache.myfaces.COMPRESS_STATE_IN_CLIENT_MODE",since="5.0.0",defaultValue="gzip",
+            expectedValues="gzip,dictionary",group="state",tags="performance")
+    public static final String COMPRESS_STATE_IN_CLIENT_MODE = INIT_PREFIX + "COMPRESS_STATE_IN_CLIENT_MODE";
+
     public static final String DEFAULT_MAC_ALGORITHM = "HmacSHA256";
 
     /**
@@ -185,7 +208,7 @@ private StateUtils()
         //nope
     }
 
-    private static void testConfiguration(ExternalContext ctx)
+    static void testConfiguration(ExternalContext ctx)
     {
         String algorithmParams = ctx.getInitParameter(INIT_ALGORITHM_PARAM);
         if (algorithmParams != null && algorithmParams.startsWith("CBC"))
@@ -201,6 +224,13 @@ private static void testConfiguration(ExternalContext ctx)
         }
     }
     
+    /**
+     * Creates a new, not pooled, Cipher for the configured algorithm.
+     *
+     * @deprecated the state is encrypted with the pooled instances of {@link ClientStateCrypto}, which also
+     * handles the AEAD modes
+     */
+    @Deprecated(since = "5.0")
     public static Cipher createCipher(ExternalContext externalContext, int mode) throws Exception
     {
         SecretKey secretKey = getSecret(externalContext);
@@ -227,6 +257,12 @@ public static Cipher createCipher(ExternalContext externalContext, int mode) thr
         return cipher;
     }
     
+    /**
+     * Creates a new, not pooled, Mac for the configured algorithm.
+     *
+     * @deprecated the state is authenticated with the pooled instances of {@link ClientStateCrypto}
+     */
+    @Deprecated(since = "5.0")
     public static Mac createMac(ExternalContext externalContext) throws Exception
     {
         SecretKey macSecretKey = getMacSecret(externalContext);
@@ -245,6 +281,14 @@ public static boolean enableCompression(ExternalContext externalContext)
         return "true".equals(externalContext.getInitParameter(COMPRESS_STATE_IN_CLIENT));
     }
     
+    public static boolean enableDictionaryCompression(ExternalContext externalContext)
+    {
+        Assert.notNull(externalContext, "externalContext");
+
+        return COMPRESS_STATE_IN_CLIENT_MODE_DICTIONARY.equals(
+                externalContext.getInitParameter(COMPRESS_STATE_IN_CLIENT_MODE));
+    }
+
     public static boolean isSecure(ExternalContext externalContext)
     {
         Assert.notNull(externalContext, "externalContext");
@@ -254,28 +298,35 @@ public static boolean isSecure(ExternalContext externalContext)
 
     /**
      * This fires during the Render Response phase, saving state.
+     *
+     * <p>The state is streamed through the serialization, compression, encryption and base64 stages
+     * into a single buffer, without an intermediate byte array between them.</p>
      */
     public static final String construct(Object object, ExternalContext ctx)
     {
-        byte[] bytes = getAsByteArray(object, ctx);
-        if (enableCompression(ctx))
-        {
-            bytes = compress(bytes);
-        }
-        if (isSecure(ctx))
-        {
-            bytes = encrypt(bytes, ctx);
-        }
-        bytes = encode(bytes);
+        SerialFactory serialFactory = getSerialFactory(ctx);
 
+        FastByteArrayOutputStream baos = new FastByteArrayOutputStream(1024);
         try
         {
-            return new String(bytes, ZIP_CHARSET);
+            // every stage closes the one it wraps, closing a stream twice is a no-op
+            try (OutputStream encoded = Base64.getEncoder().wrap(baos);
+                    OutputStream encrypted = isSecure(ctx)
+                            ? ClientStateCrypto.getInstance(ctx).encryptingStream(encoded, ctx)
+                            : encoded;
+                    OutputStream os = enableCompression(ctx)
+                            ? compressingStream(encrypted, ctx)
+                            : encrypted)
+            {
+                serialFactory.writeObject(object, os);
+            }
         }
-        catch (UnsupportedEncodingException e)
+        catch (IOException | GeneralSecurityException e)
         {
             throw new FacesException(e);
         }
+
+        return new String(baos.getByteArray(), 0, baos.getSize(), StandardCharsets.ISO_8859_1);
     }
 
     /**
@@ -288,9 +339,7 @@ public static final String construct(Object object, ExternalContext ctx)
      */
     public static final byte[] getAsByteArray(Object object, ExternalContext ctx)
     {
-        // get the Factory that was instantiated @ startup
-        SerialFactory serialFactory = (SerialFactory) ctx.getApplicationMap().get(SERIAL_FACTORY);
-        Assert.notNull(serialFactory, "serialFactory");
+        SerialFactory serialFactory = getSerialFactory(ctx);
 
         try
         {
@@ -306,21 +355,9 @@ public static byte[] encrypt(byte[] insecure, ExternalContext externalContext)
     {
         Assert.notNull(externalContext, "externalContext");
 
-        testConfiguration(externalContext);
-
         try
         {
-            Mac mac = createMac(externalContext);
-            Cipher cipher = createCipher(externalContext, Cipher.ENCRYPT_MODE);
-
-            //EtM (Encrypt-then-MAC) Composition Approach
-            int macLenght = mac.getMacLength();
-            byte[] secure = new byte[cipher.getOutputSize(insecure.length) + macLenght];
-            int secureCount = cipher.doFinal(insecure, 0, insecure.length, secure);
-            mac.update(secure, 0, secureCount);
-            mac.doFinal(secure, secureCount);
-                        
-            return secure;
+            return ClientStateCrypto.getInstance(externalContext).encrypt(insecure, externalContext);
         }
         catch (Exception e)
         {
@@ -370,18 +407,20 @@ public static final Object reconstruct(String string, ExternalContext ctx)
                 log.fine("Processing serialized viewstate string with hashCode : " + string.hashCode());
             }
 
-            bytes = string.getBytes(ZIP_CHARSET);
+            bytes = string.getBytes(StandardCharsets.ISO_8859_1);
             bytes = decode(bytes);
             if (isSecure(ctx))
             {
+                // the MAC must be verified before anything is decrypted, so this stage is not streamed
                 bytes = decrypt(bytes, ctx);
             }
-            if (enableCompression(ctx))
+
+            try (InputStream is = enableCompression(ctx)
+                    ? decompressingStream(new FastByteArrayInputStream(bytes), ctx)
+                    : new FastByteArrayInputStream(bytes))
             {
-                bytes = decompress(bytes);
+                return getSerialFactory(ctx).readObject(is);
             }
-
-            return getAsObject(bytes, ctx);
         }
         catch (Throwable e)
         {
@@ -398,6 +437,20 @@ public static final byte[] decode(byte[] bytes)
         return Base64.getDecoder().decode(bytes);
     }
 
+    private static OutputStream compressingStream(OutputStream out, ExternalContext ctx) throws IOException
+    {
+        return enableDictionaryCompression(ctx)
+                ? ClientStateDictionary.getInstance(ctx).compressingStream(out)
+                : new GZIPOutputStream(out, 1024);
+    }
+
+    private static InputStream decompressingStream(InputStream in, ExternalContext ctx) throws IOException
+    {
+        return enableDictionaryCompression(ctx)
+                ? ClientStateDictionary.getInstance(ctx).decompressingStream(in)
+                : new GZIPInputStream(in, 1024);
+    }
+
     public static final byte[] decompress(byte[] bytes)
     {
         Assert.notNull(bytes, "bytes");
@@ -432,39 +485,9 @@ public static byte[] decrypt(byte[] secure, ExternalContext externalContext)
     {
         Assert.notNull(externalContext, "externalContext");
 
-        testConfiguration(externalContext);
-
         try
         {
-            Mac mac = createMac(externalContext);
-            Cipher cipher = createCipher(externalContext, Cipher.DECRYPT_MODE);
-
-            //EtM (Encrypt-then-MAC) Composition Approach
-            int macLenght = mac.getMacLength();
-            mac.update(secure, 0, secure.length - macLenght);
-            byte[] signedDigestHash = mac.doFinal();
-
-            boolean isMacEqual = true;
-            for (int i = 0; i < signedDigestHash.length; i++)
-            {
-                if (signedDigestHash[i] != secure[secure.length - macLenght + i])
-                {
-                    isMacEqual = false;
-                    // MYFACES-2934 Must compare *ALL* bytes of the hash, 
-                    // otherwise a side-channel timing attack is theorically possible
-                    // but with a very very low probability, because the
-                    // comparison time is too small to be measured compared to
-                    // the overall request time and in real life applications,
-                    // there are too many uncertainties involved.
-                    //break;
-                }
-            }
-            if (!isMacEqual)
-            {
-                throw new ViewExpiredException();
-            }
-            
-            return cipher.doFinal(secure, 0, secure.length - macLenght);
+            return ClientStateCrypto.getInstance(externalContext).decrypt(secure, externalContext);
         }
         catch (Exception e)
         {
@@ -482,9 +505,7 @@ public static byte[] decrypt(byte[] secure, ExternalContext externalContext)
      */
     public static final Object getAsObject(byte[] bytes, ExternalContext ctx)
     {
-        // get the Factory that was instantiated @ startup
-        SerialFactory serialFactory = (SerialFactory) ctx.getApplicationMap().get(SERIAL_FACTORY);
-        Assert.notNull(serialFactory, "serialFactory");
+        SerialFactory serialFactory = getSerialFactory(ctx);
 
         try
         {
@@ -496,6 +517,14 @@ public static final Object getAsObject(byte[] bytes, ExternalContext ctx)
         }
     }
 
+    private static SerialFactory getSerialFactory(ExternalContext ctx)
+    {
+        // get the Factory that was instantiated @ startup
+        SerialFactory serialFactory = (SerialFactory) ctx.getApplicationMap().get(SERIAL_FACTORY);
+        Assert.notNull(serialFactory, "serialFactory");
+        return serialFactory;
+    }
+
     /**
      * Utility method for generating base 64 encoded strings.
      * 
@@ -508,7 +537,7 @@ public static void main(String[] args) throws UnsupportedEncodingException
         System.out.println(new String(bytes, ZIP_CHARSET));
     }
 
-    private static byte[] findInitializationVector(ExternalContext ctx)
+    static byte[] findInitializationVector(ExternalContext ctx)
     {
         byte[] iv = null;
         String ivString = ctx.getInitParameter(INIT_ALGORITHM_IV);
@@ -521,7 +550,7 @@ private static byte[] findInitializationVector(ExternalContext ctx)
         return iv;
     }
 
-    private static String findAlgorithmParams(ExternalContext ctx)
+    static String findAlgorithmParams(ExternalContext ctx)
     {
         String algorithmParams = ctx.getInitParameter(INIT_ALGORITHM_PARAM);        
         if (algorithmParams == null)
@@ -537,7 +566,7 @@ private static String findAlgorithmParams(ExternalContext ctx)
         return algorithmParams;
     }
 
-    private static String findAlgorithm(ExternalContext ctx)
+    static String findAlgorithm(ExternalContext ctx)
     {
         String algorithm = ctx.getInitParameter(INIT_ALGORITHM);
 
@@ -609,7 +638,22 @@ public static void initSecret(ServletContext servletContext)
         }
     }
     
-    private static SecretKey getSecret(ExternalContext ctx)
+    /**
+     * Builds the preset dictionary for the client side state compression and stores it in application scope,
+     * if the "dictionary" compression mode is enabled.
+     */
+    public static void initDictionary(FacesContext facesContext)
+    {
+        Assert.notNull(facesContext, "facesContext");
+
+        ExternalContext externalContext = facesContext.getExternalContext();
+        if (enableCompression(externalContext) && enableDictionaryCompression(externalContext))
+        {
+            ClientStateDictionary.initialize(facesContext);
+        }
+    }
+    
+    static SecretKey getSecret(ExternalContext ctx)
     {
         Object secretKey = ctx.getApplicationMap().get(INIT_SECRET_KEY_CACHE);
         
@@ -696,7 +740,7 @@ private static byte[] findSecret(String secret, String algorithm)
         return bytes;
     }
 
-    private static String findMacAlgorithm(ExternalContext ctx)
+    static String findMacAlgorithm(ExternalContext ctx)
     {
         String algorithm = ctx.getInitParameter(INIT_MAC_ALGORITHM);
 
@@ -725,7 +769,7 @@ private static String findMacAlgorithm(String initParam)
         return initParam;
     }
     
-    private static SecretKey getMacSecret(ExternalContext ctx)
+    static SecretKey getMacSecret(ExternalContext ctx)
     {
         Object secretKey = ctx.getApplicationMap().get(INIT_MAC_SECRET_KEY_CACHE);
         
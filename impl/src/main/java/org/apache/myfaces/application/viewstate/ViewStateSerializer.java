@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.application.viewstate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.myfaces.spi.SerialFactory;
+import org.apache.myfaces.spi.impl.DefaultSerialFactory;
+import org.apache.myfaces.util.lang.FastByteArrayInputStream;
+import org.apache.myfaces.util.lang.FastByteArrayOutputStream;
+
+/**
+ * Serializes the server side view state into byte arrays.
+ *
+ * <p>The {@link Deflater}/{@link Inflater} instances and the output buffer are kept in a bounded pool and
+ * reused, so saving a view does not allocate native zlib memory nor grow a new buffer on every request. The
+ * only copy made is the final one into an array of the exact state size. Nothing is bound to the threads of
+ * the container, so the pool goes away with the application.</p>
+ *
+ * <p>The state objects are written by the {@link SerialFactory} of the application, if one is given, directly
+ * into the deflater stream and read directly from the inflater stream.</p>
+ *
+ * <p>The first byte of the serialized state is a flag telling how the rest is encoded. States written
+ * with {@link #GZIP_FLAG} by previous versions can still be read.</p>
+ */
+public class ViewStateSerializer
+{
+    public static final String APPLICATION_MAP_KEY = ViewStateSerializer.class.getName();
+
+    public static final int UNCOMPRESSED_FLAG = 0;
+    public static final int GZIP_FLAG = 1;
+    public static final int DEFLATE_FLAG = 2;
+
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+
+    /**
+     * Bigger buffers are not kept after the serialization, to not retain the memory of a single huge view.
+     */
+    private static final int MAX_POOLED_BUFFER_SIZE = 512 * 1024;
+
+    /**
+     * Resources not fitting into the pool are released, so it does not grow beyond the number of threads which
+     * usually save or restore a view at the same time.
+     */
+    private static final int MAX_POOLED_RESOURCES = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private final boolean compress;
+    private final SerialFactory serialFactory;
+    private final Queue<Resources> pool = new ArrayBlockingQueue<>(MAX_POOLED_RESOURCES);
+
+    private final LongAdder serializeCount = new LongAdder();
+    private final LongAdder serializedBytes = new LongAdder();
+    private final LongAdder serializeNanos = new LongAdder();
+    private final LongAdder deserializeCount = new LongAdder();
+    private final LongAdder deserializedBytes = new LongAdder();
+    private final LongAdder deserializeNanos = new LongAdder();
+
+    public ViewStateSerializer(boolean compress)
+    {
+        this(compress, null);
+    }
+
+    /**
+     * @param serialFactory writes and reads the state objects, if null Java serialization is used
+     */
+    public ViewStateSerializer(boolean compress, SerialFactory serialFactory)
+    {
+        this.compress = compress;
+        this.serialFactory = serialFactory == null ? new DefaultSerialFactory() : serialFactory;
+    }
+
+    public byte[] serialize(Object state) throws IOException
+    {
+        long start = System.nanoTime();
+
+        Resources resources = borrowResources();
+        try
+        {
+            FastByteArrayOutputStream buffer = resources.buffer;
+            buffer.reset();
+
+            OutputStream os = buffer;
+            if (compress)
+            {
+                buffer.write(DEFLATE_FLAG);
+                os = new DeflaterOutputStream(buffer, resources.getDeflater(), 1024);
+            }
+            else
+            {
+                buffer.write(UNCOMPRESSED_FLAG);
+            }
+
+            try (OutputStream out = os)
+            {
+                serialFactory.writeObject(state, out);
+            }
+
+            byte[] bytes = Arrays.copyOf(buffer.getByteArray(), buffer.getSize());
+
+            serializeCount.increment();
+            serializedBytes.add(bytes.length);
+            serializeNanos.add(System.nanoTime() - start);
+            return bytes;
+        }
+        finally
+        {
+            releaseResources(resources);
+        }
+    }
+
+    public Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException
+    {
+        long start = System.nanoTime();
+
+        Resources resources = borrowResources();
+        try
+        {
+            InputStream is = new FastByteArrayInputStream(bytes);
+            int flag = is.read();
+            if (flag == DEFLATE_FLAG)
+            {
+                is = new InflaterInputStream(is, resources.getInflater(), 1024);
+            }
+            else if (flag == GZIP_FLAG)
+            {
+                is = new GZIPInputStream(is);
+            }
+
+            Object state;
+            try (InputStream in = is)
+            {
+                state = serialFactory.readObject(in);
+            }
+
+            deserializeCount.increment();
+            deserializedBytes.add(bytes.length);
+            deserializeNanos.add(System.nanoTime() - start);
+            return state;
+        }
+        finally
+        {
+            releaseResources(resources);
+        }
+    }
+
+    private Resources borrowResources()
+    {
+        Resources resources = pool.poll();
+        return resources == null ? new Resources() : resources;
+    }
+
+    private void releaseResources(Resources resources)
+    {
+        resources.reset();
+        if (!pool.offer(resources))
+        {
+            resources.end();
+        }
+    }
+
+    public long getSerializeCount()
+    {
+        return serializeCount.sum();
+    }
+
+    public long getSerializedBytes()
+    {
+        return serializedBytes.sum();
+    }
+
+    public long getSerializeNanos()
+    {
+        return serializeNanos.sum();
+    }
+
+    public long getDeserializeCount()
+    {
+        return deserializeCount.sum();
+    }
+
+    public long getDeserializedBytes()
+    {
+        return deserializedBytes.sum();
+    }
+
+    public long getDeserializeNanos()
+    {
+        return deserializeNanos.sum();
+    }
+
+    private static final class Resources
+    {
+        private FastByteArrayOutputStream buffer = new FastByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        private Deflater deflater;
+        private Inflater inflater;
+
+        Deflater getDeflater()
+        {
+            if (deflater == null)
+            {
+                deflater = new Deflater();
+            }
+            return deflater;
+        }
+
+        Inflater getInflater()
+        {
+            if (inflater == null)
+            {
+                inflater = new Inflater();
+            }
+            return inflater;
+        }
+
+        void reset()
+        {
+            if (deflater != null)
+            {
+                deflater.reset();
+            }
+            if (inflater != null)
+            {
+                inflater.reset();
+            }
+            if (buffer.getByteArray().length > MAX_POOLED_BUFFER_SIZE)
+            {
+                buffer = new FastByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+            }
+        }
+
+        void end()
+        {
+            if (deflater != null)
+            {
+                deflater.end();
+            }
+            if (inflater != null)
+            {
+                inflater.end();
+            }
+        }
+    }
+}
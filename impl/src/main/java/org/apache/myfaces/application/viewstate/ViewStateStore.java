@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.application.viewstate;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import jakarta.faces.context.ExternalContext;
+import jakarta.faces.context.FacesContext;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Stores the serialized view state outside of the session when server side state saving is used.
+ *
+ * <p>With a store configured, the session only keeps the {@link SerializedViewCollection} index (keys,
+ * precedence and a small reference per view), while the serialized bytes are kept by the store. This
+ * avoids that the whole state collection has to be replicated by the container after each request.</p>
+ *
+ * <p>Implementations must be thread safe, because one instance is shared by the whole application.
+ * A custom implementation can be configured with its class name through
+ * {@link org.apache.myfaces.config.webparameters.MyfacesConfig#VIEW_STATE_STORE}; it requires
+ * a public no-arg constructor.</p>
+ */
+public abstract class ViewStateStore
+{
+    public static final String APPLICATION_MAP_KEY = ViewStateStore.class.getName();
+
+    private final long idPrefix = new SecureRandom().nextLong() & Long.MAX_VALUE;
+    private final AtomicLong idCounter = new AtomicLong();
+
+    /**
+     * Stores the given serialized state and returns the id used to retrieve it later.
+     */
+    public abstract String put(FacesContext facesContext, byte[] state);
+
+    /**
+     * Returns the serialized state stored under the given id or null if it is not available (anymore).
+     */
+    public abstract byte[] get(FacesContext facesContext, String id);
+
+    /**
+     * Discards the state stored under the given id.
+     */
+    public abstract void remove(FacesContext facesContext, String id);
+
+    /**
+     * Called on application shutdown, to release all resources held by the store.
+     */
+    public void destroy(FacesContext facesContext)
+    {
+    }
+
+    /**
+     * Generates a new id, unique for this store instance.
+     */
+    protected String generateId()
+    {
+        return Long.toHexString(idPrefix) + '-' + Long.toHexString(idCounter.incrementAndGet());
+    }
+
+    public static ViewStateStore getCurrentInstance(ExternalContext externalContext)
+    {
+        return (ViewStateStore) externalContext.getApplicationMap().get(APPLICATION_MAP_KEY);
+    }
+
+    /**
+     * Removes all views of the given session from the store. Called when the session is destroyed.
+     */
+    public static void destroyAll(FacesContext facesContext, HttpSession session)
+    {
+        ViewStateStore store = getCurrentInstance(facesContext.getExternalContext());
+        if (store == null)
+        {
+            return;
+        }
+
+        Object viewCollection = session.getAttribute(StateCacheServerSide.SERIALIZED_VIEW_SESSION_ATTR);
+        if (viewCollection instanceof SerializedViewCollection collection)
+        {
+            collection.forEachState(state ->
+            {
+                if (state instanceof ViewStateStoreReference reference)
+                {
+                    store.remove(facesContext, reference.getId());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.application.viewstate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import jakarta.faces.FacesException;
+import jakarta.faces.context.FacesContext;
+import jakarta.servlet.ServletContext;
+
+import org.apache.myfaces.config.webparameters.MyfacesConfig;
+
+/**
+ * Keeps the serialized view state as files in a local directory. Bigger states are read through a
+ * memory mapped buffer, so the page cache of the operating system is used instead of copying
+ * the file through an intermediate buffer.
+ *
+ * <p>Every store writes into its own subdirectory of the configured directory and only ever deletes that one,
+ * so the directory can be shared, e.g. by several applications.</p>
+ *
+ * <p>Note the files are local to the node, so this store requires sticky sessions.</p>
+ */
+public class ViewStateStoreDisk extends ViewStateStore
+{
+    private static final Logger log = Logger.getLogger(ViewStateStoreDisk.class.getName());
+
+    private static final String TEMP_FOLDER_BASE_DIR = "oam-viewstate";
+    private static final String STORE_DIR_PREFIX = "store-";
+    private static final String FILE_SUFFIX = ".state";
+
+    /**
+     * Files smaller than this are read with a plain channel read, mapping them is more expensive.
+     */
+    private static final int MAP_THRESHOLD = 16 * 1024;
+
+    private final Path directory;
+
+    public ViewStateStoreDisk()
+    {
+        this(resolveDirectory(FacesContext.getCurrentInstance()));
+    }
+
+    /**
+     * @param directory the parent of the directory created for this store
+     */
+    public ViewStateStoreDisk(File directory)
+    {
+        try
+        {
+            this.directory = Files.createTempDirectory(Files.createDirectories(directory.toPath()),
+                    STORE_DIR_PREFIX);
+        }
+        catch (IOException e)
+        {
+            throw new FacesException("Could not create view state directory " + directory, e);
+        }
+    }
+
+    private static File resolveDirectory(FacesContext facesContext)
+    {
+        String directory = MyfacesConfig.getCurrentInstance(facesContext).getViewStateStoreDirectory();
+        if (directory != null && !directory.isBlank())
+        {
+            return new File(directory);
+        }
+        File tempdir = (File) facesContext.getExternalContext().getApplicationMap().get(ServletContext.TEMPDIR);
+        if (tempdir == null)
+        {
+            tempdir = new File(System.getProperty("java.io.tmpdir"));
+        }
+        return new File(tempdir, TEMP_FOLDER_BASE_DIR);
+    }
+
+    @Override
+    public String put(FacesContext facesContext, byte[] state)
+    {
+        String id = generateId();
+        try (FileChannel channel = FileChannel.open(getFile(id),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(state);
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new FacesException("Could not write view state " + id, e);
+        }
+        return id;
+    }
+
+    @Override
+    public byte[] get(FacesContext facesContext, String id)
+    {
+        try (FileChannel channel = FileChannel.open(getFile(id), StandardOpenOption.READ))
+        {
+            int size = (int) channel.size();
+            byte[] state = new byte[size];
+            if (size >= MAP_THRESHOLD)
+            {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                mapped.get(state);
+            }
+            else
+            {
+                ByteBuffer buffer = ByteBuffer.wrap(state);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+                {
+                    // keep reading
+                }
+            }
+            return state;
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+        catch (IOException e)
+        {
+            log.log(Level.SEVERE, "Could not read view state " + id, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void remove(FacesContext facesContext, String id)
+    {
+        try
+        {
+            Files.deleteIfExists(getFile(id));
+        }
+        catch (IOException e)
+        {
+            log.log(Level.WARNING, "Could not delete view state " + id, e);
+        }
+    }
+
+    @Override
+    public void destroy(FacesContext facesContext)
+    {
+        try
+        {
+            try (Stream<Path> files = Files.list(directory))
+            {
+                for (Path file : (Iterable<Path>) files::iterator)
+                {
+                    if (file.getFileName().toString().endsWith(FILE_SUFFIX))
+                    {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+        catch (NoSuchFileException e)
+        {
+            // already destroyed
+        }
+        catch (IOException e)
+        {
+            log.log(Level.WARNING, "Could not delete view state directory " + directory, e);
+        }
+    }
+
+    private Path getFile(String id)
+    {
+        return directory.resolve(id + FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.application.viewstate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jakarta.faces.context.FacesContext;
+
+/**
+ * Keeps the serialized view state in the heap of the current node, in a concurrent map, so concurrent requests
+ * of different sessions do not contend on a single monitor.
+ */
+public class ViewStateStoreMemory extends ViewStateStore
+{
+    private final Map<String, byte[]> states = new ConcurrentHashMap<>();
+
+    @Override
+    public String put(FacesContext facesContext, byte[] state)
+    {
+        String id = generateId();
+        states.put(id, state);
+        return id;
+    }
+
+    @Override
+    public byte[] get(FacesContext facesContext, String id)
+    {
+        return states.get(id);
+    }
+
+    @Override
+    public void remove(FacesContext facesContext, String id)
+    {
+        states.remove(id);
+    }
+
+    @Override
+    public void destroy(FacesContext facesContext)
+    {
+        states.clear();
+    }
+}
@@ -28,7 +28,7 @@
 /**
  *
  */
-public class AllSearchKeywordResolver extends SearchKeywordResolver
+public class AllSearchKeywordResolver extends SearchKeywordResolver implements CacheableSearchKeywordResolver
 {
     public static final String ALL_KEYWORD = "all";
 
@@ -70,4 +70,10 @@ public boolean isLeaf(SearchExpressionContext searchExpressionContext, String ke
     {
         return true;
     }
+
+    @Override
+    public boolean isCacheable(SearchExpressionContext searchExpressionContext, String keyword)
+    {
+        return true;
+    }
 }
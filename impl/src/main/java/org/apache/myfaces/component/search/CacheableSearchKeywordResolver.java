@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.component.search;
+
+import jakarta.faces.component.search.SearchExpressionContext;
+
+/**
+ * Implemented by a {@link jakarta.faces.component.search.SearchKeywordResolver} to declare that the components
+ * it resolves a keyword to only depend on the component the keyword is applied to and on the structure of the view.
+ * Only components removed from the view invalidate a cached result, so a keyword resolved by the position of a
+ * component among its siblings, like @next or @child(n), must not be cacheable: adding a component moves them.
+ *
+ * <p>The SearchExpressionHandlerImpl then remembers the components an expression with such keywords resolves to, and
+ * reuses them when the same expression is resolved again for the same source in the same view and phase, e.g. for
+ * the f:ajax of every row of a table. A resolver that invokes the callback within a visit of the tree, or whose
+ * result depends on anything else, e.g. the request, must not be cacheable.</p>
+ */
+public interface CacheableSearchKeywordResolver
+{
+    /**
+     * @return true if the result of the keyword can be reused as long as the view is not changed
+     */
+    boolean isCacheable(SearchExpressionContext searchExpressionContext, String keyword);
+}
@@ -28,6 +28,7 @@
  *
  */
 public class CompositeComponentParentSearchKeywordResolver extends SearchKeywordResolver
+        implements CacheableSearchKeywordResolver
 {
     public static final String COMPOSITE_KEYWORD = "composite";
 
@@ -55,4 +56,9 @@ public boolean isLeaf(SearchExpressionContext searchExpressionContext, String ke
         return false;
     }
 
+    @Override
+    public boolean isCacheable(SearchExpressionContext searchExpressionContext, String keyword)
+    {
+        return true;
+    }
 }
@@ -25,7 +25,7 @@
 import jakarta.faces.component.search.SearchKeywordResolver;
 import org.apache.myfaces.core.api.shared.lang.Assert;
 
-public class CompositeSearchKeywordResolver extends SearchKeywordResolver
+public class CompositeSearchKeywordResolver extends SearchKeywordResolver implements CacheableSearchKeywordResolver
 {
     private int size;
     private SearchKeywordResolver[] resolvers;
@@ -108,4 +108,19 @@ public boolean isLeaf(SearchExpressionContext searchExpressionContext, String ke
         }
         return false;
     }
+
+    @Override
+    public boolean isCacheable(SearchExpressionContext searchExpressionContext, String keyword)
+    {
+        int sz = this.size;
+        for (int i = 0; i < sz; i++)
+        {
+            if (this.resolvers[i].isResolverForKeyword(searchExpressionContext, keyword))
+            {
+                return this.resolvers[i] instanceof CacheableSearchKeywordResolver cacheable
+                        && cacheable.isCacheable(searchExpressionContext, keyword);
+            }
+        }
+        return false;
+    }
 }
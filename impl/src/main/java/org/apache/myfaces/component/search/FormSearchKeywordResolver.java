@@ -30,7 +30,7 @@
 /**
  *
  */
-public class FormSearchKeywordResolver extends SearchKeywordResolver
+public class FormSearchKeywordResolver extends SearchKeywordResolver implements CacheableSearchKeywordResolver
 {
     public static final String FORM_KEYWORD = "form";
 
@@ -66,4 +66,9 @@ public boolean isLeaf(SearchExpressionContext searchExpressionContext, String ke
         return false;
     }
 
+    @Override
+    public boolean isCacheable(SearchExpressionContext searchExpressionContext, String keyword)
+    {
+        return true;
+    }
 }
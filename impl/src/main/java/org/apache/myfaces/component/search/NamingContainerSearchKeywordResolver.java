@@ -30,6 +30,7 @@
  *
  */
 public class NamingContainerSearchKeywordResolver extends SearchKeywordResolver
+        implements CacheableSearchKeywordResolver
 {
     public static final String NAMING_CONTAINER_KEYWORD = "namingcontainer";
 
@@ -58,4 +59,9 @@ public boolean isLeaf(SearchExpressionContext searchExpressionContext, String ke
         return false;
     }
 
+    @Override
+    public boolean isCacheable(SearchExpressionContext searchExpressionContext, String keyword)
+    {
+        return true;
+    }
 }
@@ -28,7 +28,7 @@
 /**
  *
  */
-public class NoneSearchKeywordResolver extends SearchKeywordResolver
+public class NoneSearchKeywordResolver extends SearchKeywordResolver implements CacheableSearchKeywordResolver
 {
     public static final String NONE_KEYWORD = "none";
 
@@ -64,4 +64,9 @@ public boolean isLeaf(SearchExpressionContext searchExpressionContext, String ke
         return true;
     }
 
+    @Override
+    public boolean isCacheable(SearchExpressionContext searchExpressionContext, String keyword)
+    {
+        return true;
+    }
 }
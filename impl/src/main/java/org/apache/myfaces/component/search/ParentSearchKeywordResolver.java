@@ -27,7 +27,7 @@
 /**
  *
  */
-public class ParentSearchKeywordResolver extends SearchKeywordResolver
+public class ParentSearchKeywordResolver extends SearchKeywordResolver implements CacheableSearchKeywordResolver
 {
     public static final String PARENT_KEYWORD = "parent";
 
@@ -55,4 +55,9 @@ public boolean isLeaf(SearchExpressionContext searchExpressionContext, String ke
         return false;
     }
 
+    @Override
+    public boolean isCacheable(SearchExpressionContext searchExpressionContext, String keyword)
+    {
+        return true;
+    }
 }
@@ -27,7 +27,7 @@
 /**
  *
  */
-public class RootSearchKeywordResolver extends SearchKeywordResolver
+public class RootSearchKeywordResolver extends SearchKeywordResolver implements CacheableSearchKeywordResolver
 {
     public static final String ROOT_KEYWORD = "root";
 
@@ -56,4 +56,9 @@ public boolean isLeaf(SearchExpressionContext searchExpressionContext, String ke
         return false;
     }
 
+    @Override
+    public boolean isCacheable(SearchExpressionContext searchExpressionContext, String keyword)
+    {
+        return true;
+    }
 }
@@ -21,7 +21,10 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import jakarta.faces.FacesException;
 import jakarta.faces.component.ContextCallback;
 import jakarta.faces.component.NamingContainer;
@@ -32,17 +35,30 @@
 import jakarta.faces.component.search.SearchExpressionHandler;
 import jakarta.faces.component.search.SearchExpressionHint;
 import jakarta.faces.component.search.SearchKeywordContext;
+import jakarta.faces.component.search.SearchKeywordResolver;
 import jakarta.faces.context.FacesContext;
+import jakarta.faces.event.PhaseId;
 import org.apache.myfaces.core.api.shared.ComponentUtils;
 import org.apache.myfaces.core.api.shared.lang.SharedStringBuilder;
+import org.apache.myfaces.util.lang.ConcurrentLRUCache;
 import org.apache.myfaces.util.lang.StringUtils;
 
 /**
- *
+ * <p>The expressions of a view are static, so the split and parsed form of an expression is cached by its text.
+ * Besides that, the components an expression resolves to are reused within the same view and phase, if all its
+ * keywords are {@link CacheableSearchKeywordResolver cacheable}, e.g. for the f:ajax of each row of a table.</p>
  */
 public class SearchExpressionHandlerImpl extends SearchExpressionHandler
 {
     private static final String SB_SPLIT = SearchExpressionHandlerImpl.class.getName() + "#split";
+    private static final String RESOLVED_TARGETS = SearchExpressionHandlerImpl.class.getName() + "#targets";
+
+    private static final int EXPRESSION_CACHE_SIZE = 500;
+
+    private final ConcurrentLRUCache<String, String[]> splitExpressionsCache =
+            new ConcurrentLRUCache<>((EXPRESSION_CACHE_SIZE * 4 + 3) / 3, EXPRESSION_CACHE_SIZE);
+    private final ConcurrentLRUCache<String, ParsedExpression> parsedExpressionCache =
+            new ConcurrentLRUCache<>((EXPRESSION_CACHE_SIZE * 4 + 3) / 3, EXPRESSION_CACHE_SIZE);
 
     protected void addHint(SearchExpressionContext searchExpressionContext, SearchExpressionHint hint)
     {
@@ -87,8 +103,7 @@ public String resolveClientId(SearchExpressionContext searchExpressionContext, S
             if (!expression.isEmpty())
             {
                 callback = new CollectClientIdCallback();
-                handler.invokeOnComponent(
-                        searchExpressionContext, searchExpressionContext.getSource(), expression, callback);
+                invokeOnSource(searchExpressionContext, handler, expression, callback);
             }
 
             if (callback == null || !callback.isClientIdFound())
@@ -151,7 +166,7 @@ public List<String> resolveClientIds(SearchExpressionContext searchExpressionCon
         if (!expressions.isEmpty())
         {
             callback = new CollectClientIdsCallback();
-            for (String expression : handler.splitExpressions(facesContext, expressions))
+            for (String expression : splitExpressions(facesContext, handler, expressions))
             {
                 if (handler.isPassthroughExpression(searchExpressionContext, expression))
                 {
@@ -160,8 +175,7 @@ public List<String> resolveClientIds(SearchExpressionContext searchExpressionCon
                 }
                 else
                 {
-                    handler.invokeOnComponent(
-                            searchExpressionContext, searchExpressionContext.getSource(), expression, callback);
+                    invokeOnSource(searchExpressionContext, handler, expression, callback);
                 }
             }
         }
@@ -238,8 +252,7 @@ public void resolveComponent(SearchExpressionContext searchExpressionContext, St
         if (!expression.isEmpty())
         {
             checkCallback = new SingleInvocationCallback(callback);
-            handler.invokeOnComponent(searchExpressionContext, searchExpressionContext.getSource(),
-                    expression, checkCallback);
+            invokeOnSource(searchExpressionContext, handler, expression, checkCallback);
         }
 
         if (checkCallback == null || !checkCallback.isInvoked())
@@ -312,10 +325,9 @@ public void resolveComponents(SearchExpressionContext searchExpressionContext, S
         if (!expressions.isEmpty())
         {
             checkCallback = new MultipleInvocationCallback(callback);
-            for (String expression : handler.splitExpressions(facesContext, expressions))
+            for (String expression : splitExpressions(facesContext, handler, expressions))
             {
-                handler.invokeOnComponent(searchExpressionContext, searchExpressionContext.getSource(),
-                        expression, checkCallback);
+                invokeOnSource(searchExpressionContext, handler, expression, checkCallback);
             }
         }
 
@@ -386,23 +398,22 @@ public void invokeOnComponent(final SearchExpressionContext searchExpressionCont
         //Step 1: find base
         //  Case ':' (root)
         char separatorChar = facesContext.getNamingContainerSeparatorChar();
-        if (topExpression.charAt(0) == separatorChar)
+        ParsedExpression parsed = parse(topExpression, separatorChar);
+        if (parsed.type == ParsedExpression.ROOT)
         {
             UIComponent findBase = ComponentUtils.findRootComponent(previous);
-            handler.invokeOnComponent(searchExpressionContext, findBase, topExpression.substring(1), topCallback);
+            handler.invokeOnComponent(searchExpressionContext, findBase, parsed.remaining, topCallback);
             return;
         }
 
         //Step 2: Once you have a base where you can start, apply an expression
-        if (topExpression.charAt(0) == KEYWORD_PREFIX.charAt(0))
+        if (parsed.type == ParsedExpression.KEYWORD)
         {
             // A keyword means apply a command over the current source using an expression and the result must be
             // feedback into the algorithm.
 
-            String command = extractKeyword(topExpression, 1, separatorChar);
-            final String remaining =
-                    command.length()+1 < topExpression.length() ?
-                        topExpression.substring(1+command.length()+1) : null;
+            String command = parsed.step;
+            final String remaining = parsed.remaining;
 
             // If the keyword is @child, @composite, @form, @namingcontainer, @next, @none, @parent, @previous,
             // @root, @this ,  all commands change the source to be applied the action
@@ -434,18 +445,8 @@ public void invokeContextCallback(FacesContext facesContext, UIComponent target)
         {
 
             //Split expression into tokens and apply loop
-            String nextExpression = null;
-            String expression;
-            if (topExpression.indexOf(":@") > 0)
-            {
-                int idx = topExpression.indexOf(":@");
-                nextExpression = topExpression.substring(idx+1);
-                expression = topExpression.substring(0, idx);
-            }
-            else
-            {
-                expression = topExpression;
-            }
+            String nextExpression = parsed.remaining;
+            String expression = parsed.step;
 
             // Use findComponent(...) passing the expression provided
             UIComponent target = previous.findComponent(expression);
@@ -488,6 +489,11 @@ public void invokeContextCallback(FacesContext facesContext, UIComponent target)
                         if (target == null && !searchExpressionContext.getExpressionHints().contains(
                                 SearchExpressionHint.SKIP_VIRTUAL_COMPONENTS))
                         {
+                            if (topCallback instanceof RecordingCallback recordingCallback)
+                            {
+                                // the target only exists for the current row of the parent
+                                recordingCallback.setCacheable(false);
+                            }
                             contextClientId = parent.getClientId(facesContext);
                             // If no component is found,
                             String targetClientId = contextClientId.substring(0, startCommon+base.length()) +
@@ -612,22 +618,21 @@ public boolean isPassthroughExpression(SearchExpressionContext searchExpressionC
         //Step 1: find base
         //  Case ':' (root)
         char separatorChar = facesContext.getNamingContainerSeparatorChar();
-        if (topExpression.charAt(0) == separatorChar)
+        ParsedExpression parsed = parse(topExpression, separatorChar);
+        if (parsed.type == ParsedExpression.ROOT)
         {
             // only keywords are passthrough expressions.
             return false;
         }
 
         //Step 2: Once you have a base where you can start, apply an expression
-        if (topExpression.charAt(0) == KEYWORD_PREFIX.charAt(0))
+        if (parsed.type == ParsedExpression.KEYWORD)
         {
             // A keyword means apply a command over the current source using an expression and the result must be
             // feedback into the algorithm.
 
-            String command = extractKeyword(topExpression, 1, separatorChar);
-            final String remaining =
-                    command.length()+1 < topExpression.length() ?
-                        topExpression.substring(1+command.length()+1) : null;
+            String command = parsed.step;
+            final String remaining = parsed.remaining;
 
             final SearchExpressionHandler currentInstance =
                     facesContext.getApplication().getSearchExpressionHandler();
@@ -671,22 +676,21 @@ public boolean isValidExpression(SearchExpressionContext searchExpressionContext
         //Step 1: find base
         //  Case ':' (root)
         char separatorChar = facesContext.getNamingContainerSeparatorChar();
-        if (topExpression.charAt(0) == separatorChar)
+        ParsedExpression parsed = parse(topExpression, separatorChar);
+        if (parsed.type == ParsedExpression.ROOT)
         {
             return facesContext.getApplication().getSearchExpressionHandler().isValidExpression(
-                    searchExpressionContext, topExpression.substring(1));
+                    searchExpressionContext, parsed.remaining);
         }
 
         //Step 2: Once you have a base where you can start, apply an expression
-        if (topExpression.charAt(0) == KEYWORD_PREFIX.charAt(0))
+        if (parsed.type == ParsedExpression.KEYWORD)
         {
             // A keyword means apply a command over the current source using an expression and the result must be
             // feedback into the algorithm.
 
-            String command = extractKeyword(topExpression, 1, separatorChar);
-            final String remaining =
-                    command.length()+1 < topExpression.length() ?
-                        topExpression.substring(1+command.length()+1) : null;
+            String command = parsed.step;
+            final String remaining = parsed.remaining;
 
             final SearchExpressionHandler currentInstance =
                     facesContext.getApplication().getSearchExpressionHandler();
@@ -708,18 +712,8 @@ public boolean isValidExpression(SearchExpressionContext searchExpressionContext
         else
         {
             //Split expression into tokens and apply loop
-            String nextExpression = null;
-            String expression = null;
-            if (topExpression.indexOf(":@") > 0)
-            {
-                int idx = topExpression.indexOf(":@");
-                nextExpression = topExpression.substring(idx+1);
-                expression = topExpression.substring(0,idx);
-            }
-            else
-            {
-                expression = topExpression;
-            }
+            String nextExpression = parsed.remaining;
+            String expression = parsed.step;
 
             //Check expression
             for (int i = 0; i < expression.length(); i++)
@@ -791,11 +785,114 @@ private static String extractKeyword(String expression, int startIndex, char sep
     @Override
     public String[] splitExpressions(FacesContext context, String expressions)
     {
-        // split expressions by blank or comma (and ignore blank and commas inside brackets)
-        String[] splittedExpressions = split(context, expressions, EXPRESSION_SEPARATOR_CHARS);
+        String[] splittedExpressions = splitExpressionsCached(context, expressions);
+        return splittedExpressions == null ? null : splittedExpressions.clone();
+    }
+
+    private String[] splitExpressions(FacesContext context, SearchExpressionHandler handler, String expressions)
+    {
+        // the cached array is not exposed, so it is not copied
+        return handler == this
+                ? splitExpressionsCached(context, expressions)
+                : handler.splitExpressions(context, expressions);
+    }
+
+    private String[] splitExpressionsCached(FacesContext context, String expressions)
+    {
+        if (StringUtils.isBlank(expressions))
+        {
+            return null;
+        }
+
+        String[] splittedExpressions = splitExpressionsCache.get(expressions);
+        if (splittedExpressions == null)
+        {
+            // split expressions by blank or comma (and ignore blank and commas inside brackets)
+            splittedExpressions = split(context, expressions, EXPRESSION_SEPARATOR_CHARS);
+            splitExpressionsCache.put(expressions, splittedExpressions);
+        }
         return splittedExpressions;
     }
 
+    private ParsedExpression parse(String topExpression, char separatorChar)
+    {
+        ParsedExpression parsed = parsedExpressionCache.get(topExpression);
+        if (parsed == null)
+        {
+            parsed = new ParsedExpression(topExpression, separatorChar);
+            parsedExpressionCache.put(topExpression, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Invokes the callback on the components the expression resolves to from the source of the context. If all
+     * keywords of the expression are cacheable, the resolved components are remembered for the view and phase.
+     */
+    private void invokeOnSource(SearchExpressionContext searchExpressionContext, SearchExpressionHandler handler,
+            String expression, ContextCallback callback)
+    {
+        FacesContext facesContext = searchExpressionContext.getFacesContext();
+        UIComponent source = searchExpressionContext.getSource();
+        UIViewRoot viewRoot = facesContext.getViewRoot();
+
+        // a decorated handler could resolve the expression differently
+        if (handler != this || viewRoot == null || !isCacheable(searchExpressionContext, expression))
+        {
+            handler.invokeOnComponent(searchExpressionContext, source, expression, callback);
+            return;
+        }
+
+        ResolvedTargets resolvedTargets = ResolvedTargets.getInstance(facesContext, viewRoot);
+        TargetsKey key = new TargetsKey(source, expression, searchExpressionContext.getExpressionHints());
+        UIComponent[] targets = resolvedTargets.get(key);
+        if (targets != null)
+        {
+            for (UIComponent target : targets)
+            {
+                callback.invokeContextCallback(facesContext, target);
+            }
+            return;
+        }
+
+        RecordingCallback recordingCallback = new RecordingCallback(callback);
+        invokeOnComponent(searchExpressionContext, source, expression, recordingCallback);
+        // nothing found can still be found later, when the component is added in the same phase
+        if (recordingCallback.isCacheable() && recordingCallback.hasTargets())
+        {
+            resolvedTargets.put(key, recordingCallback.getTargets());
+        }
+    }
+
+    private boolean isCacheable(SearchExpressionContext searchExpressionContext, String expression)
+    {
+        FacesContext facesContext = searchExpressionContext.getFacesContext();
+        SearchKeywordResolver resolver = facesContext.getApplication().getSearchKeywordResolver();
+        if (!(resolver instanceof CacheableSearchKeywordResolver cacheableResolver))
+        {
+            return false;
+        }
+
+        char separatorChar = facesContext.getNamingContainerSeparatorChar();
+        String remaining = expression;
+        while (remaining != null)
+        {
+            remaining = remaining.trim();
+            if (remaining.isEmpty())
+            {
+                return false;
+            }
+            ParsedExpression parsed = parse(remaining, separatorChar);
+            if (parsed.type == ParsedExpression.KEYWORD
+                    && !cacheableResolver.isCacheable(searchExpressionContext, parsed.step))
+            {
+                return false;
+            }
+            remaining = parsed.remaining;
+        }
+        return true;
+    }
+
     private static String[] split(FacesContext context, String value, char... separators)
     {
         if (StringUtils.isBlank(value))
@@ -861,4 +958,197 @@ private static String[] split(FacesContext context, String value, char... separa
         return tokens.toArray(new String[tokens.size()]);
     }
 
-}
\ No newline at end of file
+    /**
+     * An expression split into its first step and the expression applied to the result of that step.
+     */
+    private static final class ParsedExpression
+    {
+        private static final int ROOT = 0;
+        private static final int KEYWORD = 1;
+        private static final int ID = 2;
+
+        private final int type;
+
+        /**
+         * The keyword without prefix, or the ids to find. Null for the root.
+         */
+        private final String step;
+
+        /**
+         * The expression to apply to the result of the step, or null.
+         */
+        private final String remaining;
+
+        private ParsedExpression(String topExpression, char separatorChar)
+        {
+            if (topExpression.charAt(0) == separatorChar)
+            {
+                type = ROOT;
+                step = null;
+                remaining = topExpression.substring(1);
+            }
+            else if (topExpression.charAt(0) == KEYWORD_PREFIX.charAt(0))
+            {
+                type = KEYWORD;
+                step = extractKeyword(topExpression, 1, separatorChar);
+                remaining = step.length() + 1 < topExpression.length()
+                        ? topExpression.substring(1 + step.length() + 1)
+                        : null;
+            }
+            else
+            {
+                type = ID;
+                int idx = topExpression.indexOf(":@");
+                if (idx > 0)
+                {
+                    step = topExpression.substring(0, idx);
+                    remaining = topExpression.substring(idx + 1);
+                }
+                else
+                {
+                    step = topExpression;
+                    remaining = null;
+                }
+            }
+        }
+    }
+
+    private static final class RecordingCallback implements ContextCallback
+    {
+        private final ContextCallback callback;
+        private final List<UIComponent> targets = new ArrayList<>(2);
+        private boolean cacheable = true;
+
+        private RecordingCallback(ContextCallback callback)
+        {
+            this.callback = callback;
+        }
+
+        @Override
+        public void invokeContextCallback(FacesContext context, UIComponent target)
+        {
+            targets.add(target);
+            callback.invokeContextCallback(context, target);
+        }
+
+        private UIComponent[] getTargets()
+        {
+            return targets.toArray(new UIComponent[targets.size()]);
+        }
+
+        private boolean hasTargets()
+        {
+            return !targets.isEmpty();
+        }
+
+        private boolean isCacheable()
+        {
+            return cacheable;
+        }
+
+        private void setCacheable(boolean cacheable)
+        {
+            this.cacheable = cacheable;
+        }
+    }
+
+    /**
+     * The components resolved in the current phase. The tree can change between phases, e.g. by an action, and
+     * it is built again on the next request, so nothing is kept longer.
+     */
+    private static final class ResolvedTargets
+    {
+        private final UIViewRoot viewRoot;
+        private final PhaseId phaseId;
+        private final Map<TargetsKey, UIComponent[]> targets = new HashMap<>();
+
+        private ResolvedTargets(UIViewRoot viewRoot, PhaseId phaseId)
+        {
+            this.viewRoot = viewRoot;
+            this.phaseId = phaseId;
+        }
+
+        private static ResolvedTargets getInstance(FacesContext facesContext, UIViewRoot viewRoot)
+        {
+            Map<Object, Object> attributes = facesContext.getAttributes();
+            ResolvedTargets resolvedTargets = (ResolvedTargets) attributes.get(RESOLVED_TARGETS);
+            PhaseId phaseId = facesContext.getCurrentPhaseId();
+            if (resolvedTargets == null || resolvedTargets.viewRoot != viewRoot || resolvedTargets.phaseId != phaseId)
+            {
+                resolvedTargets = new ResolvedTargets(viewRoot, phaseId);
+                attributes.put(RESOLVED_TARGETS, resolvedTargets);
+            }
+            return resolvedTargets;
+        }
+
+        private UIComponent[] get(TargetsKey key)
+        {
+            UIComponent[] resolved = targets.get(key);
+            if (resolved != null)
+            {
+                for (UIComponent target : resolved)
+                {
+                    if (target != null && !isInView(target))
+                    {
+                        // removed from the view in the meantime
+                        targets.remove(key);
+                        return null;
+                    }
+                }
+            }
+            return resolved;
+        }
+
+        private void put(TargetsKey key, UIComponent[] resolved)
+        {
+            targets.put(key, resolved);
+        }
+
+        private boolean isInView(UIComponent component)
+        {
+            while (component.getParent() != null)
+            {
+                component = component.getParent();
+            }
+            return component == viewRoot;
+        }
+    }
+
+    private static final class TargetsKey
+    {
+        private final UIComponent source;
+        private final String expression;
+        private final int hints;
+
+        private TargetsKey(UIComponent source, String expression, Set<SearchExpressionHint> expressionHints)
+        {
+            this.source = source;
+            this.expression = expression;
+
+            int mask = 0;
+            if (expressionHints != null)
+            {
+                for (SearchExpressionHint hint : expressionHints)
+                {
+                    mask |= 1 << hint.ordinal();
+                }
+            }
+            this.hints = mask;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof TargetsKey other
+                    && source == other.source
+                    && hints == other.hints
+                    && expression.equals(other.expression);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (System.identityHashCode(source) * 31 + expression.hashCode()) * 31 + hints;
+        }
+    }
+}
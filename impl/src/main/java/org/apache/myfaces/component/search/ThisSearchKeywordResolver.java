@@ -27,7 +27,7 @@
 /**
  *
  */
-public class ThisSearchKeywordResolver extends SearchKeywordResolver
+public class ThisSearchKeywordResolver extends SearchKeywordResolver implements CacheableSearchKeywordResolver
 {
     public static final String THIS_KEYWORD = "this";
 
@@ -54,4 +54,10 @@ public boolean isLeaf(SearchExpressionContext searchExpressionContext, String ke
     {
         return false;
     }
+
+    @Override
+    public boolean isCacheable(SearchExpressionContext searchExpressionContext, String keyword)
+    {
+        return true;
+    }
 }
@@ -70,6 +70,8 @@
 import jakarta.faces.render.RenderKitFactory;
 import jakarta.faces.validator.BeanValidator;
 import jakarta.faces.webapp.FacesServlet;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
 
 import org.apache.myfaces.application.ApplicationFactoryImpl;
 import org.apache.myfaces.application.BackwardsCompatibleNavigationHandlerWrapper;
@@ -753,6 +755,13 @@ else if (defaultBeanValidatorDisabled)
             }
         }
 
+        // bootstrap Bean Validation now, instead of in the first request which validates a value
+        if (application.getDefaultValidatorInfo().containsKey(BeanValidator.VALIDATOR_ID)
+                && ExternalSpecifications.isBeanValidationAvailable())
+        {
+            initValidatorFactory();
+        }
+
         for (Behavior behavior : dispenser.getBehaviors())
         {
             application.addBehavior(behavior.getBehaviorId(), behavior.getBehaviorClass());
@@ -781,6 +790,24 @@ else if (defaultBeanValidatorDisabled)
         this.setApplication(application);
     }
 
+    private void initValidatorFactory()
+    {
+        // in a Jakarta EE container, the container already provides the ValidatorFactory
+        Map<String, Object> applicationMap = _externalContext.getApplicationMap();
+        if (applicationMap.get(BeanValidator.VALIDATOR_FACTORY_KEY) instanceof ValidatorFactory)
+        {
+            return;
+        }
+        try
+        {
+            applicationMap.put(BeanValidator.VALIDATOR_FACTORY_KEY, Validation.buildDefaultValidatorFactory());
+        }
+        catch (Exception | LinkageError e)
+        {
+            log.log(Level.WARNING, "Could not bootstrap Bean Validation, it is bootstrapped again on first use", e);
+        }
+    }
+
     private void _callInjectAndPostConstruct(Object instance)
     {
         try
@@ -211,6 +211,46 @@
     public static final String VIEW_UNIQUE_IDS_CACHE_ENABLED = 
         "org.apache.myfaces.VIEW_UNIQUE_IDS_CACHE_ENABLED";
     private static final boolean VIEW_UNIQUE_IDS_CACHE_ENABLED_DEFAULT = true;
+
+    /**
+     * Maximum estimated heap size in kilobytes of the compiled facelets kept in the facelet cache. When the
+     * limit is reached, the least recently used facelets are discarded and compiled again on their next use.
+     * The size of a compiled facelet is estimated from the number of tags and the text length of its page.
+     * 0 (default) means unbounded.
+     */
+    @JSFWebConfigParam(defaultValue = "0", since = "5.0.0", group="viewhandler", tags="performance")
+    public static final String FACELETS_CACHE_MAX_SIZE = "org.apache.myfaces.FACELETS_CACHE_MAX_SIZE";
+    private static final long FACELETS_CACHE_MAX_SIZE_DEFAULT = 0;
+
+    /**
+     * Compile the facelets of all views and composite components on startup, so the first request of
+     * a view does not pay the compilation. The application only starts once all facelets are compiled.
+     * Only used if jakarta.faces.FACELETS_REFRESH_PERIOD is not 0 (no cache).
+     */
+    @JSFWebConfigParam(defaultValue = "false", since = "5.0.0", expectedValues = "true, false",
+            group="viewhandler", tags="performance")
+    public static final String FACELETS_PRECOMPILE = "org.apache.myfaces.FACELETS_PRECOMPILE";
+    private static final boolean FACELETS_PRECOMPILE_DEFAULT = false;
+
+    /**
+     * Regular expression the path of a facelet (e.g. /admin/users.xhtml) must match to be compiled on
+     * startup. By default all views and composite components are compiled.
+     */
+    @JSFWebConfigParam(since = "5.0.0", group="viewhandler", tags="performance")
+    public static final String FACELETS_PRECOMPILE_INCLUDES = "org.apache.myfaces.FACELETS_PRECOMPILE_INCLUDES";
+
+    /**
+     * Regular expression the path of a facelet must not match to be compiled on startup.
+     */
+    @JSFWebConfigParam(since = "5.0.0", group="viewhandler", tags="performance")
+    public static final String FACELETS_PRECOMPILE_EXCLUDES = "org.apache.myfaces.FACELETS_PRECOMPILE_EXCLUDES";
+
+    /**
+     * Number of threads compiling the facelets on startup. By default the number of available processors.
+     */
+    @JSFWebConfigParam(since = "5.0.0", group="viewhandler", tags="performance")
+    public static final String FACELETS_PRECOMPILE_THREADS = "org.apache.myfaces.FACELETS_PRECOMPILE_THREADS";
+    private static final int FACELETS_PRECOMPILE_THREADS_DEFAULT = 0;
     
     /**
      * Set the size of the cache used to store strings generated using SectionUniqueIdCounter
@@ -242,6 +282,29 @@
     public static final String EARLY_FLUSH_ENABLED =
         "org.apache.myfaces.EARLY_FLUSH_ENABLED";
     private static final boolean EARLY_FLUSH_ENABLED_DEFAULT = false;
+
+    /**
+     * Render UTF-8 views directly to the OutputStream of the response instead of its Writer. The static markup of
+     * the facelets is then encoded to UTF-8 only once and written as is, which saves much of the encoding work
+     * for template heavy pages.
+     * Only enable it if nothing else, e.g. a servlet filter, uses the Writer of the response while a view is
+     * rendered, as the Writer cannot be used anymore once the OutputStream is used. Ajax requests are always
+     * rendered to the Writer. Like early flush, this is only used in Production project stage.
+     */
+    @JSFWebConfigParam(defaultValue = "false", since = "5.0.0", expectedValues="true, false", group="render",
+            tags="performance")
+    public static final String PRE_ENCODED_OUTPUT_ENABLED = "org.apache.myfaces.PRE_ENCODED_OUTPUT_ENABLED";
+    private static final boolean PRE_ENCODED_OUTPUT_ENABLED_DEFAULT = false;
+
+    /**
+     * Maximum number of fragments rendered by ui:cache which are kept in the application, and in each session
+     * for fragments cached in session scope. The least recently used fragments are evicted first. Set to 0 to
+     * disable the cache, ui:cache then always renders its children.
+     */
+    @JSFWebConfigParam(defaultValue = "100", since = "5.0.0", group="render",
+            classType="java.lang.Integer", tags="performance")
+    public static final String FRAGMENT_CACHE_SIZE = "org.apache.myfaces.FRAGMENT_CACHE_SIZE";
+    private static final int FRAGMENT_CACHE_SIZE_DEFAULT = 100;
     
     /**
      * This param makes components like c:set, ui:param and templating components like ui:decorate,
@@ -392,6 +455,39 @@
     public static final String RESOURCE_HANDLER_CACHE_ENABLED = 
         "org.apache.myfaces.RESOURCE_HANDLER_CACHE_ENABLED";
     private static final boolean RESOURCE_HANDLER_CACHE_ENABLED_DEFAULT = true;
+
+    /**
+     * Number of resources whose content is kept in memory by the default ResourceHandler, together with
+     * its compressed variants and an ETag computed from the content. Resources bigger than
+     * org.apache.myfaces.RESOURCE_CONTENT_CACHE_MAX_RESOURCE_SIZE, and resources that may contain value
+     * expressions, like css, are always streamed. Set to 0 to disable the cache. The cache is never used in
+     * Development project stage.
+     */
+    @JSFWebConfigParam(defaultValue = "100", since = "5.0.0", group="resources",
+            classType="java.lang.Integer", tags="performance")
+    public static final String RESOURCE_CONTENT_CACHE_SIZE =
+        "org.apache.myfaces.RESOURCE_CONTENT_CACHE_SIZE";
+    private static final int RESOURCE_CONTENT_CACHE_SIZE_DEFAULT = 100;
+
+    /**
+     * Maximum size in KB of a resource kept in memory by the resource content cache. Bigger resources are
+     * streamed, directly from the file if org.apache.myfaces.TEMPORAL_RESOURCEHANDLER_CACHE_ENABLED is used.
+     */
+    @JSFWebConfigParam(defaultValue = "512", since = "5.0.0", group="resources",
+            classType="java.lang.Integer", tags="performance")
+    public static final String RESOURCE_CONTENT_CACHE_MAX_RESOURCE_SIZE =
+        "org.apache.myfaces.RESOURCE_CONTENT_CACHE_MAX_RESOURCE_SIZE";
+    private static final int RESOURCE_CONTENT_CACHE_MAX_RESOURCE_SIZE_DEFAULT = 512;
+
+    /**
+     * Send the cached resources compressed with gzip to user agents accepting it, or with brotli if the
+     * resource is shipped with a precompressed ".br" sibling file.
+     * Only used with org.apache.myfaces.RESOURCE_CONTENT_CACHE_SIZE.
+     */
+    @JSFWebConfigParam(defaultValue = "true", since = "5.0.0", group="resources",
+            expectedValues="true,false", tags="performance")
+    public static final String RESOURCE_COMPRESSION = "org.apache.myfaces.RESOURCE_COMPRESSION";
+    private static final boolean RESOURCE_COMPRESSION_DEFAULT = true;
     
     /**
      * Servlet context init parameter which defines which packages to scan
@@ -503,6 +599,32 @@
     public static final String COMPRESS_STATE_IN_SESSION = "org.apache.myfaces.COMPRESS_STATE_IN_SESSION";
     private static final boolean COMPRESS_STATE_IN_SESSION_DEFAULT = true;
     
+    public static final String VIEW_STATE_STORE_SESSION = "session";
+    public static final String VIEW_STATE_STORE_MEMORY = "memory";
+    public static final String VIEW_STATE_STORE_DISK = "disk";
+
+    /**
+     * Defines where the serialized view state is stored when state saving method is "server".
+     * 
+     * <p>With "session" (default) the whole state collection is stored as a session attribute. With "memory"
+     * or "disk" the session only holds a small index and the serialized views are kept in the heap or in a
+     * local directory of the current node, so session replication does not have to transfer the state.
+     * A class name of a custom org.apache.myfaces.application.viewstate.ViewStateStore is also accepted.
+     * Except "session", all options serialize the state, regardless of
+     * <code>jakarta.faces.SERIALIZE_SERVER_STATE</code>.</p>
+     */
+    @JSFWebConfigParam(since="5.0.0", defaultValue="session", expectedValues="session, memory, disk",
+            group="state", tags="performance")
+    public static final String VIEW_STATE_STORE = "org.apache.myfaces.VIEW_STATE_STORE";
+    private static final String VIEW_STATE_STORE_DEFAULT = VIEW_STATE_STORE_SESSION;
+
+    /**
+     * Directory used to store the serialized views when org.apache.myfaces.VIEW_STATE_STORE is "disk".
+     * By default a subdirectory of the servlet context temp dir is used.
+     */
+    @JSFWebConfigParam(since="5.0.0", group="state")
+    public static final String VIEW_STATE_STORE_DIRECTORY = "org.apache.myfaces.VIEW_STATE_STORE_DIRECTORY";
+    
     /**
      * Allow use flash scope to keep track of the views used in session and the previous ones,
      * so server side state saving can delete old views even if POST-REDIRECT-GET pattern is used.
@@ -800,9 +922,19 @@
     private boolean strictJsf2CCELResolver = STRICT_JSF_2_CC_EL_RESOLVER_DEFAULT;
     private String defaultResponseWriterContentTypeMode = DEFAULT_RESPONSE_WRITER_CONTENT_TYPE_MODE_DEFAULT;
     private boolean viewUniqueIdsCacheEnabled = VIEW_UNIQUE_IDS_CACHE_ENABLED_DEFAULT;
+    private long faceletsCacheMaxSize = FACELETS_CACHE_MAX_SIZE_DEFAULT;
+    private boolean faceletsPrecompile = FACELETS_PRECOMPILE_DEFAULT;
+    private int resourceContentCacheSize = RESOURCE_CONTENT_CACHE_SIZE_DEFAULT;
+    private int resourceContentCacheMaxResourceSize = RESOURCE_CONTENT_CACHE_MAX_RESOURCE_SIZE_DEFAULT;
+    private boolean resourceCompression = RESOURCE_COMPRESSION_DEFAULT;
+    private String faceletsPrecompileIncludes;
+    private String faceletsPrecompileExcludes;
+    private int faceletsPrecompileThreads = FACELETS_PRECOMPILE_THREADS_DEFAULT;
     private int componentUniqueIdsCacheSize = COMPONENT_UNIQUE_IDS_CACHE_SIZE_DEFAULT;
     private boolean strictJsf2ViewNotFound = STRICT_JSF_2_VIEW_NOT_FOUND_DEFAULT;
     private boolean earlyFlushEnabled = EARLY_FLUSH_ENABLED_DEFAULT;
+    private boolean preEncodedOutputEnabled = PRE_ENCODED_OUTPUT_ENABLED_DEFAULT;
+    private int fragmentCacheSize = FRAGMENT_CACHE_SIZE_DEFAULT;
     private boolean strictJsf2FaceletsCompatibility = STRICT_JSF_2_FACELETS_COMPATIBILITY_DEFAULT;
     private boolean renderFormViewStateAtBegin = RENDER_FORM_VIEW_STATE_AT_BEGIN_DEFAULT;
     private boolean flashScopeDisabled = FLASH_SCOPE_DISABLED_DEFAULT;
@@ -830,6 +962,8 @@
     private String randomKeyInCsrfSessionToken = RANDOM_KEY_IN_CSRF_SESSION_TOKEN_DEFAULT;
     private boolean serializeStateInSession = false;
     private boolean compressStateInSession = COMPRESS_STATE_IN_SESSION_DEFAULT;
+    private String viewStateStore = VIEW_STATE_STORE_DEFAULT;
+    private String viewStateStoreDirectory;
     private boolean useFlashScopePurgeViewsInSession = USE_FLASH_SCOPE_PURGE_VIEWS_IN_SESSION_DEFAULT;
     private boolean autocompleteOffViewState = AUTOCOMPLETE_OFF_VIEW_STATE_DEFAULT;
     private long resourceMaxTimeExpires = RESOURCE_MAX_TIME_EXPIRES_DEFAULT;
@@ -996,6 +1130,22 @@ else if (refreshTransientBuildOnPSS.equalsIgnoreCase("true") ||
 
         cfg.viewUniqueIdsCacheEnabled = getBoolean(extCtx, VIEW_UNIQUE_IDS_CACHE_ENABLED,
                 VIEW_UNIQUE_IDS_CACHE_ENABLED_DEFAULT);
+        cfg.faceletsCacheMaxSize = getLong(extCtx, FACELETS_CACHE_MAX_SIZE,
+                FACELETS_CACHE_MAX_SIZE_DEFAULT);
+        cfg.faceletsPrecompile = getBoolean(extCtx, FACELETS_PRECOMPILE,
+                FACELETS_PRECOMPILE_DEFAULT);
+        cfg.faceletsPrecompileIncludes = getString(extCtx, FACELETS_PRECOMPILE_INCLUDES,
+                null);
+        cfg.faceletsPrecompileExcludes = getString(extCtx, FACELETS_PRECOMPILE_EXCLUDES,
+                null);
+        cfg.faceletsPrecompileThreads = getInt(extCtx, FACELETS_PRECOMPILE_THREADS,
+                FACELETS_PRECOMPILE_THREADS_DEFAULT);
+        cfg.resourceContentCacheSize = getInt(extCtx, RESOURCE_CONTENT_CACHE_SIZE,
+                RESOURCE_CONTENT_CACHE_SIZE_DEFAULT);
+        cfg.resourceCompression = getBoolean(extCtx, RESOURCE_COMPRESSION,
+                RESOURCE_COMPRESSION_DEFAULT);
+        cfg.resourceContentCacheMaxResourceSize = getInt(extCtx, RESOURCE_CONTENT_CACHE_MAX_RESOURCE_SIZE,
+                RESOURCE_CONTENT_CACHE_MAX_RESOURCE_SIZE_DEFAULT);
 
         cfg.componentUniqueIdsCacheSize = getInt(extCtx, COMPONENT_UNIQUE_IDS_CACHE_SIZE, 
                 COMPONENT_UNIQUE_IDS_CACHE_SIZE_DEFAULT);
@@ -1010,6 +1160,15 @@ else if (refreshTransientBuildOnPSS.equalsIgnoreCase("true") ||
             cfg.earlyFlushEnabled = false;
         }
 
+        cfg.preEncodedOutputEnabled = getBoolean(extCtx, PRE_ENCODED_OUTPUT_ENABLED,
+                PRE_ENCODED_OUTPUT_ENABLED_DEFAULT);
+        if (cfg.projectStage != ProjectStage.Production)
+        {
+            cfg.preEncodedOutputEnabled = false;
+        }
+
+        cfg.fragmentCacheSize = getInt(extCtx, FRAGMENT_CACHE_SIZE, FRAGMENT_CACHE_SIZE_DEFAULT);
+
         cfg.strictJsf2FaceletsCompatibility = getBoolean(extCtx, STRICT_JSF_2_FACELETS_COMPATIBILITY, 
                 STRICT_JSF_2_FACELETS_COMPATIBILITY_DEFAULT);
         
@@ -1152,6 +1311,12 @@ else if (refreshTransientBuildOnPSS.equalsIgnoreCase("true") ||
         
         cfg.compressStateInSession = getBoolean(extCtx, COMPRESS_STATE_IN_SESSION,
                 COMPRESS_STATE_IN_SESSION_DEFAULT);
+
+        cfg.viewStateStore = getString(extCtx, VIEW_STATE_STORE,
+                VIEW_STATE_STORE_DEFAULT);
+
+        cfg.viewStateStoreDirectory = getString(extCtx, VIEW_STATE_STORE_DIRECTORY,
+                null);
         
         cfg.useFlashScopePurgeViewsInSession = getBoolean(extCtx, USE_FLASH_SCOPE_PURGE_VIEWS_IN_SESSION,
                 USE_FLASH_SCOPE_PURGE_VIEWS_IN_SESSION_DEFAULT);
@@ -1493,6 +1658,16 @@ public boolean isEarlyFlushEnabled()
         return earlyFlushEnabled;
     }
 
+    public boolean isPreEncodedOutputEnabled()
+    {
+        return preEncodedOutputEnabled;
+    }
+
+    public int getFragmentCacheSize()
+    {
+        return fragmentCacheSize;
+    }
+
     public boolean isStrictJsf2FaceletsCompatibility()
     {
         return strictJsf2FaceletsCompatibility;
@@ -1793,5 +1968,54 @@ public long getFaceletsRefreshPeriod()
         return faceletsRefreshPeriod;
     }
 
-}
+    public String getViewStateStore()
+    {
+        return viewStateStore;
+    }
+
+    public String getViewStateStoreDirectory()
+    {
+        return viewStateStoreDirectory;
+    }
+
+    public long getFaceletsCacheMaxSize()
+    {
+        return faceletsCacheMaxSize;
+    }
 
+    public boolean isFaceletsPrecompile()
+    {
+        return faceletsPrecompile;
+    }
+
+    public String getFaceletsPrecompileIncludes()
+    {
+        return faceletsPrecompileIncludes;
+    }
+
+    public String getFaceletsPrecompileExcludes()
+    {
+        return faceletsPrecompileExcludes;
+    }
+
+    public int getFaceletsPrecompileThreads()
+    {
+        return faceletsPrecompileThreads;
+    }
+
+    public int getResourceContentCacheSize()
+    {
+        return resourceContentCacheSize;
+    }
+
+    public boolean isResourceCompression()
+    {
+        return resourceCompression;
+    }
+
+    public int getResourceContentCacheMaxResourceSize()
+    {
+        return resourceContentCacheMaxResourceSize;
+    }
+
+}
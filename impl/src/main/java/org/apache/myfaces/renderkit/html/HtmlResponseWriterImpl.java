@@ -42,9 +42,11 @@
 import org.apache.myfaces.util.lang.StreamCharBuffer;
 import org.apache.myfaces.renderkit.html.util.HTML;
 import org.apache.myfaces.renderkit.html.util.HTMLEncoder;
+import org.apache.myfaces.renderkit.html.util.PreEncodedText;
+import org.apache.myfaces.renderkit.html.util.PreEncodedTextWriter;
 import org.apache.myfaces.core.api.shared.lang.Assert;
 
-public class HtmlResponseWriterImpl extends ResponseWriter
+public class HtmlResponseWriterImpl extends ResponseWriter implements PreEncodedTextWriter
 {
     private static final Logger log = Logger.getLogger(HtmlResponseWriterImpl.class.getName());
 
@@ -1021,6 +1023,28 @@ public void write(int c) throws IOException
         _currentWriter.write(c);
     }
 
+    @Override
+    public boolean isPreEncodedOutput()
+    {
+        // The UTF-8 bytes can only be used as is if the response is UTF-8 and the text is not buffered,
+        // as done for script and style content
+        return _isUTF8 && _currentWriter instanceof PreEncodedTextWriter writer && writer.isPreEncodedOutput();
+    }
+
+    @Override
+    public void writePreEncoded(PreEncodedText text) throws IOException
+    {
+        if (_isUTF8 && _currentWriter instanceof PreEncodedTextWriter writer)
+        {
+            closeStartTagIfNecessary();
+            writer.writePreEncoded(text);
+        }
+        else
+        {
+            write(text.getChars(), 0, text.length());
+        }
+    }
+
     @Override
     public void write(char[] cbuf) throws IOException
     {
@@ -37,6 +37,7 @@
 import org.apache.myfaces.renderkit.ClientBehaviorEvents;
 import org.apache.myfaces.renderkit.html.util.ResourceUtils;
 import org.apache.myfaces.renderkit.html.util.HTML;
+import org.apache.myfaces.view.facelets.component.UIDeferredRegion;
 
 /**
  * Renderer used by h:body component
@@ -144,6 +145,8 @@ public void encodeEnd(FacesContext facesContext, UIComponent component) throws I
     {
         super.encodeEnd(facesContext, component); //check for NP
 
+        UIDeferredRegion.encodeDeferredRegions(facesContext);
+
         ResponseWriter writer = facesContext.getResponseWriter();
         UIViewRoot root = facesContext.getViewRoot();
         // Perf: use indexes for iteration over children,
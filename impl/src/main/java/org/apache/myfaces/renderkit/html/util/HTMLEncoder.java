@@ -35,6 +35,113 @@
     private static final String SB_ENCODE_URI_QUERY = HTMLEncoder.class.getName() + "#SB_ENCODE_URI_QUERY";
     private static final String SB_ENCODE_PERCENT = HTMLEncoder.class.getName() + "#SB_ENCODE_PERCENT";
 
+    /**
+     * Characters below 0x80 that encode always replaces: the markup characters and the C0 control characters,
+     * except tab, newline and carriage return, which are dropped.
+     */
+    private static final boolean[] ENCODED_CHARS = new boolean[0x80];
+
+    /**
+     * Characters below 0x80 that encodeURIAttribute may have to replace, e.g. percent-encode.
+     */
+    private static final boolean[] URI_ATTRIBUTE_ENCODED_CHARS = new boolean[0x80];
+
+    static
+    {
+        for (int c = 0; c <= 0x1F; c++)
+        {
+            ENCODED_CHARS[c] = c != 0x09 && c != 0x0A && c != 0x0D;
+        }
+        for (char c : new char[] { '"', '&', '<', '>' })
+        {
+            ENCODED_CHARS[c] = true;
+        }
+
+        for (int c = 0; c <= 0x20; c++)
+        {
+            URI_ATTRIBUTE_ENCODED_CHARS[c] = true;
+        }
+        URI_ATTRIBUTE_ENCODED_CHARS[0x7F] = true;
+        for (char c : new char[] { '"', '<', '>', '\\', '^', '`', '{', '|', '}', '%', '?', '#' })
+        {
+            URI_ATTRIBUTE_ENCODED_CHARS[c] = true;
+        }
+    }
+
+    /**
+     * @return the index of the first character from start that encode would replace, or -1 if the string is
+     *         written as it is, which is by far the most common case, e.g. for ids and class names
+     */
+    private static int indexOfCharToEncode(String string, int start, int end, boolean encodeNewline,
+            boolean encodeSubsequentBlanksToNbsp, boolean encodeNonLatin)
+    {
+        // a blank at the beginning is encoded, as if preceded by another blank
+        char prevC = ' ';
+        for (int i = start; i < end; i++)
+        {
+            char c = string.charAt(i);
+            if (c < 0x80)
+            {
+                if (ENCODED_CHARS[c]
+                        || (c == ' ' && encodeSubsequentBlanksToNbsp && prevC == ' ')
+                        || (c == '\n' && encodeNewline))
+                {
+                    return i;
+                }
+            }
+            else if (encodeNonLatin && c > 0x80)
+            {
+                return i;
+            }
+            prevC = c;
+        }
+        return -1;
+    }
+
+    /**
+     * Variant of {@link #indexOfCharToEncode(String, int, int, boolean, boolean, boolean)} for a char array.
+     */
+    private static int indexOfCharToEncode(char[] string, int start, int end, boolean encodeNewline,
+            boolean encodeSubsequentBlanksToNbsp, boolean encodeNonLatin)
+    {
+        char prevC = ' ';
+        for (int i = start; i < end; i++)
+        {
+            char c = string[i];
+            if (c < 0x80)
+            {
+                if (ENCODED_CHARS[c]
+                        || (c == ' ' && encodeSubsequentBlanksToNbsp && prevC == ' ')
+                        || (c == '\n' && encodeNewline))
+                {
+                    return i;
+                }
+            }
+            else if (encodeNonLatin && c > 0x80)
+            {
+                return i;
+            }
+            prevC = c;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the first character encodeURIAttribute may replace, or -1 if the URI is written as it is
+     */
+    private static int indexOfCharToEncodeInURIAttribute(String string)
+    {
+        for (int i = 0; i < string.length(); i++)
+        {
+            char c = string.charAt(i);
+            if (c >= 0x80 || URI_ATTRIBUTE_ENCODED_CHARS[c])
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Variant of {@link #encode} where encodeNewline is false and encodeNbsp is true.
      * 
@@ -97,12 +204,20 @@ public static String encode(FacesContext context, String string,
             return "";
         }
 
-        StringBuilder sb = null;    //create later on demand
+        int length = string.length();
+        int i = indexOfCharToEncode(string, 0, length,
+                encodeNewline, encodeSubsequentBlanksToNbsp, encodeNonLatin);
+        if (i == -1)
+        {
+            return string;
+        }
+
+        StringBuilder sb = SharedStringBuilder.get(context, SB_ENCODE, length + 16);
+        int start = 0;
         String app;
-        char c = ' ';
+        char c = i > 0 ? string.charAt(i - 1) : ' ';
         char prevC;
-        int length = string.length();
-        for (int i = 0; i < length; ++i)
+        for (; i < length; ++i)
         {
             app = null;
             prevC = c;
@@ -170,29 +285,14 @@ else if (encodeNonLatin && (int)c > 0x80)
             }
             if (app != null)
             {
-                if (sb == null)
-                {
-                    sb = SharedStringBuilder.get(context, SB_ENCODE, string.substring(0, i));
-                }
+                sb.append(string, start, i);
                 sb.append(app);
-            }
-            else
-            {
-                if (sb != null)
-                {
-                    sb.append(c);
-                }
+                start = i + 1;
             }
         }
+        sb.append(string, start, length);
 
-        if (sb == null)
-        {
-            return string;
-        }
-        else
-        {
-            return sb.toString();
-        }
+        return sb.toString();
     }
     
     /**
@@ -255,12 +355,20 @@ public static void encode(Writer writer, String string,
             return;
         }
 
+        int length = string.length();
+        int i = indexOfCharToEncode(string, 0, length,
+                encodeNewline, encodeSubsequentBlanksToNbsp, encodeNonLatin);
+        if (i == -1)
+        {
+            writer.write(string);
+            return;
+        }
+
         int start = 0;
         String app;
-        char c = ' ';
+        char c = i > 0 ? string.charAt(i - 1) : ' ';
         char prevC;
-        int length = string.length();
-        for (int i = 0; i < length; ++i)
+        for (; i < length; ++i)
         {
             app = null;
             prevC = c;
@@ -425,12 +533,20 @@ public static void encode(char[] string, int offset, int length,
         offset = Math.max(0, offset);
         int realLength = Math.min(length, string.length - offset);
 
+        int i = indexOfCharToEncode(string, offset, offset + realLength,
+                encodeNewline, encodeSubsequentBlanksToNbsp, encodeNonLatin);
+        if (i == -1)
+        {
+            writer.write(string, offset, realLength);
+            return;
+        }
+
         String app;
-        char c = ' ';
+        char c = i > offset ? string[i - 1] : ' ';
         char prevC;
         int start = offset;
         
-        for (int i = offset; i < offset + realLength; ++i)
+        for (; i < offset + realLength; ++i)
         {
             app = null;
             prevC = c;
@@ -535,12 +651,18 @@ else if (start < offset+realLength)
     public static String encodeURIAttribute(FacesContext context, final String string, final String characterEncoding)
         throws IOException
     {
+        int i = indexOfCharToEncodeInURIAttribute(string);
+        if (i == -1)
+        {
+            return string;
+        }
+
         StringBuilder sb = null;    //create later on demand
         String app;
         char c;
         boolean endLoop = false;
         int length = string.length();
-        for (int i = 0; i < length; ++i)
+        for (; i < length; ++i)
         {
             app = null;
             c = string.charAt(i);
@@ -931,12 +1053,19 @@ else if (c == '&')
     public static void encodeURIAttribute(Writer writer, final String string, final String characterEncoding)
         throws IOException
     {
+        int i = indexOfCharToEncodeInURIAttribute(string);
+        if (i == -1)
+        {
+            writer.write(string);
+            return;
+        }
+
         int start = 0;
         String app;
         char c;
         boolean endLoop = false;
         int length = string.length();
-        for (int i = 0; i < length; ++i)
+        for (; i < length; ++i)
         {
             app = null;
             c = string.charAt(i);
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.renderkit.html.util;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Static markup, e.g. a literal of a compiled facelet, together with its UTF-8 bytes, so a
+ * {@link PreEncodedTextWriter} can write it to the response without encoding it for every request.
+ *
+ * <p>The bytes are only created on first use, so they don't take memory if the response is never written
+ * through a PreEncodedTextWriter.</p>
+ */
+public final class PreEncodedText implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private final char[] chars;
+    private transient volatile byte[] utf8;
+
+    public PreEncodedText(String text)
+    {
+        this.chars = text.toCharArray();
+    }
+
+    /**
+     * @return the characters of the text; the array is shared and must not be modified
+     */
+    public char[] getChars()
+    {
+        return chars;
+    }
+
+    public int length()
+    {
+        return chars.length;
+    }
+
+    /**
+     * @return the text encoded as UTF-8; the array is shared and must not be modified
+     */
+    public byte[] getUtf8()
+    {
+        byte[] bytes = utf8;
+        if (bytes == null)
+        {
+            bytes = new String(chars).getBytes(StandardCharsets.UTF_8);
+            utf8 = bytes;
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new String(chars);
+    }
+}
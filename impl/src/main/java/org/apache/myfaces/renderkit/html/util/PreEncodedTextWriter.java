@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.renderkit.html.util;
+
+import java.io.IOException;
+
+/**
+ * Implemented by a Writer or ResponseWriter which can write a {@link PreEncodedText} faster than its characters,
+ * e.g. by copying the UTF-8 bytes of the text to the response.
+ */
+public interface PreEncodedTextWriter
+{
+    /**
+     * Writes the text as is, like <code>write(text.getChars(), 0, text.length())</code>.
+     */
+    void writePreEncoded(PreEncodedText text) throws IOException;
+
+    /**
+     * @return true if {@link #writePreEncoded(PreEncodedText)} currently writes the UTF-8 bytes of the text, false if
+     *         it just writes its characters, so creating a PreEncodedText for the call would not pay off
+     */
+    boolean isPreEncodedOutput();
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.renderkit.html.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Writer which encodes characters as UTF-8 into an internal buffer, which is written to the given OutputStream, e.g.
+ * the ServletOutputStream of the response. The UTF-8 bytes of a {@link PreEncodedText} are copied as they are.
+ *
+ * <p>Malformed surrogates are written as '?', as done by an OutputStreamWriter. The buffer is only written to the
+ * OutputStream when it is full, on {@link #flushBuffer()} and on {@link #flush()}. Not thread-safe.</p>
+ */
+public final class Utf8OutputStreamWriter extends Writer implements PreEncodedTextWriter
+{
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count;
+    private char highSurrogate;
+
+    public Utf8OutputStreamWriter(OutputStream out)
+    {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public Utf8OutputStreamWriter(OutputStream out, int bufferSize)
+    {
+        if (bufferSize < 4)
+        {
+            throw new IllegalArgumentException("Buffer size cannot be less than 4");
+        }
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public boolean isPreEncodedOutput()
+    {
+        return true;
+    }
+
+    @Override
+    public void writePreEncoded(PreEncodedText text) throws IOException
+    {
+        if (highSurrogate != 0)
+        {
+            writeMalformed();
+        }
+
+        byte[] bytes = text.getUtf8();
+        if (bytes.length > buffer.length - count)
+        {
+            flushBuffer();
+            if (bytes.length >= buffer.length)
+            {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    @Override
+    public void write(int c) throws IOException
+    {
+        writeChar((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException
+    {
+        int end = off + len;
+        for (int i = off; i < end; i++)
+        {
+            char c = cbuf[i];
+            if (c < 0x80 && highSurrogate == 0)
+            {
+                if (count == buffer.length)
+                {
+                    flushBuffer();
+                }
+                buffer[count++] = (byte) c;
+            }
+            else
+            {
+                writeChar(c);
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException
+    {
+        int end = off + len;
+        for (int i = off; i < end; i++)
+        {
+            char c = str.charAt(i);
+            if (c < 0x80 && highSurrogate == 0)
+            {
+                if (count == buffer.length)
+                {
+                    flushBuffer();
+                }
+                buffer[count++] = (byte) c;
+            }
+            else
+            {
+                writeChar(c);
+            }
+        }
+    }
+
+    private void writeChar(char c) throws IOException
+    {
+        if (highSurrogate != 0)
+        {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c))
+            {
+                int codePoint = Character.toCodePoint(high, c);
+                ensureCapacity(4);
+                buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            writeMalformed();
+        }
+
+        if (c < 0x80)
+        {
+            ensureCapacity(1);
+            buffer[count++] = (byte) c;
+        }
+        else if (c < 0x800)
+        {
+            ensureCapacity(2);
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+        else if (Character.isHighSurrogate(c))
+        {
+            // wait for the low surrogate, which may come with the next write
+            highSurrogate = c;
+        }
+        else if (Character.isLowSurrogate(c))
+        {
+            writeMalformed();
+        }
+        else
+        {
+            ensureCapacity(3);
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void writeMalformed() throws IOException
+    {
+        highSurrogate = 0;
+        ensureCapacity(1);
+        buffer[count++] = '?';
+    }
+
+    private void ensureCapacity(int len) throws IOException
+    {
+        if (count + len > buffer.length)
+        {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the OutputStream, without flushing the OutputStream, which would commit the
+     * response.
+     */
+    public void flushBuffer() throws IOException
+    {
+        if (count > 0)
+        {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (highSurrogate != 0)
+        {
+            writeMalformed();
+        }
+        flushBuffer();
+        out.close();
+    }
+}
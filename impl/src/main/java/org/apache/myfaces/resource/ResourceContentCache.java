@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.faces.application.ProjectStage;
+import jakarta.faces.application.Resource;
+import jakarta.faces.context.FacesContext;
+
+import org.apache.myfaces.config.webparameters.MyfacesConfig;
+import org.apache.myfaces.util.lang.ConcurrentLRUCache;
+
+/**
+ * Caches the content of served resources in memory, together with a compressed variant and a strong ETag
+ * computed from the content, see {@link MyfacesConfig#RESOURCE_CONTENT_CACHE_SIZE}.
+ *
+ * <p>The gzip variant is computed once, when the resource is first served. A brotli variant is only served if
+ * the resource is shipped precompressed, as a sibling file with the ".br" suffix, because the JDK has no brotli
+ * encoder. Resources bigger than {@link MyfacesConfig#RESOURCE_CONTENT_CACHE_MAX_RESOURCE_SIZE} are not cached
+ * and still streamed on each request.</p>
+ *
+ * <p>The cache is disabled in Development project stage, where resources are expected to change.</p>
+ */
+public class ResourceContentCache
+{
+    private static final Logger log = Logger.getLogger(ResourceContentCache.class.getName());
+
+    public static final String GZIP = "gzip";
+    public static final String BROTLI = "br";
+
+    /**
+     * A compressed variant is only kept if it saves at least this ratio of the identity size.
+     */
+    private static final double MIN_COMPRESSION_GAIN = 0.1;
+
+    private final boolean enabled;
+    private final boolean compress;
+    private final int maxResourceSize;
+    private final ConcurrentLRUCache<String, Content> cache;
+
+    public ResourceContentCache(FacesContext facesContext)
+    {
+        MyfacesConfig config = MyfacesConfig.getCurrentInstance(facesContext);
+        int size = config.getResourceContentCacheSize();
+
+        this.enabled = size > 0 && !facesContext.isProjectStage(ProjectStage.Development);
+        this.compress = config.isResourceCompression();
+        this.maxResourceSize = config.getResourceContentCacheMaxResourceSize() * 1024;
+        this.cache = enabled ? new ConcurrentLRUCache<>((size * 4 + 3) / 3, size) : null;
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @param key identifies the served variant of the resource, e.g. its request path
+     * @return the cached content, or null if it is not loaded yet
+     */
+    public Content get(String key)
+    {
+        return cache.get(key);
+    }
+
+    /**
+     * Reads the resource, computes its ETag and compressed variants and caches them.
+     *
+     * @return the content, which is not {@link Content#isAvailable() available} if the resource is too big
+     *         to be cached
+     */
+    public Content load(String key, Resource resource, String contentType) throws IOException
+    {
+        byte[] identity;
+        try (InputStream in = resource.getInputStream())
+        {
+            if (in == null)
+            {
+                throw new FileNotFoundException(resource.getResourceName());
+            }
+            identity = in.readNBytes(maxResourceSize + 1);
+        }
+        if (identity.length > maxResourceSize)
+        {
+            // remember it, so the resource is not read twice on each request
+            cache.put(key, Content.UNAVAILABLE);
+            return Content.UNAVAILABLE;
+        }
+
+        byte[] gzip = null;
+        byte[] brotli = null;
+        if (compress && isCompressible(contentType))
+        {
+            gzip = worthIt(gzip(identity), identity);
+            brotli = worthIt(readPrecompressed(resource.getURL(), BROTLI, identity.length), identity);
+        }
+
+        Content content = new Content(identity, gzip, brotli, computeETag(identity));
+        cache.put(key, content);
+
+        if (log.isLoggable(Level.FINE))
+        {
+            log.fine("Cached content of resource " + key + ", " + identity.length + " bytes"
+                    + (gzip == null ? "" : ", gzip " + gzip.length + " bytes")
+                    + (brotli == null ? "" : ", br " + brotli.length + " bytes"));
+        }
+        return content;
+    }
+
+    static boolean isCompressible(String contentType)
+    {
+        if (contentType == null)
+        {
+            return false;
+        }
+        return contentType.startsWith("text/")
+                || contentType.startsWith("application/javascript")
+                || contentType.startsWith("application/json")
+                || contentType.startsWith("application/xml")
+                || contentType.startsWith("image/svg+xml");
+    }
+
+    /**
+     * Returns the best encoding the user agent accepts, from the ones available in the content, or null for the
+     * identity encoding.
+     */
+    static String negotiateEncoding(String acceptEncoding, Content content)
+    {
+        if (acceptEncoding == null || (content.brotli == null && content.gzip == null))
+        {
+            return null;
+        }
+        if (content.brotli != null && accepts(acceptEncoding, BROTLI))
+        {
+            return BROTLI;
+        }
+        if (content.gzip != null && accepts(acceptEncoding, GZIP))
+        {
+            return GZIP;
+        }
+        return null;
+    }
+
+    private static boolean accepts(String acceptEncoding, String encoding)
+    {
+        for (String coding : acceptEncoding.split(","))
+        {
+            String token = coding.trim();
+            String parameters = null;
+            int semicolon = token.indexOf(';');
+            if (semicolon >= 0)
+            {
+                parameters = token.substring(semicolon + 1).trim();
+                token = token.substring(0, semicolon).trim();
+            }
+            if (!token.equalsIgnoreCase(encoding) && !token.equals("*"))
+            {
+                continue;
+            }
+            if (parameters != null && parameters.startsWith("q="))
+            {
+                try
+                {
+                    return Double.parseDouble(parameters.substring(2).trim()) > 0;
+                }
+                catch (NumberFormatException e)
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks an If-None-Match header against the ETag of the content. As required for If-None-Match, the weak
+     * comparison is used, and the ETags of the compressed variants match as well.
+     */
+    static boolean matches(String ifNoneMatch, Content content)
+    {
+        if (ifNoneMatch == null || !content.isAvailable())
+        {
+            return false;
+        }
+        String opaque = content.etag.substring(1, content.etag.length() - 1);
+        for (String candidate : ifNoneMatch.split(","))
+        {
+            String tag = candidate.trim();
+            if (tag.equals("*"))
+            {
+                return true;
+            }
+            if (tag.startsWith("W/"))
+            {
+                tag = tag.substring(2);
+            }
+            if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"')
+            {
+                continue;
+            }
+            tag = tag.substring(1, tag.length() - 1);
+            if (tag.equals(opaque) || tag.equals(opaque + '-' + GZIP) || tag.equals(opaque + '-' + BROTLI))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] identity) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)
+        {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        })
+        {
+            gzip.write(identity);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] readPrecompressed(URL url, String suffix, int maxSize)
+    {
+        if (url == null)
+        {
+            return null;
+        }
+        try (InputStream in = new URL(url.toExternalForm() + '.' + suffix).openStream())
+        {
+            return in.readNBytes(maxSize);
+        }
+        catch (IOException e)
+        {
+            // no precompressed variant
+            return null;
+        }
+    }
+
+    private static byte[] worthIt(byte[] compressed, byte[] identity)
+    {
+        if (compressed == null || compressed.length > identity.length * (1 - MIN_COMPRESSION_GAIN))
+        {
+            return null;
+        }
+        return compressed;
+    }
+
+    private static String computeETag(byte[] identity)
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + '"';
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The cached content of a resource.
+     */
+    public static final class Content
+    {
+        private static final Content UNAVAILABLE = new Content(null, null, null, null);
+
+        private final byte[] identity;
+        private final byte[] gzip;
+        private final byte[] brotli;
+        private final String etag;
+
+        Content(byte[] identity, byte[] gzip, byte[] brotli, String etag)
+        {
+            this.identity = identity;
+            this.gzip = gzip;
+            this.brotli = brotli;
+            this.etag = etag;
+        }
+
+        /**
+         * @param encoding the content coding, or null for the identity
+         */
+        public byte[] getBytes(String encoding)
+        {
+            if (BROTLI.equals(encoding))
+            {
+                return brotli;
+            }
+            if (GZIP.equals(encoding))
+            {
+                return gzip;
+            }
+            return identity;
+        }
+
+        /**
+         * The strong ETag of the given variant. The compressed variants have a different representation, so
+         * their ETag has the encoding as suffix.
+         */
+        public String getETag(String encoding)
+        {
+            if (encoding == null)
+            {
+                return etag;
+            }
+            return etag.substring(0, etag.length() - 1) + '-' + encoding + '"';
+        }
+
+        /**
+         * @return false if the resource is too big to be cached and must be streamed
+         */
+        public boolean isAvailable()
+        {
+            return identity != null;
+        }
+
+        public boolean isCompressed()
+        {
+            return gzip != null || brotli != null;
+        }
+
+        public boolean matches(String ifNoneMatch)
+        {
+            return ResourceContentCache.matches(ifNoneMatch, this);
+        }
+
+        public String negotiateEncoding(String acceptEncoding)
+        {
+            return ResourceContentCache.negotiateEncoding(acceptEncoding, this);
+        }
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.myfaces.resource;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -78,6 +79,29 @@ public ResourceLoader getResourceLoader()
     {
         return _resourceLoader;
     }    
+
+    /**
+     * Returns the file holding the content of this resource, if it is cached in the temporal directory and
+     * sent unfiltered, so it can be sent with {@link java.nio.channels.FileChannel#transferTo}.
+     *
+     * @return the file, or null if the content must be read with {@link #getInputStream()}
+     */
+    public File getFile()
+    {
+        if (couldResourceContainValueExpressions())
+        {
+            return null;
+        }
+        if (_resourceLoader instanceof TempDirFileCacheResourceLoader loader)
+        {
+            return loader.getResourceFile(_resourceMeta);
+        }
+        if (_resourceLoader instanceof TempDirFileCacheContractResourceLoader loader)
+        {
+            return loader.getResourceFile(_resourceMeta);
+        }
+        return null;
+    }
     
     @Override
     public InputStream getInputStream() throws IOException
@@ -93,7 +117,11 @@ public InputStream getInputStream() throws IOException
         }
     }
     
-    private boolean couldResourceContainValueExpressions()
+    /**
+     * Returns true if the content is filtered through a {@link ValueExpressionFilterInputStream}, so it
+     * may depend on the request and must not be cached.
+     */
+    public boolean couldResourceContainValueExpressions()
     {
         if (_resourceMeta.couldResourceContainValueExpressions())
         {
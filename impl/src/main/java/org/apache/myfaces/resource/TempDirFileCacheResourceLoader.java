@@ -207,6 +207,21 @@ public InputStream getResourceInputStream(ResourceMeta resourceMeta)
         return getResourceInputStream(resourceMeta, null);
     }
 
+    /**
+     * Returns the temporal file holding the content of the resource, so it can be sent without copying it
+     * through the heap.
+     *
+     * @return the file, or null if the resource does not exist
+     */
+    public File getResourceFile(ResourceMeta resourceMeta)
+    {
+        if (resourceExists(resourceMeta))
+        {
+            return createOrGetTempFile(FacesContext.getCurrentInstance(), resourceMeta);
+        }
+        return null;
+    }
+
     @SuppressWarnings("unchecked")
     private File createOrGetTempFile(FacesContext facesContext, ResourceMeta resourceMeta)
     {
@@ -258,7 +273,7 @@ protected void createTemporalFileVersion(FacesContext facesContext, ResourceMeta
         target.delete();  // remove any existing file
 
         InputStream inputStream = null;
-        FileOutputStream fileOutputStream;
+        FileOutputStream fileOutputStream = null;
         try
         {
             /*
@@ -299,6 +314,17 @@ protected void createTemporalFileVersion(FacesContext facesContext, ResourceMeta
                     // Ignore
                 }
             }
+            if (fileOutputStream != null)
+            {
+                try
+                {
+                    fileOutputStream.close();
+                }
+                catch (IOException e)
+                {
+                    // Ignore
+                }
+            }
         }
     }
     
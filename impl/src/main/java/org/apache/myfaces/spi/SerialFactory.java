@@ -28,6 +28,20 @@
 
 public abstract class SerialFactory
 {
+    /**
+     * True if a subclass overrides toByteArray/toObject, but not the stream methods: its format is kept then.
+     */
+    private final boolean writesByteArray;
+    private final boolean readsByteArray;
+
+    protected SerialFactory()
+    {
+        writesByteArray = overridesByteArrayMethod("toByteArray", Object.class,
+                "writeObject", Object.class, OutputStream.class);
+        readsByteArray = overridesByteArrayMethod("toObject", byte[].class,
+                "readObject", InputStream.class);
+    }
+
     public byte[] toByteArray(Object object) throws IOException
     {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream())
@@ -53,7 +67,52 @@ public Object toObject(byte[] bytes) throws IOException, ClassNotFoundException
         }
     }
 
+    /**
+     * Writes the object to the given stream. The stream is flushed, but not closed.
+     */
+    public void writeObject(Object object, OutputStream outputStream) throws IOException
+    {
+        if (writesByteArray)
+        {
+            outputStream.write(toByteArray(object));
+            return;
+        }
+
+        ObjectOutputStream oos = getObjectOutputStream(outputStream);
+        oos.writeObject(object);
+        oos.flush();
+    }
+
+    /**
+     * Reads an object written by {@link #writeObject(Object, OutputStream)}.
+     */
+    public Object readObject(InputStream inputStream) throws IOException, ClassNotFoundException
+    {
+        if (readsByteArray)
+        {
+            return toObject(inputStream.readAllBytes());
+        }
+
+        ObjectInputStream ois = getObjectInputStream(inputStream);
+        return ois.readObject();
+    }
+
     protected abstract ObjectOutputStream getObjectOutputStream(OutputStream outputStream) throws IOException;
 
     protected abstract ObjectInputStream getObjectInputStream(InputStream inputStream) throws IOException;
+
+    private boolean overridesByteArrayMethod(String byteArrayMethod, Class<?> byteArrayParameter,
+            String streamMethod, Class<?>... streamParameters)
+    {
+        try
+        {
+            Class<?> byteArrayClass = getClass().getMethod(byteArrayMethod, byteArrayParameter).getDeclaringClass();
+            Class<?> streamClass = getClass().getMethod(streamMethod, streamParameters).getDeclaringClass();
+            return byteArrayClass != streamClass && streamClass.isAssignableFrom(byteArrayClass);
+        }
+        catch (NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,636 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.spi.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.myfaces.util.lang.ClassUtils;
+import org.apache.myfaces.util.lang.FastByteArrayInputStream;
+import org.apache.myfaces.util.lang.FastByteArrayOutputStream;
+import org.apache.myfaces.view.facelets.AttachedFullStateWrapper;
+
+/**
+ * {@link org.apache.myfaces.spi.SerialFactory} writing the component state with a compact tagged binary format
+ * instead of Java serialization.
+ *
+ * <p>The format covers the shapes produced by the partial state saving: Object arrays, Strings, boxed
+ * primitives, enums (e.g. PropertyKeys), HashMap/ArrayList and the attached state wrappers. Every String is
+ * written only once per state and later referenced by its index. An array, collection or wrapper occurring more
+ * than once is written once and then referenced by its handle, so shared references and cycles are kept as with
+ * Java serialization. The whole format is written to the ObjectOutputStream of {@link #getObjectOutputStream}:
+ * an enum is written as its class, with writeObject, and its name, and any other object, e.g. a class, is
+ * written with writeObject. So all classes are read with the same class resolution and serial filter as
+ * Java serialization.</p>
+ *
+ * <p>Data written by Java serialization (e.g. a state saved before this factory was configured) is detected
+ * and still read.</p>
+ *
+ * <p>Enable it with the <code>org.apache.myfaces.SERIAL_FACTORY</code> init parameter.</p>
+ */
+public class BinarySerialFactory extends DefaultSerialFactory
+{
+    private static final Logger log = Logger.getLogger(BinarySerialFactory.class.getName());
+
+    private static final int MAGIC = 0x4D;
+    private static final int VERSION = 3;
+
+    private static final int NULL = 0;
+    private static final int OBJECT_ARRAY = 1;
+    private static final int STRING = 2;
+    private static final int STRING_REF = 3;
+    private static final int TRUE = 4;
+    private static final int FALSE = 5;
+    private static final int INTEGER = 6;
+    private static final int LONG = 7;
+    private static final int SHORT = 8;
+    private static final int BYTE = 9;
+    private static final int CHARACTER = 10;
+    private static final int FLOAT = 11;
+    private static final int DOUBLE = 12;
+    private static final int HASH_MAP = 13;
+    private static final int ARRAY_LIST = 14;
+    private static final int FULL_STATE_WRAPPER = 15;
+    private static final int WRAPPER = 16;
+    private static final int JAVA = 17;
+    private static final int REFERENCE = 18;
+    private static final int ENUM = 19;
+
+    /**
+     * The package private state wrappers of the API, accessed through reflection.
+     */
+    private static final String[] WRAPPER_CLASS_NAMES = {
+        "jakarta.faces.component._AttachedStateWrapper",
+        "jakarta.faces.component._AttachedDeltaWrapper",
+        "jakarta.faces.component.behavior._AttachedStateWrapper",
+        "jakarta.faces.component.behavior._AttachedDeltaWrapper"
+    };
+
+    private final Map<Class<?>, Integer> wrapperIndexes = new HashMap<>();
+    private final List<WrapperAccessor> wrappers = new ArrayList<>();
+
+    public BinarySerialFactory()
+    {
+        for (String className : WRAPPER_CLASS_NAMES)
+        {
+            try
+            {
+                Class<?> clazz = ClassUtils.classForName(className);
+                WrapperAccessor accessor = new WrapperAccessor(clazz);
+                wrapperIndexes.put(clazz, wrappers.size());
+                wrappers.add(accessor);
+            }
+            catch (ClassNotFoundException | NoSuchMethodException | RuntimeException e)
+            {
+                // wrapper is written with Java serialization then
+                log.log(Level.FINE, "Cannot access " + className, e);
+            }
+        }
+    }
+
+    @Override
+    public byte[] toByteArray(Object object) throws IOException
+    {
+        FastByteArrayOutputStream baos = new FastByteArrayOutputStream(1024);
+        write(object, baos);
+        return Arrays.copyOf(baos.getByteArray(), baos.getSize());
+    }
+
+    @Override
+    public Object toObject(byte[] bytes) throws IOException, ClassNotFoundException
+    {
+        return read(new FastByteArrayInputStream(bytes));
+    }
+
+    @Override
+    public void writeObject(Object object, OutputStream outputStream) throws IOException
+    {
+        write(object, outputStream);
+    }
+
+    @Override
+    public Object readObject(InputStream inputStream) throws IOException, ClassNotFoundException
+    {
+        return read(inputStream);
+    }
+
+    private void write(Object object, OutputStream outputStream) throws IOException
+    {
+        outputStream.write(MAGIC);
+        outputStream.write(VERSION);
+        ObjectOutputStream oos = getObjectOutputStream(outputStream);
+        new Writer(oos).write(object);
+        oos.flush();
+    }
+
+    private Object read(InputStream inputStream) throws IOException, ClassNotFoundException
+    {
+        int magic = inputStream.read();
+        if (magic != MAGIC)
+        {
+            // not written by us, e.g. Java serialization with its 0xACED header
+            PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, 1);
+            if (magic != -1)
+            {
+                pushbackInputStream.unread(magic);
+            }
+            return getObjectInputStream(pushbackInputStream).readObject();
+        }
+        if (inputStream.read() != VERSION)
+        {
+            throw new StreamCorruptedException("Unsupported state version");
+        }
+        return new Reader(getObjectInputStream(inputStream)).read();
+    }
+
+    private final class Writer
+    {
+        private final ObjectOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<Object, Integer> handles = new IdentityHashMap<>();
+
+        Writer(ObjectOutputStream out)
+        {
+            this.out = out;
+        }
+
+        void write(Object value) throws IOException
+        {
+            if (value == null)
+            {
+                out.write(NULL);
+                return;
+            }
+
+            Class<?> clazz = value.getClass();
+            if (clazz == String.class)
+            {
+                writeString((String) value);
+            }
+            else if (clazz == Boolean.class)
+            {
+                out.write(((Boolean) value) ? TRUE : FALSE);
+            }
+            else if (clazz == Integer.class)
+            {
+                out.write(INTEGER);
+                writeVarLong(zigZag((Integer) value));
+            }
+            else if (clazz == Long.class)
+            {
+                out.write(LONG);
+                writeVarLong(zigZag((Long) value));
+            }
+            else if (clazz == Short.class)
+            {
+                out.write(SHORT);
+                writeVarLong(zigZag((Short) value));
+            }
+            else if (clazz == Byte.class)
+            {
+                out.write(BYTE);
+                out.write((Byte) value);
+            }
+            else if (clazz == Character.class)
+            {
+                out.write(CHARACTER);
+                writeVarInt((Character) value);
+            }
+            else if (clazz == Float.class)
+            {
+                out.write(FLOAT);
+                writeFixed(Float.floatToIntBits((Float) value), 4);
+            }
+            else if (clazz == Double.class)
+            {
+                out.write(DOUBLE);
+                writeFixed(Double.doubleToLongBits((Double) value), 8);
+            }
+            else if (clazz == Object[].class || clazz == HashMap.class || clazz == ArrayList.class
+                    || clazz == AttachedFullStateWrapper.class || wrapperIndexes.containsKey(clazz))
+            {
+                Integer handle = handles.get(value);
+                if (handle != null)
+                {
+                    out.write(REFERENCE);
+                    writeVarInt(handle);
+                    return;
+                }
+                handles.put(value, handles.size());
+                writeShared(value, clazz);
+            }
+            else if (value instanceof Enum)
+            {
+                Enum<?> constant = (Enum<?>) value;
+                out.write(ENUM);
+                out.writeObject(constant.getDeclaringClass());
+                writeString(constant.name());
+            }
+            else
+            {
+                out.write(JAVA);
+                out.writeObject(value);
+            }
+        }
+
+        private void writeShared(Object value, Class<?> clazz) throws IOException
+        {
+            if (clazz == Object[].class)
+            {
+                Object[] array = (Object[]) value;
+                out.write(OBJECT_ARRAY);
+                writeVarInt(array.length);
+                for (Object item : array)
+                {
+                    write(item);
+                }
+            }
+            else if (clazz == HashMap.class)
+            {
+                Map<?, ?> map = (Map<?, ?>) value;
+                out.write(HASH_MAP);
+                writeVarInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet())
+                {
+                    write(entry.getKey());
+                    write(entry.getValue());
+                }
+            }
+            else if (clazz == ArrayList.class)
+            {
+                List<?> list = (List<?>) value;
+                out.write(ARRAY_LIST);
+                writeVarInt(list.size());
+                for (int i = 0, size = list.size(); i < size; i++)
+                {
+                    write(list.get(i));
+                }
+            }
+            else if (clazz == AttachedFullStateWrapper.class)
+            {
+                out.write(FULL_STATE_WRAPPER);
+                write(((AttachedFullStateWrapper) value).getWrappedStateObject());
+            }
+            else
+            {
+                int index = wrapperIndexes.get(clazz);
+                WrapperAccessor accessor = wrappers.get(index);
+                out.write(WRAPPER);
+                out.write(index);
+                write(accessor.getClazz(value));
+                write(accessor.getWrappedStateObject(value));
+            }
+        }
+
+        private void writeString(String value) throws IOException
+        {
+            Integer index = strings.get(value);
+            if (index != null)
+            {
+                out.write(STRING_REF);
+                writeVarInt(index);
+                return;
+            }
+
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.write(STRING);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException
+        {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) throws IOException
+        {
+            while ((value & ~0x7FL) != 0)
+            {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        private void writeFixed(long value, int bytes) throws IOException
+        {
+            for (int i = bytes - 1; i >= 0; i--)
+            {
+                out.write((int) (value >>> (i * 8)));
+            }
+        }
+
+        private long zigZag(long value)
+        {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    private final class Reader
+    {
+        private final ObjectInputStream in;
+        private final List<String> strings = new ArrayList<>();
+        /**
+         * The arrays, collections and wrappers read so far; null for a wrapper not completely read yet
+         */
+        private final List<Object> handles = new ArrayList<>();
+
+        Reader(ObjectInputStream in)
+        {
+            this.in = in;
+        }
+
+        Object read() throws IOException, ClassNotFoundException
+        {
+            int tag = readByte();
+            switch (tag)
+            {
+                case NULL:
+                    return null;
+                case OBJECT_ARRAY:
+                {
+                    Object[] array = new Object[readVarInt()];
+                    handles.add(array);
+                    for (int i = 0; i < array.length; i++)
+                    {
+                        array[i] = read();
+                    }
+                    return array;
+                }
+                case STRING:
+                case STRING_REF:
+                    return readString(tag);
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case INTEGER:
+                    return (int) unZigZag(readVarLong());
+                case LONG:
+                    return unZigZag(readVarLong());
+                case SHORT:
+                    return (short) unZigZag(readVarLong());
+                case BYTE:
+                    return (byte) readByte();
+                case CHARACTER:
+                    return (char) readVarInt();
+                case FLOAT:
+                    return Float.intBitsToFloat((int) readFixed(4));
+                case DOUBLE:
+                    return Double.longBitsToDouble(readFixed(8));
+                case HASH_MAP:
+                {
+                    int size = readVarInt();
+                    HashMap<Object, Object> map = new HashMap<>((int) (size / 0.75f) + 1);
+                    handles.add(map);
+                    for (int i = 0; i < size; i++)
+                    {
+                        map.put(read(), read());
+                    }
+                    return map;
+                }
+                case ARRAY_LIST:
+                {
+                    int size = readVarInt();
+                    ArrayList<Object> list = new ArrayList<>(size);
+                    handles.add(list);
+                    for (int i = 0; i < size; i++)
+                    {
+                        list.add(read());
+                    }
+                    return list;
+                }
+                case FULL_STATE_WRAPPER:
+                {
+                    // the wrapper is created after its content, so reserve its handle first
+                    int handle = handles.size();
+                    handles.add(null);
+                    Object wrapper = new AttachedFullStateWrapper(read());
+                    handles.set(handle, wrapper);
+                    return wrapper;
+                }
+                case WRAPPER:
+                {
+                    int handle = handles.size();
+                    handles.add(null);
+                    int index = readByte();
+                    if (index >= wrappers.size())
+                    {
+                        throw new StreamCorruptedException("Unknown state wrapper " + index);
+                    }
+                    Object clazz = read();
+                    if (clazz != null && !(clazz instanceof Class))
+                    {
+                        throw new StreamCorruptedException("Class expected for state wrapper " + index);
+                    }
+                    Object wrapper = wrappers.get(index).newInstance((Class<?>) clazz, read());
+                    handles.set(handle, wrapper);
+                    return wrapper;
+                }
+                case ENUM:
+                    return readEnum();
+                case JAVA:
+                    return in.readObject();
+                case REFERENCE:
+                {
+                    int handle = readVarInt();
+                    Object value = handle >= 0 && handle < handles.size() ? handles.get(handle) : null;
+                    if (value == null)
+                    {
+                        throw new StreamCorruptedException("Invalid reference " + handle);
+                    }
+                    return value;
+                }
+                default:
+                    throw new StreamCorruptedException("Unknown state tag " + tag);
+            }
+        }
+
+        private Object readEnum() throws IOException, ClassNotFoundException
+        {
+            Object clazz = in.readObject();
+            if (!(clazz instanceof Class) || !((Class<?>) clazz).isEnum())
+            {
+                throw new StreamCorruptedException("Enum class expected, found " + clazz);
+            }
+            String name = readString(readByte());
+            for (Object constant : ((Class<?>) clazz).getEnumConstants())
+            {
+                if (((Enum<?>) constant).name().equals(name))
+                {
+                    return constant;
+                }
+            }
+            throw new InvalidObjectException("No enum constant " + ((Class<?>) clazz).getName() + "." + name);
+        }
+
+        private String readString(int tag) throws IOException
+        {
+            if (tag == STRING_REF)
+            {
+                int index = readVarInt();
+                if (index >= strings.size())
+                {
+                    throw new StreamCorruptedException("Unknown string reference " + index);
+                }
+                return strings.get(index);
+            }
+            if (tag != STRING)
+            {
+                throw new StreamCorruptedException("String expected, found tag " + tag);
+            }
+            String value = new String(readBytes(readVarInt()), StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        private byte[] readBytes(int length) throws IOException
+        {
+            if (length < 0)
+            {
+                throw new StreamCorruptedException("Invalid length " + length);
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        private int readByte() throws IOException
+        {
+            return in.readUnsignedByte();
+        }
+
+        private int readVarInt() throws IOException
+        {
+            return (int) readVarLong();
+        }
+
+        private long readVarLong() throws IOException
+        {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7)
+            {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Malformed variable length number");
+        }
+
+        private long readFixed(int bytes) throws IOException
+        {
+            long value = 0;
+            for (int i = 0; i < bytes; i++)
+            {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        private long unZigZag(long value)
+        {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+
+    private static final class WrapperAccessor
+    {
+        private final Constructor<?> constructor;
+        private final Method getWrappedStateObject;
+        private final Method getClazz;
+
+        WrapperAccessor(Class<?> clazz) throws NoSuchMethodException
+        {
+            constructor = clazz.getDeclaredConstructor(Class.class, Object.class);
+            constructor.setAccessible(true);
+            getWrappedStateObject = clazz.getDeclaredMethod("getWrappedStateObject");
+            getWrappedStateObject.setAccessible(true);
+
+            Method method;
+            try
+            {
+                method = clazz.getDeclaredMethod("getClazz");
+                method.setAccessible(true);
+            }
+            catch (NoSuchMethodException e)
+            {
+                // delta wrappers do not keep the class
+                method = null;
+            }
+            getClazz = method;
+        }
+
+        Object getClazz(Object wrapper) throws IOException
+        {
+            return getClazz == null ? null : invoke(getClazz, wrapper);
+        }
+
+        Object getWrappedStateObject(Object wrapper) throws IOException
+        {
+            return invoke(getWrappedStateObject, wrapper);
+        }
+
+        Object newInstance(Class<?> clazz, Object wrappedStateObject) throws IOException
+        {
+            try
+            {
+                return constructor.newInstance(clazz, wrappedStateObject);
+            }
+            catch (InstantiationException | IllegalAccessException | InvocationTargetException e)
+            {
+                throw new IOException(e);
+            }
+        }
+
+        private Object invoke(Method method, Object wrapper) throws IOException
+        {
+            try
+            {
+                return method.invoke(wrapper);
+            }
+            catch (IllegalAccessException | InvocationTargetException e)
+            {
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -110,6 +110,49 @@ public void reset()
         this.size = 0;
     }
 
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return the index of the first occurrence of str in the buffered content at or after fromIndex, or -1
+     */
+    public int indexOf(String str, int fromIndex)
+    {
+        int len = str.length();
+        if (len == 0)
+        {
+            return fromIndex <= this.size ? fromIndex : -1;
+        }
+        char first = str.charAt(0);
+        int max = this.size - len;
+        for (int i = Math.max(fromIndex, 0); i <= max; i++)
+        {
+            if (this.buff[i] == first)
+            {
+                int j = 1;
+                while (j < len && this.buff[i + j] == str.charAt(j))
+                {
+                    j++;
+                }
+                if (j == len)
+                {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes a part of the buffered content to the given writer, without creating a String of it.
+     */
+    public void writeTo(Writer out, int off, int len) throws IOException
+    {
+        out.write(this.buff, off, len);
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.util.lang;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.faces.FacesException;
+
+/**
+ * Creates a {@link Supplier} which invokes the no-arg constructor of a class, e.g. of a component registered in the
+ * Application.
+ *
+ * <p>The supplier is generated via {@link LambdaMetafactory}, so creating an instance costs the same as a plain
+ * <code>new</code>. Like reflection, this requires a public class with a public no-arg constructor. If the lambda
+ * cannot be generated, e.g. in a native image, the supplier invokes the constructor reflectively, which is still
+ * cheaper than Class#newInstance as the constructor is only looked up once.</p>
+ */
+public class InstanceSuppliers
+{
+    private static final Logger log = Logger.getLogger(InstanceSuppliers.class.getName());
+
+    public static <T> Supplier<T> create(Class<T> clazz)
+    {
+        if (!Modifier.isAbstract(clazz.getModifiers()) && !clazz.isInterface())
+        {
+            try
+            {
+                return createLambda(clazz);
+            }
+            catch (Throwable e)
+            {
+                if (log.isLoggable(Level.FINE))
+                {
+                    log.log(Level.FINE, "Could not create a lambda for the constructor of " + clazz.getName()
+                            + ", using reflection", e);
+                }
+            }
+        }
+        return createReflective(clazz);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> createLambda(Class<T> clazz) throws Throwable
+    {
+        // the private lookup is required by the LambdaMetafactory, but must not grant more than reflection would:
+        // getConstructor() only finds a public constructor
+        clazz.getConstructor();
+        if (!Modifier.isPublic(clazz.getModifiers()))
+        {
+            throw new IllegalAccessException(clazz.getName() + " is not public");
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+        MethodHandle constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+        CallSite callSite = LambdaMetafactory.metafactory(lookup,
+                "get",
+                MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class),
+                constructor,
+                MethodType.methodType(clazz));
+        return (Supplier<T>) callSite.getTarget().invokeExact();
+    }
+
+    public static <T> Supplier<T> createReflective(Class<T> clazz)
+    {
+        Constructor<T> constructor;
+        try
+        {
+            constructor = clazz.getConstructor();
+        }
+        catch (NoSuchMethodException | SecurityException e)
+        {
+            // fail on each call, as Class#newInstance did
+            return () ->
+            {
+                throw new FacesException("Could not instantiate " + clazz.getName(), e);
+            };
+        }
+
+        return () ->
+        {
+            try
+            {
+                return constructor.newInstance();
+            }
+            catch (InvocationTargetException e)
+            {
+                if (e.getCause() instanceof RuntimeException runtimeException)
+                {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error)
+                {
+                    throw error;
+                }
+                throw new FacesException(e.getCause());
+            }
+            catch (ReflectiveOperationException e)
+            {
+                throw new FacesException("Could not instantiate " + clazz.getName(), e);
+            }
+        };
+    }
+}
@@ -92,6 +92,7 @@
 
 import org.apache.myfaces.config.RuntimeConfig;
 import org.apache.myfaces.config.webparameters.MyfacesConfig;
+import org.apache.myfaces.renderkit.html.util.Utf8OutputStreamWriter;
 import org.apache.myfaces.application.ViewIdSupport;
 import org.apache.myfaces.util.lang.StringUtils;
 import org.apache.myfaces.component.visit.MyFacesVisitHints;
@@ -190,13 +191,14 @@ public class FaceletViewDeclarationLanguage extends FaceletViewDeclarationLangua
 
     public final static String CLEAN_TRANSIENT_BUILD_ON_RESTORE
             = "org.apache.myfaces.CLEAN_TRANSIENT_BUILD_ON_RESTORE";
-
-    private final static String STATE_KEY = "<!--@@JSF_FORM_STATE_MARKER@@-->";
-
-    private final static int STATE_KEY_LEN = STATE_KEY.length();
     
     private static final String SERIALIZED_VIEW_REQUEST_ATTR = 
         StateManagerImpl.class.getName() + ".SERIALIZED_VIEW";
+
+    /**
+     * The Utf8OutputStreamWriter on the response OutputStream, if createResponseWriter used one
+     */
+    private static final String UTF8_OUTPUT_WRITER_ATTR = Utf8OutputStreamWriter.class.getName();
     
     /**
      * Key used to cache component ids for the counter
@@ -1746,7 +1748,13 @@ public void renderView(FacesContext context, UIViewRoot view) throws IOException
             }
 
             ExternalContext extContext = context.getExternalContext();
-            Writer outputWriter = extContext.getResponseOutputWriter();
+            // The Writer the ResponseWriter was created with, if it is on the OutputStream, as the Writer of the
+            // response cannot be used then
+            Writer outputWriter = (Writer) context.getAttributes().remove(UTF8_OUTPUT_WRITER_ATTR);
+            if (outputWriter == null)
+            {
+                outputWriter = extContext.getResponseOutputWriter();
+            }
 
             StateWriter stateWriter = new StateWriter(outputWriter, 1024, context);
             try
@@ -1796,56 +1804,21 @@ public void renderView(FacesContext context, UIViewRoot view) throws IOException
                         // ResponseWriter. ..."
                         writer.flush();
 
-                        // =-= markoc: STATE_KEY is in output ONLY if 
+                        // =-= markoc: the state marker is in output ONLY if 
                         // stateManager.isSavingStateInClient(context)is true - see
                         // org.apache.myfaces.application.ViewHandlerImpl.writeState(FacesContext)
-                        // TODO this class and ViewHandlerImpl contain same constant <!--@@JSF_FORM_STATE_MARKER@@-->
                         Object stateObj = sms.saveView(context);
-                        String content = stateWriter.getAndResetBuffer();
-                        int end = content.indexOf(STATE_KEY);
-                        // See if we can find any trace of the saved state.
-                        // If so, we need to perform token replacement
-                        if (end >= 0)
+                        // The buffered content is written segment by segment with the state at each marker,
+                        // without turning the whole buffer into a String first.
+                        stateWriter.writeBufferedContent(origWriter, () ->
                         {
-                            // save state
-                            int start = 0;
-
-                            while (end != -1)
+                            // For a transient view state saving is forced, otherwise
+                            // there is no state to write if saveView returned null.
+                            if (view.isTransient() || stateObj != null)
                             {
-                                origWriter.write(content, start, end - start);
-                                
-                                String stateStr;
-                                if (view.isTransient())
-                                {
-                                    // Force state saving
-                                    stateMgr.writeState(context, stateObj);
-                                    stateStr = stateWriter.getAndResetBuffer();
-                                }
-                                else if (stateObj == null)
-                                {
-                                    stateStr = null;
-                                }
-                                else
-                                {
-                                    stateMgr.writeState(context, stateObj);
-                                    stateStr = stateWriter.getAndResetBuffer();
-                                }                                
-                                
-                                if (stateStr != null)
-                                {
-                                    origWriter.write(stateStr);
-                                }
-                                start = end + STATE_KEY_LEN;
-                                end = content.indexOf(STATE_KEY, start);
+                                stateMgr.writeState(context, stateObj);
                             }
-
-                            origWriter.write(content, start, content.length() - start);
-                            // No trace of any saved state, so we just need to flush the buffer
-                        }
-                        else
-                        {
-                            origWriter.write(content);
-                        }
+                        });
                     }
                     else if (stateWriter.isStateWrittenWithoutWrapper())
                     {
@@ -1884,6 +1857,12 @@ else if (stateWriter.isStateWrittenWithoutWrapper())
                             }
                         }
                     }
+
+                    if (outputWriter instanceof Utf8OutputStreamWriter utf8OutputWriter)
+                    {
+                        // only hand the buffered bytes to the response, as done by the Writer of the response
+                        utf8OutputWriter.flushBuffer();
+                    }
                 }
             }
             finally
@@ -2110,11 +2089,26 @@ protected ResponseWriter createResponseWriter(FacesContext context) throws IOExc
         // response.setCharacterEncoding(encoding);
 
         // Now, clone with the real writer
-        writer = writer.cloneWithWriter(extContext.getResponseOutputWriter());
+        writer = writer.cloneWithWriter(getResponseOutputWriter(context, encoding));
 
         return writer;
     }
 
+    private Writer getResponseOutputWriter(FacesContext context, String encoding) throws IOException
+    {
+        ExternalContext extContext = context.getExternalContext();
+        if (config.isPreEncodedOutputEnabled()
+                && "UTF-8".equalsIgnoreCase(encoding)
+                && !context.getPartialViewContext().isPartialRequest())
+        {
+            // the static markup of the facelets can be written as UTF-8 bytes
+            Writer writer = new Utf8OutputStreamWriter(extContext.getResponseOutputStream());
+            context.getAttributes().put(UTF8_OUTPUT_WRITER_ATTR, writer);
+            return writer;
+        }
+        return extContext.getResponseOutputWriter();
+    }
+
     /**
      * Generate the content type
      *
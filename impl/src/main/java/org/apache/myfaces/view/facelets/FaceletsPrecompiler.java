@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import jakarta.faces.application.Resource;
+import jakarta.faces.application.ResourceHandler;
+import jakarta.faces.application.ResourceVisitOption;
+import jakarta.faces.application.ViewResource;
+import jakarta.faces.context.ExternalContext;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.view.ViewDeclarationLanguage;
+import jakarta.faces.view.ViewDeclarationLanguageWrapper;
+
+import org.apache.myfaces.config.webparameters.MyfacesConfig;
+import org.apache.myfaces.util.WebConfigParamUtils;
+
+/**
+ * Compiles the facelets of all views and composite components on startup, see
+ * {@link MyfacesConfig#FACELETS_PRECOMPILE}.
+ *
+ * <p>The views are enumerated with {@link ResourceHandler#getViewResources}, the composite components by walking
+ * the webapp resources directory. For each view the facelet and the view metadata facelet are compiled, for each
+ * composite component its metadata facelet, so the FaceletCache is populated before the first request.
+ * The compilation runs on a bounded {@link ForkJoinPool}; each worker uses its own startup FacesContext, because
+ * the compiler needs a current FacesContext.</p>
+ *
+ * <p>A failing facelet is only logged, the application still starts and the facelet is compiled again on the
+ * first request as usual.</p>
+ */
+public class FaceletsPrecompiler
+{
+    private static final Logger log = Logger.getLogger(FaceletsPrecompiler.class.getName());
+
+    private static final int SLOWEST_REPORTED = 10;
+
+    private final Pattern includes;
+    private final Pattern excludes;
+    private final int threads;
+
+    public FaceletsPrecompiler(MyfacesConfig config)
+    {
+        this(config.getFaceletsPrecompileIncludes(), config.getFaceletsPrecompileExcludes(),
+                config.getFaceletsPrecompileThreads());
+    }
+
+    FaceletsPrecompiler(String includes, String excludes, int threads)
+    {
+        this.includes = includes == null || includes.isBlank() ? null : Pattern.compile(includes.trim());
+        this.excludes = excludes == null || excludes.isBlank() ? null : Pattern.compile(excludes.trim());
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Compiles all included facelets and returns the compile time of each one.
+     *
+     * @param facesContext the startup FacesContext
+     * @param workerContextFactory creates a FacesContext for a worker thread and makes it the current instance,
+     *                             it is released after the compilation
+     */
+    public List<Result> precompile(FacesContext facesContext, Supplier<FacesContext> workerContextFactory)
+    {
+        ViewDeclarationLanguage vdl = facesContext.getApplication().getViewHandler()
+                .getViewDeclarationLanguage(facesContext, "/" + MyfacesConfig.getCurrentInstance(facesContext)
+                        .getViewSuffix()[0]);
+        while (vdl instanceof ViewDeclarationLanguageWrapper wrapper)
+        {
+            vdl = wrapper.getWrapped();
+        }
+        if (!(vdl instanceof FaceletViewDeclarationLanguage faceletVdl))
+        {
+            log.info("Facelets precompilation skipped, no facelets view declaration language found");
+            return List.of();
+        }
+        FaceletFactory faceletFactory = faceletVdl.getFaceletFactory();
+
+        List<Task> tasks = new ArrayList<>();
+        collectViews(facesContext, tasks);
+        collectCompositeComponents(facesContext, tasks);
+
+        long start = System.nanoTime();
+        List<Result> results = new ArrayList<>(tasks.size());
+        // the workers resolve tag libraries, EL and classes, so they need the class loader of the webapp
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ForkJoinPool pool = new ForkJoinPool(threads, p ->
+        {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, null, false);
+        try
+        {
+            List<Future<Result>> futures = new ArrayList<>(tasks.size());
+            for (Task task : tasks)
+            {
+                futures.add(pool.submit(() -> compile(task, faceletFactory, workerContextFactory)));
+            }
+            for (Future<Result> future : futures)
+            {
+                results.add(future.get());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            log.warning("Facelets precompilation interrupted");
+        }
+        catch (ExecutionException e)
+        {
+            log.log(Level.WARNING, "Facelets precompilation failed", e.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+
+        report(results, System.nanoTime() - start);
+        return results;
+    }
+
+    private void collectViews(FacesContext facesContext, List<Task> tasks)
+    {
+        ResourceHandler resourceHandler = facesContext.getApplication().getResourceHandler();
+        List<String> viewIds = resourceHandler.getViewResources(facesContext, "/", Integer.MAX_VALUE,
+                ResourceVisitOption.TOP_LEVEL_VIEWS_ONLY)
+                .filter(this::isIncluded)
+                .collect(Collectors.toList());
+        for (String viewId : viewIds)
+        {
+            ViewResource resource = resourceHandler.createViewResource(facesContext, viewId);
+            URL url = resource == null ? null : resource.getURL();
+            if (url != null)
+            {
+                tasks.add(new Task(viewId, url, false));
+            }
+        }
+    }
+
+    private void collectCompositeComponents(FacesContext facesContext, List<Task> tasks)
+    {
+        ExternalContext externalContext = facesContext.getExternalContext();
+        String resourcesDirectory = WebConfigParamUtils.getStringInitParameter(externalContext,
+                ResourceHandler.WEBAPP_RESOURCES_DIRECTORY_PARAM_NAME, "resources");
+        String root = resourcesDirectory.startsWith("/") ? resourcesDirectory : "/" + resourcesDirectory;
+
+        Set<String> libraries = externalContext.getResourcePaths(root + "/");
+        if (libraries == null)
+        {
+            return;
+        }
+        ResourceHandler resourceHandler = facesContext.getApplication().getResourceHandler();
+        for (String library : libraries)
+        {
+            if (!library.endsWith("/"))
+            {
+                continue;
+            }
+            String libraryName = library.substring(root.length() + 1, library.length() - 1);
+            List<String> paths = new ArrayList<>();
+            collectFacelets(externalContext, library, paths);
+            for (String path : paths)
+            {
+                if (!isIncluded(path))
+                {
+                    continue;
+                }
+                Resource resource = resourceHandler.createResource(path.substring(library.length()), libraryName);
+                URL url = resource == null ? null : resource.getURL();
+                if (url != null)
+                {
+                    tasks.add(new Task(path, url, true));
+                }
+            }
+        }
+    }
+
+    private void collectFacelets(ExternalContext externalContext, String directory, List<String> paths)
+    {
+        Set<String> children = externalContext.getResourcePaths(directory);
+        if (children == null)
+        {
+            return;
+        }
+        for (String child : children)
+        {
+            if (child.endsWith("/"))
+            {
+                collectFacelets(externalContext, child, paths);
+            }
+            else if (child.endsWith(".xhtml"))
+            {
+                paths.add(child);
+            }
+        }
+    }
+
+    boolean isIncluded(String path)
+    {
+        return (includes == null || includes.matcher(path).matches())
+                && (excludes == null || !excludes.matcher(path).matches());
+    }
+
+    private Result compile(Task task, FaceletFactory faceletFactory, Supplier<FacesContext> workerContextFactory)
+    {
+        // a task can also run on the calling thread, which keeps its own FacesContext
+        FacesContext facesContext = FacesContext.getCurrentInstance() == null ? workerContextFactory.get() : null;
+        FaceletFactory previousFactory = FaceletFactory.getInstance();
+        FaceletFactory.setInstance(faceletFactory);
+        long start = System.nanoTime();
+        try
+        {
+            if (task.compositeComponent)
+            {
+                faceletFactory.getCompositeComponentMetadataFacelet(task.url);
+            }
+            else
+            {
+                faceletFactory.getFacelet(task.url);
+                faceletFactory.getViewMetadataFacelet(task.url);
+            }
+            return new Result(task.path, System.nanoTime() - start, null);
+        }
+        catch (Exception e)
+        {
+            return new Result(task.path, System.nanoTime() - start, e);
+        }
+        finally
+        {
+            FaceletFactory.setInstance(previousFactory);
+            if (facesContext != null)
+            {
+                facesContext.release();
+            }
+        }
+    }
+
+    private void report(List<Result> results, long nanos)
+    {
+        int failed = 0;
+        for (Result result : results)
+        {
+            if (result.getError() != null)
+            {
+                failed++;
+                log.log(Level.WARNING, "Facelets precompilation of " + result.getPath() + " failed",
+                        result.getError());
+            }
+            else if (log.isLoggable(Level.FINE))
+            {
+                log.fine("Precompiled " + result.getPath() + " in "
+                        + TimeUnit.NANOSECONDS.toMillis(result.getNanos()) + " ms");
+            }
+        }
+
+        if (log.isLoggable(Level.INFO))
+        {
+            StringBuilder message = new StringBuilder();
+            message.append("Precompiled ").append(results.size() - failed).append(" facelets");
+            if (failed > 0)
+            {
+                message.append(" (").append(failed).append(" failed)");
+            }
+            message.append(" in ").append(TimeUnit.NANOSECONDS.toMillis(nanos)).append(" ms using ")
+                    .append(threads).append(" threads");
+
+            List<Result> slowest = results.stream()
+                    .filter(result -> result.getError() == null)
+                    .sorted(Comparator.comparingLong(Result::getNanos).reversed())
+                    .limit(SLOWEST_REPORTED)
+                    .collect(Collectors.toList());
+            if (!slowest.isEmpty())
+            {
+                message.append(", slowest:");
+                for (Result result : slowest)
+                {
+                    message.append("\n    ").append(result.getPath()).append(": ")
+                            .append(TimeUnit.NANOSECONDS.toMillis(result.getNanos())).append(" ms");
+                }
+            }
+            log.info(message.toString());
+        }
+    }
+
+    private static final class Task
+    {
+        private final String path;
+        private final URL url;
+        private final boolean compositeComponent;
+
+        Task(String path, URL url, boolean compositeComponent)
+        {
+            this.path = path;
+            this.url = url;
+            this.compositeComponent = compositeComponent;
+        }
+    }
+
+    /**
+     * The compile time of a single view or composite component.
+     */
+    public static final class Result
+    {
+        private final String path;
+        private final long nanos;
+        private final Exception error;
+
+        Result(String path, long nanos, Exception error)
+        {
+            this.path = path;
+            this.nanos = nanos;
+            this.error = error;
+        }
+
+        public String getPath()
+        {
+            return path;
+        }
+
+        public long getNanos()
+        {
+            return nanos;
+        }
+
+        /**
+         * @return the compilation error, or null if the facelet was compiled
+         */
+        public Exception getError()
+        {
+            return error;
+        }
+    }
+}
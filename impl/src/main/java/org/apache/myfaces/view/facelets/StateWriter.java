@@ -18,40 +18,48 @@
  */
 package org.apache.myfaces.view.facelets;
 
+import org.apache.myfaces.application.ViewHandlerImpl;
+import org.apache.myfaces.renderkit.html.util.PreEncodedText;
+import org.apache.myfaces.renderkit.html.util.PreEncodedTextWriter;
 import org.apache.myfaces.util.lang.FastWriter;
 
 import jakarta.faces.context.FacesContext;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A class for handling state insertion. Content is written directly to "out" until an attempt to write state; at that
  * point, it's redirected into a buffer that can be picked through in theory, this buffer should be very small, since it
  * only needs to be enough to contain all the content after the close of the first (and, hopefully, only) form.
  * <p>
- * Potential optimizations:
- * <ul>
- * <li>If we created a new FastWriter at each call to writingState(), and stored a List of them, then we'd know that
- * state tokens could only possibly be near the start of each buffer (and might not be there at all). (There might be a
- * close-element before the state token). Then, we'd only need to check the start of the buffer for the state token; if
- * it's there, write out the real state, then blast the rest of the buffer out. This wouldn't even require toString(),
- * which for large buffers is expensive. However, this optimization is only going to be especially meaningful for the
- * multi-form case.</li>
- * <li>More of a FastWriter optimization than a StateWriter, but: it is far faster to create a set of small 1K buffers
- * than constantly reallocating one big buffer.</li>
- * </ul>
+ * The buffer is split into segments at each state marker written as a whole String, as ViewHandlerImpl does, so
+ * {@link #writeBufferedContent(Writer, StateTokenWriter)} can write the segments out with the state in between, without
+ * creating a String of the whole buffer and searching it for markers. Markers written in any other way are still found
+ * by searching the segments.
+ * <p>
+ * With a MyFaces ResponseStateManager and server side state saving, the state token is known before the view is
+ * rendered, so it is written inline and nothing is buffered at all, see {@link #writingStateWithoutWrapper()}.
  * 
  * @author Adam Winer
  * @version $Id$
  */
-public final class StateWriter extends Writer
+public final class StateWriter extends Writer implements PreEncodedTextWriter
 {
 
     private static final String CURRENT_WRITER_KEY = "org.apache.myfaces.view.facelets.StateWriter.CURRENT_WRITER";
 
+    private static final String STATE_MARKER = ViewHandlerImpl.FORM_STATE_MARKER;
+    private static final int STATE_MARKER_LEN = STATE_MARKER.length();
+
     private int initialSize;
     private Writer out;
     private FastWriter fast;
+    /**
+     * The buffered content, split at the state markers; null if the content is not split (anymore)
+     */
+    private List<FastWriter> segments;
     private boolean writtenState;
     private boolean writtenStateWithoutWrapper;
 
@@ -129,10 +137,17 @@ public void writingState()
         {
             this.writtenState = true;
             this.writtenStateWithoutWrapper = false;
-            this.fast = new FastWriter(this.initialSize);
-            this.out = this.fast;
+            this.segments = new ArrayList<>(4);
+            startSegment();
         }
     }
+
+    private void startSegment()
+    {
+        this.fast = new FastWriter(this.initialSize);
+        this.segments.add(this.fast);
+        this.out = this.fast;
+    }
     
     public boolean isStateWritten()
     {
@@ -194,7 +209,34 @@ public void write(String str, int off, int len) throws IOException
     @Override
     public void write(String str) throws IOException
     {
-        this.out.write(str);
+        if (this.segments != null && str.length() == STATE_MARKER_LEN && str.equals(STATE_MARKER))
+        {
+            // the marker itself is not buffered, the next segment starts where it was
+            startSegment();
+        }
+        else
+        {
+            this.out.write(str);
+        }
+    }
+
+    @Override
+    public boolean isPreEncodedOutput()
+    {
+        return this.out instanceof PreEncodedTextWriter writer && writer.isPreEncodedOutput();
+    }
+
+    @Override
+    public void writePreEncoded(PreEncodedText text) throws IOException
+    {
+        if (this.out instanceof PreEncodedTextWriter writer)
+        {
+            writer.writePreEncoded(text);
+        }
+        else
+        {
+            this.out.write(text.getChars(), 0, text.length());
+        }
     }
 
     public String getAndResetBuffer()
@@ -204,11 +246,94 @@ public String getAndResetBuffer()
             throw new IllegalStateException("Did not write state;  no buffer is available");
         }
 
-        String result = this.fast.toString();
-        this.fast.reset();
+        String result;
+        if (this.segments != null && this.segments.size() > 1)
+        {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < this.segments.size(); i++)
+            {
+                if (i > 0)
+                {
+                    sb.append(STATE_MARKER);
+                }
+                sb.append(this.segments.get(i).toString());
+            }
+            result = sb.toString();
+
+            this.segments.clear();
+            startSegment();
+        }
+        else
+        {
+            result = this.fast.toString();
+            this.fast.reset();
+        }
         return result;
     }
 
+    /**
+     * Writes the content buffered since {@link #writingState()} to the given writer, and the state at each state
+     * marker. The state is written by the given StateTokenWriter, through the ResponseWriter as usual, and passes
+     * this StateWriter directly to the given writer.
+     *
+     * <p>Afterwards content written to this StateWriter is buffered again, and can be picked up with
+     * {@link #getAndResetBuffer()}.</p>
+     */
+    public void writeBufferedContent(Writer target, StateTokenWriter stateTokenWriter) throws IOException
+    {
+        if (!this.writtenState)
+        {
+            throw new IllegalStateException("Did not write state;  no buffer is available");
+        }
+
+        List<FastWriter> buffered = this.segments;
+        if (buffered == null)
+        {
+            buffered = new ArrayList<>(1);
+            buffered.add(this.fast);
+        }
+        this.segments = null;
+        this.fast = new FastWriter(this.initialSize);
+
+        try
+        {
+            for (int i = 0; i < buffered.size(); i++)
+            {
+                if (i > 0)
+                {
+                    writeStateToken(target, stateTokenWriter);
+                }
+
+                FastWriter segment = buffered.get(i);
+                // markers not written as a whole String, e.g. by a filtering ResponseWriter
+                int start = 0;
+                int end = segment.indexOf(STATE_MARKER, start);
+                while (end != -1)
+                {
+                    segment.writeTo(target, start, end - start);
+                    writeStateToken(target, stateTokenWriter);
+                    start = end + STATE_MARKER_LEN;
+                    end = segment.indexOf(STATE_MARKER, start);
+                }
+                segment.writeTo(target, start, segment.size() - start);
+
+                // the segment is not needed anymore, don't keep the whole page until all is written
+                buffered.set(i, null);
+            }
+        }
+        finally
+        {
+            this.out = this.fast;
+        }
+    }
+
+    private void writeStateToken(Writer target, StateTokenWriter stateTokenWriter) throws IOException
+    {
+        this.out = target;
+        stateTokenWriter.writeState();
+        this.out = this.fast;
+    }
+
     public void release()
     {
         // remove from FacesContext attribute Map
@@ -221,4 +346,12 @@ public void release(FacesContext facesContext)
         setCurrentInstance(null, facesContext);
     }
 
+    /**
+     * Writes the state at a state marker, see {@link StateWriter#writeBufferedContent(Writer, StateTokenWriter)}.
+     */
+    @FunctionalInterface
+    public interface StateTokenWriter
+    {
+        void writeState() throws IOException;
+    }
 }
@@ -79,6 +79,17 @@
     
     private Doctype doctype;
 
+    /**
+     * Rough heap size of the handler created for a tag or text unit and of a tag attribute, used to
+     * estimate the size of the compiled facelet.
+     */
+    private static final int ESTIMATED_UNIT_SIZE = 256;
+    private static final int ESTIMATED_ATTRIBUTE_SIZE = 160;
+
+    private int attributeCount;
+
+    private long textLength;
+
     public CompilationManager(String alias, Compiler compiler, FaceletsProcessingInstructions instructions)
     {
 
@@ -134,6 +145,7 @@ public void writeInstruction(String value, Location location)
             this.startUnit(unit);
         }
         unit.writeInstruction(value);
+        this.textLength += value.length();
     }
     
     public void writeDoctype(String name, String publicId, String systemId)
@@ -177,6 +189,7 @@ public void writeText(String value, Location location)
             this.startUnit(unit);
         }
         unit.write(value);
+        this.textLength += value.length();
     }
 
     public void writeComment(String text, Location location)
@@ -212,6 +225,7 @@ public void writeComment(String text, Location location)
         }
 
         unit.writeComment(text);
+        this.textLength += text.length();
     }
 
     public void writeWhitespace(String text, Location location)
@@ -235,6 +249,8 @@ public void pushTag(Tag orig)
             return;
         }
 
+        this.attributeCount += orig.getAttributes().getAll().length;
+
         if (log.isLoggable(Level.FINE))
         {
             log.fine("Tag Pushed: " + orig);
@@ -612,5 +628,14 @@ public Doctype getDoctype()
     {
         return doctype;
     }
+
+    /**
+     * Rough estimate in bytes of the heap retained by the handlers compiled so far.
+     */
+    public long getEstimatedSize()
+    {
+        return (long) this.tagId * ESTIMATED_UNIT_SIZE + (long) this.attributeCount * ESTIMATED_ATTRIBUTE_SIZE
+                + 2 * this.textLength;
+    }
 }
 
@@ -267,6 +267,7 @@ public void setFaceletsProcessingConfigurations(
     {
         private FaceletHandler faceletHandler;
         private Doctype doctype;
+        private long estimatedSize;
 
         CompilerResult(FaceletHandler faceletHandler, Doctype doctype)
         {
@@ -274,6 +275,12 @@ public void setFaceletsProcessingConfigurations(
             this.doctype = doctype;
         }
 
+        CompilerResult(FaceletHandler faceletHandler, Doctype doctype, long estimatedSize)
+        {
+            this(faceletHandler, doctype);
+            this.estimatedSize = estimatedSize;
+        }
+
         public FaceletHandler getFaceletHandler()
         {
             return faceletHandler;
@@ -293,6 +300,14 @@ public void setDoctypeUnit(Doctype doctype)
         {
             this.doctype = doctype;
         }
+
+        /**
+         * Rough estimate in bytes of the heap retained by the compiled handlers.
+         */
+        public long getEstimatedSize()
+        {
+            return estimatedSize;
+        }
     }
 }
 
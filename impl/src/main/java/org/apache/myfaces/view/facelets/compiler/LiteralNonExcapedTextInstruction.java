@@ -23,6 +23,10 @@
 import jakarta.el.ELContext;
 import jakarta.el.ExpressionFactory;
 import jakarta.faces.context.FacesContext;
+import jakarta.faces.context.ResponseWriter;
+
+import org.apache.myfaces.renderkit.html.util.PreEncodedText;
+import org.apache.myfaces.renderkit.html.util.PreEncodedTextWriter;
 
 /**
  * 
@@ -32,6 +36,10 @@
 final class LiteralNonExcapedTextInstruction implements Instruction
 {
     private final String text;
+    /**
+     * Created on the first write to the UTF-8 bytes of the response
+     */
+    private volatile PreEncodedText preEncodedText;
 
     public LiteralNonExcapedTextInstruction(String text)
     {
@@ -41,7 +49,27 @@ public LiteralNonExcapedTextInstruction(String text)
     @Override
     public void write(FacesContext context) throws IOException
     {
-        context.getResponseWriter().write(this.text);
+        ResponseWriter rw = context.getResponseWriter();
+        if (rw instanceof PreEncodedTextWriter writer && writer.isPreEncodedOutput())
+        {
+            writer.writePreEncoded(getPreEncodedText());
+        }
+        else
+        {
+            rw.write(this.text);
+        }
+    }
+
+    private PreEncodedText getPreEncodedText()
+    {
+        PreEncodedText preEncoded = this.preEncodedText;
+        if (preEncoded == null)
+        {
+            // a race only creates the same text twice
+            preEncoded = new PreEncodedText(this.text);
+            this.preEncodedText = preEncoded;
+        }
+        return preEncoded;
     }
 
     @Override
@@ -23,20 +23,71 @@
 import jakarta.el.ELContext;
 import jakarta.el.ExpressionFactory;
 import jakarta.faces.context.FacesContext;
+import jakarta.faces.context.ResponseWriter;
+
+import org.apache.myfaces.renderkit.html.util.PreEncodedText;
+import org.apache.myfaces.renderkit.html.util.PreEncodedTextWriter;
 
 final class LiteralTextInstruction implements Instruction
 {
     private final String text;
+    private final boolean escapingNeutral;
+    /**
+     * Created on the first write to the UTF-8 bytes of the response, if escaping the text never changes it
+     */
+    private volatile PreEncodedText preEncodedText;
 
     public LiteralTextInstruction(String text)
     {
         this.text = text;
+        this.escapingNeutral = isEscapingNeutral(text);
     }
 
     @Override
     public void write(FacesContext context) throws IOException
     {
-        context.getResponseWriter().writeText(this.text, null);
+        ResponseWriter rw = context.getResponseWriter();
+        if (this.escapingNeutral && rw instanceof PreEncodedTextWriter writer && writer.isPreEncodedOutput())
+        {
+            writer.writePreEncoded(getPreEncodedText());
+        }
+        else
+        {
+            rw.writeText(this.text, null);
+        }
+    }
+
+    private PreEncodedText getPreEncodedText()
+    {
+        PreEncodedText preEncoded = this.preEncodedText;
+        if (preEncoded == null)
+        {
+            // a race only creates the same text twice
+            preEncoded = new PreEncodedText(this.text);
+            this.preEncodedText = preEncoded;
+        }
+        return preEncoded;
+    }
+
+    /**
+     * @return true if writeText writes the text as is, whatever the encoding of the response, which is the case for
+     *         printable ASCII characters and whitespace except those escaped in HTML
+     */
+    private static boolean isEscapingNeutral(String text)
+    {
+        for (int i = 0; i < text.length(); i++)
+        {
+            char c = text.charAt(i);
+            if (c == '"' || c == '&' || c == '<' || c == '>')
+            {
+                return false;
+            }
+            if ((c < 0x20 && c != '\t' && c != '\n' && c != '\r') || c > 0x7E)
+            {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
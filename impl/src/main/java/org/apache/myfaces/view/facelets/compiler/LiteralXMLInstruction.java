@@ -25,18 +25,19 @@
 import jakarta.faces.context.FacesContext;
 import jakarta.faces.context.ResponseWriter;
 
+import org.apache.myfaces.renderkit.html.util.PreEncodedText;
+import org.apache.myfaces.renderkit.html.util.PreEncodedTextWriter;
+
 final class LiteralXMLInstruction implements Instruction
 {
 
     private final static char[] STOP = new char[0];
 
-    private final char[] instruction;
-    private final int len;
+    private final PreEncodedText instruction;
 
     public LiteralXMLInstruction(String literal)
     {
-        this.instruction = literal.toCharArray();
-        this.len = this.instruction.length;
+        this.instruction = new PreEncodedText(literal);
     }
 
     @Override
@@ -44,7 +45,14 @@ public void write(FacesContext context) throws IOException
     {
         ResponseWriter rw = context.getResponseWriter();
         rw.writeText(STOP, 0, 0); // hack to get closing elements
-        rw.write(this.instruction, 0, this.len);
+        if (rw instanceof PreEncodedTextWriter writer)
+        {
+            writer.writePreEncoded(this.instruction);
+        }
+        else
+        {
+            rw.write(this.instruction.getChars(), 0, this.instruction.length());
+        }
     }
 
     @Override
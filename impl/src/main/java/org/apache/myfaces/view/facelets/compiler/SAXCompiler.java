@@ -836,7 +836,8 @@ public CompilerResult doCompile(URL src, String alias)
                 is.close();
             }
         }
-        return new CompilerResult(new EncodingHandler(mngr.createFaceletHandler(), encoding), mngr.getDoctype());
+        return new CompilerResult(new EncodingHandler(mngr.createFaceletHandler(), encoding), mngr.getDoctype(),
+                mngr.getEstimatedSize());
     }
 
     /**
@@ -874,7 +875,8 @@ protected CompilerResult doCompileViewMetadata(URL src, String alias)
                 is.close();
             }
         }
-        return new CompilerResult(new EncodingHandler(mngr.createFaceletHandler(), encoding), mngr.getDoctype());
+        return new CompilerResult(new EncodingHandler(mngr.createFaceletHandler(), encoding), mngr.getDoctype(),
+                mngr.getEstimatedSize());
     }
 
     /**
@@ -913,7 +915,8 @@ protected CompilerResult doCompileCompositeComponentMetadata(URL src, String ali
                 is.close();
             }
         }
-        return new CompilerResult(new EncodingHandler(mngr.createFaceletHandler(), encoding), mngr.getDoctype());
+        return new CompilerResult(new EncodingHandler(mngr.createFaceletHandler(), encoding), mngr.getDoctype(),
+                mngr.getEstimatedSize());
     }
     
     @Override
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets.component;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+import jakarta.faces.context.ExternalContext;
+import jakarta.faces.context.FacesContext;
+
+import org.apache.myfaces.config.webparameters.MyfacesConfig;
+import org.apache.myfaces.renderkit.html.util.PreEncodedText;
+import org.apache.myfaces.util.lang.ConcurrentLRUCache;
+import org.apache.myfaces.util.lang.LRULinkedHashMap;
+
+/**
+ * The fragments rendered by {@link UICache}, in the application or in the session, each bounded to
+ * {@link MyfacesConfig#FRAGMENT_CACHE_SIZE} fragments.
+ */
+final class FragmentCache
+{
+    private static final String APPLICATION_CACHE_KEY = FragmentCache.class.getName();
+    private static final String SESSION_CACHE_KEY = FragmentCache.class.getName() + ".SESSION";
+
+    private FragmentCache()
+    {
+    }
+
+    static boolean isEnabled(FacesContext context)
+    {
+        return MyfacesConfig.getCurrentInstance(context).getFragmentCacheSize() > 0;
+    }
+
+    /**
+     * @return the markup cached for the key, or null if there is none or it is expired
+     */
+    static PreEncodedText get(FacesContext context, boolean session, String key)
+    {
+        Fragment fragment;
+        if (session)
+        {
+            Map<String, Fragment> fragments = getSessionFragments(context, false);
+            fragment = fragments == null ? null : fragments.get(key);
+        }
+        else
+        {
+            fragment = getApplicationFragments(context).get(key);
+        }
+
+        if (fragment == null)
+        {
+            return null;
+        }
+        if (fragment.isExpired(System.currentTimeMillis()))
+        {
+            if (session)
+            {
+                getSessionFragments(context, false).remove(key);
+            }
+            else
+            {
+                getApplicationFragments(context).remove(key);
+            }
+            return null;
+        }
+        return fragment.markup;
+    }
+
+    /**
+     * @param timeToLive seconds until the markup expires, 0 or less to keep it until it is evicted
+     */
+    static void put(FacesContext context, boolean session, String key, PreEncodedText markup, int timeToLive)
+    {
+        long expires = timeToLive > 0 ? System.currentTimeMillis() + timeToLive * 1000L : 0;
+        Fragment fragment = new Fragment(markup, expires);
+        if (session)
+        {
+            Map<String, Fragment> fragments = getSessionFragments(context, true);
+            fragments.put(key, fragment);
+            // set the attribute again, so a replicated session picks up the change
+            context.getExternalContext().getSessionMap().put(SESSION_CACHE_KEY, fragments);
+        }
+        else
+        {
+            getApplicationFragments(context).put(key, fragment);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentLRUCache<String, Fragment> getApplicationFragments(FacesContext context)
+    {
+        Map<String, Object> applicationMap = context.getExternalContext().getApplicationMap();
+        ConcurrentLRUCache<String, Fragment> fragments =
+                (ConcurrentLRUCache<String, Fragment>) applicationMap.get(APPLICATION_CACHE_KEY);
+        if (fragments == null)
+        {
+            int size = MyfacesConfig.getCurrentInstance(context).getFragmentCacheSize();
+            fragments = (ConcurrentLRUCache<String, Fragment>) applicationMap.computeIfAbsent(APPLICATION_CACHE_KEY,
+                    k -> new ConcurrentLRUCache<String, Fragment>((size * 4 + 3) / 3, size));
+        }
+        return fragments;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Fragment> getSessionFragments(FacesContext context, boolean create)
+    {
+        ExternalContext externalContext = context.getExternalContext();
+        if (externalContext.getSession(create) == null)
+        {
+            return null;
+        }
+
+        Map<String, Object> sessionMap = externalContext.getSessionMap();
+        Map<String, Fragment> fragments = (Map<String, Fragment>) sessionMap.get(SESSION_CACHE_KEY);
+        if (fragments == null && create)
+        {
+            int size = MyfacesConfig.getCurrentInstance(context).getFragmentCacheSize();
+            fragments = (Map<String, Fragment>) sessionMap.computeIfAbsent(SESSION_CACHE_KEY,
+                    k -> Collections.synchronizedMap(new LRULinkedHashMap<String, Fragment>(size)));
+        }
+        return fragments;
+    }
+
+    static final class Fragment implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final PreEncodedText markup;
+        private final long expires;
+
+        Fragment(PreEncodedText markup, long expires)
+        {
+            this.markup = markup;
+            this.expires = expires;
+        }
+
+        boolean isExpired(long now)
+        {
+            return expires != 0 && now >= expires;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets.component;
+
+import java.io.IOException;
+
+import jakarta.faces.component.UIComponentBase;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.context.ResponseWriter;
+
+import org.apache.myfaces.buildtools.maven2.plugin.builder.annotation.JSFComponent;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.annotation.JSFProperty;
+import org.apache.myfaces.renderkit.html.util.PreEncodedText;
+import org.apache.myfaces.renderkit.html.util.PreEncodedTextWriter;
+import org.apache.myfaces.util.lang.StreamCharBuffer;
+
+/**
+ * Caches the markup rendered by the children under the given key, and writes the cached markup instead of encoding
+ * the children again until it expires or is evicted.
+ *
+ * <p>The children are still built and processed in the other phases; only their encoding is skipped. The cached
+ * markup is shared by all views and requests within the scope, so it must not contain anything which depends on the
+ * request or the view, e.g. a form, the view state or client ids which differ between views.</p>
+ */
+@JSFComponent(name="ui:cache")
+public class UICache extends UIComponentBase
+{
+    public static final String COMPONENT_TYPE = "facelets.ui.Cache";
+    public static final String COMPONENT_FAMILY = "facelets";
+
+    public UICache()
+    {
+        setRendererType(null);
+    }
+
+    @Override
+    public String getFamily()
+    {
+        return COMPONENT_FAMILY;
+    }
+
+    @Override
+    public boolean getRendersChildren()
+    {
+        return true;
+    }
+
+    @Override
+    public void encodeChildren(FacesContext context) throws IOException
+    {
+        String key = getKey();
+        if (key == null || isDisabled() || !FragmentCache.isEnabled(context))
+        {
+            super.encodeChildren(context);
+            return;
+        }
+
+        boolean session = "session".equals(getScope());
+        PreEncodedText markup = FragmentCache.get(context, session, key);
+        if (markup == null)
+        {
+            markup = encodeChildrenToBuffer(context);
+            FragmentCache.put(context, session, key, markup, getTimeToLive());
+        }
+
+        ResponseWriter writer = context.getResponseWriter();
+        if (writer instanceof PreEncodedTextWriter preEncodedTextWriter)
+        {
+            preEncodedTextWriter.writePreEncoded(markup);
+        }
+        else
+        {
+            writer.write(markup.getChars(), 0, markup.length());
+        }
+    }
+
+    private PreEncodedText encodeChildrenToBuffer(FacesContext context) throws IOException
+    {
+        ResponseWriter writer = context.getResponseWriter();
+        // close a pending start tag of the parent, it must not end up in the cached markup
+        writer.flush();
+
+        StreamCharBuffer buffer = new StreamCharBuffer();
+        ResponseWriter bufferWriter = writer.cloneWithWriter(buffer.getWriter());
+        context.setResponseWriter(bufferWriter);
+        try
+        {
+            super.encodeChildren(context);
+            bufferWriter.flush();
+        }
+        finally
+        {
+            context.setResponseWriter(writer);
+        }
+        return new PreEncodedText(buffer.toString());
+    }
+
+    /**
+     * The key the markup is cached under. Usually a literal; an EL expression allows e.g. a fragment per locale.
+     * 
+     * @return the key
+     */
+    @JSFProperty(required=true)
+    public String getKey()
+    {
+        return (String) getStateHelper().eval(PropertyKeys.key);
+    }
+
+    public void setKey(String key)
+    {
+        getStateHelper().put(PropertyKeys.key, key);
+    }
+
+    /**
+     * Where the markup is cached: "application" (the default) or "session".
+     * 
+     * @return the scope
+     */
+    @JSFProperty
+    public String getScope()
+    {
+        return (String) getStateHelper().eval(PropertyKeys.scope, "application");
+    }
+
+    public void setScope(String scope)
+    {
+        getStateHelper().put(PropertyKeys.scope, scope);
+    }
+
+    /**
+     * The number of seconds the cached markup is used, or 0 (the default) to use it until it is evicted.
+     * 
+     * @return the time to live in seconds
+     */
+    @JSFProperty
+    public int getTimeToLive()
+    {
+        return (Integer) getStateHelper().eval(PropertyKeys.timeToLive, 0);
+    }
+
+    public void setTimeToLive(int timeToLive)
+    {
+        getStateHelper().put(PropertyKeys.timeToLive, timeToLive);
+    }
+
+    /**
+     * If true, the children are encoded on each request and the cache is neither read nor updated.
+     * 
+     * @return true if caching is disabled
+     */
+    @JSFProperty
+    public boolean isDisabled()
+    {
+        return (Boolean) getStateHelper().eval(PropertyKeys.disabled, Boolean.FALSE);
+    }
+
+    public void setDisabled(boolean disabled)
+    {
+        getStateHelper().put(PropertyKeys.disabled, disabled);
+    }
+
+    enum PropertyKeys
+    {
+         key
+        , scope
+        , timeToLive
+        , disabled
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets.component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import jakarta.faces.FacesException;
+import jakarta.faces.component.UIComponent;
+import jakarta.faces.component.UIComponentBase;
+import jakarta.faces.component.UIData;
+import jakarta.faces.component.UINamingContainer;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.context.ResponseWriter;
+
+import org.apache.myfaces.buildtools.maven2.plugin.builder.annotation.JSFComponent;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.annotation.JSFProperty;
+import org.apache.myfaces.renderkit.html.util.HTML;
+import org.apache.myfaces.renderkit.html.util.HtmlRendererUtils;
+
+/**
+ * Renders a placeholder in place of the children, and the children themselves at the end of the h:body, after the
+ * rest of the page has been sent to the client. A small script then moves the rendered children into the
+ * placeholder, so slow regions of a page no longer hold back the content below them.
+ *
+ * <p>The data of the regions can be loaded in parallel: if the <code>value</code> evaluates to a {@link Future} or
+ * {@link CompletionStage}, e.g. of an asynchronous bean method, the region waits for it when it is rendered and
+ * exposes the result under <code>var</code>. The value is evaluated when the placeholder is rendered, so all loads
+ * are started early, and the regions whose data is available are rendered first. The children themselves are always
+ * rendered on the request thread, as the FacesContext must not be used by other threads.</p>
+ *
+ * <p>The children are rendered in place in an ajax request, outside of h:body, and within an iterating component,
+ * a composite component or ui:cache, as their context is not available at the end of the body. The children are
+ * rendered outside of any enclosing form, so they must not contain input or command components of it. The content is
+ * only sent to the client early if the response is not buffered as a whole, which is the case with client side state
+ * saving and a form on the page.</p>
+ */
+@JSFComponent(name="ui:deferredRegion")
+public class UIDeferredRegion extends UIComponentBase
+{
+    public static final String COMPONENT_TYPE = "facelets.ui.DeferredRegion";
+    public static final String COMPONENT_FAMILY = "facelets";
+
+    private static final String REGIONS_KEY = UIDeferredRegion.class.getName() + ".REGIONS";
+    private static final String BODY_RENDERER_TYPE = "jakarta.faces.Body";
+    private static final String PLACEHOLDER_FACET = "placeholder";
+
+    /**
+     * The value evaluated when the placeholder was rendered, until the region is rendered
+     */
+    private transient Object deferredValue;
+
+    public UIDeferredRegion()
+    {
+        setRendererType(null);
+    }
+
+    @Override
+    public String getFamily()
+    {
+        return COMPONENT_FAMILY;
+    }
+
+    @Override
+    public boolean getRendersChildren()
+    {
+        return true;
+    }
+
+    @Override
+    public void encodeChildren(FacesContext context) throws IOException
+    {
+        if (!isDeferrable(context))
+        {
+            encodeContent(context, getValue());
+            return;
+        }
+
+        deferredValue = getValue();
+
+        ResponseWriter writer = context.getResponseWriter();
+        writer.startElement(HTML.SPAN_ELEM, this);
+        writer.writeAttribute(HTML.ID_ATTR, getClientId(context), null);
+        UIComponent placeholder = getFacet(PLACEHOLDER_FACET);
+        if (placeholder != null)
+        {
+            placeholder.encodeAll(context);
+        }
+        writer.endElement(HTML.SPAN_ELEM);
+
+        getRegions(context, true).add(this);
+    }
+
+    /**
+     * Renders the regions deferred in this request, and sends the content rendered before each region to the client
+     * first. Called by the h:body renderer before the end of the body.
+     */
+    public static void encodeDeferredRegions(FacesContext context) throws IOException
+    {
+        List<UIDeferredRegion> regions = getRegions(context, false);
+        if (regions == null)
+        {
+            return;
+        }
+
+        // nested regions are added to the list while it is processed
+        while (!regions.isEmpty())
+        {
+            // a region whose value is available first, so a slow region does not hold back the others
+            int index = 0;
+            for (int i = 0, size = regions.size(); i < size; i++)
+            {
+                if (regions.get(i).isValueAvailable())
+                {
+                    index = i;
+                    break;
+                }
+            }
+            UIDeferredRegion region = regions.remove(index);
+
+            // ResponseWriter.flush() only closes a pending start tag, so the response itself is flushed, which
+            // also works if the writer is wrapped
+            context.getResponseWriter().flush();
+            context.getExternalContext().responseFlushBuffer();
+
+            region.encodeDeferred(context);
+        }
+        context.getAttributes().remove(REGIONS_KEY);
+    }
+
+    private void encodeDeferred(FacesContext context) throws IOException
+    {
+        pushComponentToEL(context, this);
+        try
+        {
+            String clientId = getClientId(context);
+            String contentId = clientId + UINamingContainer.getSeparatorChar(context) + "content";
+
+            ResponseWriter writer = context.getResponseWriter();
+            writer.startElement(HTML.DIV_ELEM, this);
+            writer.writeAttribute(HTML.ID_ATTR, contentId, null);
+            writer.writeAttribute("hidden", "hidden", null);
+            encodeContent(context, deferredValue);
+            writer.endElement(HTML.DIV_ELEM);
+
+            writer.startElement(HTML.SCRIPT_ELEM, this);
+            HtmlRendererUtils.renderScriptType(context, writer);
+            writer.writeText("(function(p,c){while(c.firstChild){p.parentNode.insertBefore(c.firstChild,p);}"
+                    + "p.parentNode.removeChild(p);c.parentNode.removeChild(c);})(document.getElementById('"
+                    + clientId + "'),document.getElementById('" + contentId + "'));", null);
+            writer.endElement(HTML.SCRIPT_ELEM);
+        }
+        finally
+        {
+            deferredValue = null;
+            popComponentFromEL(context);
+        }
+    }
+
+    private void encodeContent(FacesContext context, Object value) throws IOException
+    {
+        String var = getVar();
+        if (var == null)
+        {
+            super.encodeChildren(context);
+            return;
+        }
+
+        Map<String, Object> requestMap = context.getExternalContext().getRequestMap();
+        Object origValue = requestMap.put(var, resolve(value));
+        try
+        {
+            super.encodeChildren(context);
+        }
+        finally
+        {
+            if (origValue == null)
+            {
+                requestMap.remove(var);
+            }
+            else
+            {
+                requestMap.put(var, origValue);
+            }
+        }
+    }
+
+    private boolean isDeferrable(FacesContext context)
+    {
+        if (context.getPartialViewContext().isPartialRequest())
+        {
+            return false;
+        }
+
+        for (UIComponent parent = getParent(); parent != null; parent = parent.getParent())
+        {
+            if (parent instanceof UIData || parent instanceof UIRepeat || parent instanceof UICache
+                    || UIComponent.isCompositeComponent(parent))
+            {
+                return false;
+            }
+            if (BODY_RENDERER_TYPE.equals(parent.getRendererType()))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isValueAvailable()
+    {
+        if (deferredValue instanceof Future<?> future)
+        {
+            return future.isDone();
+        }
+        if (deferredValue instanceof CompletionStage<?> stage)
+        {
+            return stage.toCompletableFuture().isDone();
+        }
+        return true;
+    }
+
+    private static Object resolve(Object value)
+    {
+        try
+        {
+            if (value instanceof Future<?> future)
+            {
+                return future.get();
+            }
+            if (value instanceof CompletionStage<?> stage)
+            {
+                return stage.toCompletableFuture().get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new FacesException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new FacesException(e.getCause());
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<UIDeferredRegion> getRegions(FacesContext context, boolean create)
+    {
+        Map<Object, Object> attributes = context.getAttributes();
+        List<UIDeferredRegion> regions = (List<UIDeferredRegion>) attributes.get(REGIONS_KEY);
+        if (regions == null && create)
+        {
+            regions = new ArrayList<>();
+            attributes.put(REGIONS_KEY, regions);
+        }
+        return regions;
+    }
+
+    /**
+     * The data of the region. If it evaluates to a Future or CompletionStage, its result is exposed under
+     * <code>var</code> once it is available.
+     * 
+     * @return the value
+     */
+    @JSFProperty
+    public Object getValue()
+    {
+        return getStateHelper().eval(PropertyKeys.value);
+    }
+
+    public void setValue(Object value)
+    {
+        getStateHelper().put(PropertyKeys.value, value);
+    }
+
+    /**
+     * Name of the request scoped variable the value, or the result of the Future, is exposed under while the children
+     * are rendered.
+     * 
+     * @return the variable name
+     */
+    @JSFProperty(literalOnly=true)
+    public String getVar()
+    {
+        return (String) getStateHelper().get(PropertyKeys.var);
+    }
+
+    public void setVar(String var)
+    {
+        getStateHelper().put(PropertyKeys.var, var);
+    }
+
+    enum PropertyKeys
+    {
+         value
+        , var
+    }
+}
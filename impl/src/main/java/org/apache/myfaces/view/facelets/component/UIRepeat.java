@@ -60,7 +60,6 @@
 import org.apache.myfaces.cdi.model.FacesDataModelManager;
 import org.apache.myfaces.core.api.shared.EditableValueHolderState;
 import org.apache.myfaces.core.api.shared.lang.Assert;
-import org.apache.myfaces.core.api.shared.lang.SharedStringBuilder;
 import org.apache.myfaces.util.ExternalSpecifications;
 import org.apache.myfaces.view.facelets.LocationAwareFacesException;
 import org.apache.myfaces.view.facelets.ViewPoolProcessor;
@@ -74,8 +73,6 @@ public class UIRepeat extends UIComponentBase implements NamingContainer
     public static final String COMPONENT_TYPE = "facelets.ui.Repeat";
 
     public static final String COMPONENT_FAMILY = "facelets";
-    
-    private static final String STRING_BUILDER_KEY = UIRepeat.class.getName() + ".SHARED_STRING_BUILDER";
 
     private final static DataModel<?> EMPTY_MODEL = new ListDataModel<Object>(Collections.emptyList());
     
@@ -113,6 +110,12 @@ public class UIRepeat extends UIComponentBase implements NamingContainer
     
     private int _index = -1;
 
+    // getContainerClientId() of the current index, see UIData
+    private transient String _indexClientIdBase;
+    private transient String _indexClientIdPrefix;
+    private transient int _indexClientIdIndex = -1;
+    private transient String _indexClientId;
+
     private transient Object _origValue;
     private transient Object _origVarStatus;
 
@@ -442,8 +445,19 @@ public String getContainerClientId(FacesContext context)
             return clientId;
         }
 
-        StringBuilder sb = SharedStringBuilder.get(context, STRING_BUILDER_KEY);
-        return sb.append(clientId).append(context.getNamingContainerSeparatorChar()).append(index).toString();
+        if (!clientId.equals(_indexClientIdBase))
+        {
+            // the client id of this component changes with the row of an enclosing iteration
+            _indexClientIdBase = clientId;
+            _indexClientIdPrefix = clientId + context.getNamingContainerSeparatorChar();
+            _indexClientId = null;
+        }
+        if (_indexClientId == null || _indexClientIdIndex != index)
+        {
+            _indexClientIdIndex = index;
+            _indexClientId = _indexClientIdPrefix + index;
+        }
+        return _indexClientId;
     }
     
     private RepeatStatus _getRepeatStatus()
@@ -22,9 +22,7 @@
 import java.net.URL;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import jakarta.faces.view.facelets.FaceletContext;
 import jakarta.faces.view.facelets.FaceletException;
@@ -55,21 +53,33 @@ class CacheELFaceletCacheImpl extends AbstractFaceletCache<DefaultFacelet>
      * and composite component metadata only takes into account composite:xxx tags,
      * ignoring ui:xxx tags.
      */
-    private Map<String, FaceletNode> _facelets;
+    private final FaceletCacheMap<FaceletNode> _facelets;
     
-    private Map<String, DefaultFacelet> _viewMetadataFacelets;
+    private final FaceletCacheMap<DefaultFacelet> _viewMetadataFacelets;
     
-    private Map<String, DefaultFacelet> _compositeComponentMetadataFacelets;
+    private final FaceletCacheMap<DefaultFacelet> _compositeComponentMetadataFacelets;
     
     private long _refreshPeriod;
+
+    private final FaceletCacheLimit _limit;
     
     CacheELFaceletCacheImpl(long refreshPeriod)
+    {
+        this(refreshPeriod, null);
+    }
+
+    /**
+     * @param limit bounds the estimated size of the cached facelets, null if unbounded
+     */
+    CacheELFaceletCacheImpl(long refreshPeriod, FaceletCacheLimit limit)
     {
         _refreshPeriod = refreshPeriod < 0 ? INFINITE_DELAY : refreshPeriod * 1000;
+        _limit = limit;
 
-        _facelets = new ConcurrentHashMap<>();
-        _viewMetadataFacelets = new ConcurrentHashMap<>();
-        _compositeComponentMetadataFacelets = new ConcurrentHashMap<>();
+        boolean store = _refreshPeriod != NO_CACHE_DELAY;
+        _facelets = new FaceletCacheMap<>(store, limit, node -> node.getFacelet().getEstimatedSize());
+        _viewMetadataFacelets = new FaceletCacheMap<>(store, limit, DefaultFacelet::getEstimatedSize);
+        _compositeComponentMetadataFacelets = new FaceletCacheMap<>(store, limit, DefaultFacelet::getEstimatedSize);
     }
 
     @Override
@@ -79,25 +89,7 @@ public DefaultFacelet getFacelet(URL url) throws IOException
         
         String key = url.toString();
         
-        FaceletNode node = _facelets.get(key);
-        DefaultFacelet f = node != null ? node.getFacelet() : null;
-        
-        if (f == null || this.needsToBeRefreshed(f))
-        {
-            Set<String> paramsSet = null;
-            if (node != null)
-            {
-                paramsSet = node.getParams();
-            }
-            f = getMemberFactory().newInstance(url);
-            if (_refreshPeriod != NO_CACHE_DELAY)
-            {
-                _facelets.put(key, (paramsSet != null && !paramsSet.isEmpty()) ? 
-                        new FaceletNode(f, paramsSet) : new FaceletNode(f) );
-            }
-        }
-        
-        return f;
+        return _facelets.get(key, this::needsToBeRefreshed, () -> compileNode(key, url)).getFacelet();
     }
 
     @Override
@@ -113,7 +105,6 @@ public DefaultFacelet getFacelet(FaceletContext ctx, URL url) throws IOException
         //   recompile the facelet, to clean up al EL expressions at once.
 
         FaceletNode node = _facelets.get(key);
-        DefaultFacelet f = (node != null) ? node.getFacelet() : null;
         
         Set<String> paramsSet = Collections.emptySet();
         paramsSet = (node != null) ? node.getParams() : paramsSet;
@@ -132,22 +123,19 @@ public DefaultFacelet getFacelet(FaceletContext ctx, URL url) throws IOException
             }
         }
         
-        if (f == null || this.needsToBeRefreshed(f) || create)
+        if (create)
         {
-            f = getMemberFactory().newInstance(url);
-            if (_refreshPeriod != NO_CACHE_DELAY)
-            {
-                if (!paramsSet.isEmpty()|| !knownParameters.isEmpty() )
-                {
-                    paramsSet = new HashSet(paramsSet);
-                    paramsSet.addAll(knownParameters);
-                    _facelets.put(key, new FaceletNode(f, paramsSet));
-                }
-                else
-                {
-                    _facelets.put(key, new FaceletNode(f));
-                }
-            }
+            // the compiled facelet depends on the parameters of this request, so it is not shared
+            // with the requests waiting for a compilation without them
+            paramsSet = new HashSet(paramsSet);
+            paramsSet.addAll(knownParameters);
+            node = new FaceletNode(getMemberFactory().newInstance(url), paramsSet);
+            _facelets.putCompiled(key, node);
+        }
+        else if (node == null || this.needsToBeRefreshed(node))
+        {
+            node = _facelets.get(key, this::needsToBeRefreshed, () -> compileNode(key, url));
+            paramsSet = node.getParams();
         }
 
         if (!paramsSet.isEmpty())
@@ -161,7 +149,19 @@ public DefaultFacelet getFacelet(FaceletContext ctx, URL url) throws IOException
             }
         }
         
-        return f;
+        return node.getFacelet();
+    }
+
+    /**
+     * Compiles the facelet again, keeping the template parameters already known for it.
+     */
+    private FaceletNode compileNode(String key, URL url) throws IOException
+    {
+        FaceletNode node = _facelets.get(key);
+        Set<String> paramsSet = node != null ? node.getParams() : null;
+
+        DefaultFacelet f = getMemberFactory().newInstance(url);
+        return (paramsSet != null && !paramsSet.isEmpty()) ? new FaceletNode(f, paramsSet) : new FaceletNode(f);
     }
     
     @Override
@@ -175,20 +175,8 @@ public DefaultFacelet getViewMetadataFacelet(URL url) throws IOException
     {
         Assert.notNull(url, "url");
         
-        String key = url.toString();
-        
-        DefaultFacelet f = _viewMetadataFacelets.get(key);
-        
-        if (f == null || this.needsToBeRefreshed(f))
-        {
-            f = getMetadataMemberFactory().newInstance(url);
-            if (_refreshPeriod != NO_CACHE_DELAY)
-            {
-                _viewMetadataFacelets.put(key, f);
-            }
-        }
-        
-        return f;
+        return _viewMetadataFacelets.get(url.toString(), this::needsToBeRefreshed,
+                () -> getMetadataMemberFactory().newInstance(url));
     }
 
     @Override
@@ -197,6 +185,11 @@ public boolean isViewMetadataFaceletCached(URL url)
         return _viewMetadataFacelets.containsKey(url.toString());
     }
 
+    private boolean needsToBeRefreshed(FaceletNode node)
+    {
+        return needsToBeRefreshed(node.getFacelet());
+    }
+
     /**
      * Template method for determining if the Facelet needs to be refreshed.
      * 
@@ -242,19 +235,8 @@ public DefaultFacelet getCompositeComponentMetadataFacelet(URL url) throws IOExc
     {
         Assert.notNull(url, "url");
 
-        String key = url.toString();
-
-        DefaultFacelet f = _compositeComponentMetadataFacelets.get(key);
-
-        if (f == null || this.needsToBeRefreshed(f))
-        {
-            f = getCompositeComponentMetadataMemberFactory().newInstance(url);
-            if (_refreshPeriod != NO_CACHE_DELAY)
-            {
-                _compositeComponentMetadataFacelets.put(key, f);
-            }
-        }
-        return f;
+        return _compositeComponentMetadataFacelets.get(url.toString(), this::needsToBeRefreshed,
+                () -> getCompositeComponentMetadataMemberFactory().newInstance(url));
     }
 
     @Override
@@ -262,6 +244,50 @@ public boolean isCompositeComponentMetadataFaceletCached(URL url)
     {
         return _compositeComponentMetadataFacelets.containsKey(url.toString());
     }
+
+    /**
+     * Number of facelets returned from the cache, without compiling them.
+     */
+    public long getHitCount()
+    {
+        return _facelets.getHitCount() + _viewMetadataFacelets.getHitCount()
+                + _compositeComponentMetadataFacelets.getHitCount();
+    }
+
+    /**
+     * Number of facelets compiled, because they were not cached yet, outdated or new template
+     * parameters were found.
+     */
+    public long getCompileCount()
+    {
+        return _facelets.getCompileCount() + _viewMetadataFacelets.getCompileCount()
+                + _compositeComponentMetadataFacelets.getCompileCount();
+    }
+
+    /**
+     * Number of requests that waited for the compilation of a facelet by another request.
+     */
+    public long getWaitCount()
+    {
+        return _facelets.getWaitCount() + _viewMetadataFacelets.getWaitCount()
+                + _compositeComponentMetadataFacelets.getWaitCount();
+    }
+
+    /**
+     * Number of facelets evicted to keep the cache under its size limit.
+     */
+    public long getEvictionCount()
+    {
+        return _limit != null ? _limit.getEvictionCount() : 0;
+    }
+
+    /**
+     * Estimated size in bytes of the cached facelets, only tracked if the cache is bounded.
+     */
+    public long getEstimatedSize()
+    {
+        return _limit != null ? _limit.getSize() : 0;
+    }
     
     private static class FaceletNode
     {
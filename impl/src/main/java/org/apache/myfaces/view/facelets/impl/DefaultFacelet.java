@@ -82,6 +82,7 @@ final class DefaultFacelet extends AbstractFacelet
     private final boolean _encodingHandler;
     private final boolean viewUniqueIdsCacheEnabled;
     private final Doctype doctype;
+    private long _estimatedSize;
 
     public DefaultFacelet(DefaultFaceletFactory factory, ExpressionFactory el, URL src, String alias,
                           String faceletId, FaceletHandler root, boolean viewUniqueIdsCacheEnabled, Doctype doctype)
@@ -455,6 +456,19 @@ public long getCreateTime()
         return _createTime;
     }
 
+    /**
+     * Rough estimate in bytes of the heap retained by the compiled handlers of this Facelet.
+     */
+    public long getEstimatedSize()
+    {
+        return _estimatedSize;
+    }
+
+    void setEstimatedSize(long estimatedSize)
+    {
+        _estimatedSize = estimatedSize;
+    }
+
     /**
      * Delegates resolution to DefaultFaceletFactory reference. Also, caches URLs for relative paths.
      * 
@@ -64,7 +64,7 @@ public final class DefaultFaceletFactory extends FaceletFactory
 
     private Optional<URL> _baseUrl;
     private Compiler _compiler;
-    private Map<String, DefaultFacelet> _compositeComponentMetadataFacelets;
+    private FaceletCacheMap<DefaultFacelet> _compositeComponentMetadataFacelets;
     private long _refreshPeriod;
     private Map<String, URL> _relativeLocations;
     private Map<String, Boolean> _managedFacelet;
@@ -84,7 +84,6 @@ public DefaultFaceletFactory(Compiler compiler, long refreshPeriod)
 
         _compiler = compiler;
 
-        _compositeComponentMetadataFacelets = new HashMap<>();
         _relativeLocations = new HashMap<>();
         _managedFacelet = new HashMap<>();
 
@@ -93,7 +92,14 @@ public DefaultFaceletFactory(Compiler compiler, long refreshPeriod)
         // facelet cache. Lookup here, because after all this is a "part" of the facelet factory implementation.
         FaceletCacheFactory cacheFactory
                 = (FaceletCacheFactory) FactoryFinder.getFactory(FactoryFinder.FACELET_CACHE_FACTORY);
-        _faceletCache = (FaceletCache<Facelet>) cacheFactory.getFaceletCache();
+        FaceletCache<?> faceletCache = cacheFactory.getFaceletCache();
+        _faceletCache = (FaceletCache<Facelet>) faceletCache;
+
+        // only used if the cache does not handle the composite component metadata facelets itself,
+        // bounded by the same limit as the cache
+        _compositeComponentMetadataFacelets = new FaceletCacheMap<>(_refreshPeriod != NO_CACHE_DELAY,
+                faceletCache instanceof FaceletCacheImpl cacheImpl ? cacheImpl.getLimit() : null,
+                DefaultFacelet::getEstimatedSize);
         
         FaceletCache.MemberFactory<Facelet> faceletFactory = (URL url) -> _createFacelet(url);
         FaceletCache.MemberFactory<Facelet> viewMetadataFaceletFactory = (URL url) -> _createViewMetadataFacelet(url);
@@ -345,6 +351,7 @@ private DefaultFacelet _createFacelet(URL url) throws IOException, FaceletExcept
             Compiler.CompilerResult result = _compiler.compile(url, alias);
             DefaultFacelet f = new DefaultFacelet(this, _compiler.createExpressionFactory(), url, alias, alias,
                     result.getFaceletHandler(), viewUniqueIdsCacheEnabled, result.getDoctype());
+            f.setEstimatedSize(result.getEstimatedSize());
             return f;
         }
         catch (FileNotFoundException fnfe)
@@ -380,6 +387,7 @@ private DefaultFacelet _createViewMetadataFacelet(URL url)
             Compiler.CompilerResult result = _compiler.compileViewMetadata(url, alias);
             DefaultFacelet f = new DefaultFacelet(this, _compiler.createExpressionFactory(), url, alias, 
                     faceletId, result.getFaceletHandler(), viewUniqueIdsCacheEnabled, result.getDoctype());
+            f.setEstimatedSize(result.getEstimatedSize());
             return f;
         }
         catch (FileNotFoundException fnfe)
@@ -415,6 +423,7 @@ private DefaultFacelet _createCompositeComponentMetadataFacelet(URL url)
             Compiler.CompilerResult result = _compiler.compileCompositeComponentMetadata(url, alias);
             DefaultFacelet f = new DefaultFacelet(this, _compiler.createExpressionFactory(), url, alias,
                     alias, result.getFaceletHandler(), true, viewUniqueIdsCacheEnabled, result.getDoctype());
+            f.setEstimatedSize(result.getEstimatedSize());
             return f;
         }
         catch (FileNotFoundException fnfe)
@@ -545,22 +554,8 @@ public Facelet getCompositeComponentMetadataFacelet(URL url) throws IOException,
         {
             Assert.notNull(url, "url");
 
-            String key = url.toString();
-
-            DefaultFacelet f = _compositeComponentMetadataFacelets.get(key);
-
-            if (f == null || this.needsToBeRefreshed(f))
-            {
-                f = this._createCompositeComponentMetadataFacelet(url);
-                if (_refreshPeriod != NO_CACHE_DELAY)
-                {
-                    Map<String, DefaultFacelet> newLoc
-                            = new HashMap<>(_compositeComponentMetadataFacelets);
-                    newLoc.put(key, f);
-                    _compositeComponentMetadataFacelets = newLoc;
-                }
-            }
-            return f;
+            return _compositeComponentMetadataFacelets.get(url.toString(), this::needsToBeRefreshed,
+                    () -> this._createCompositeComponentMetadataFacelet(url));
         }
     }
     
@@ -42,13 +42,19 @@ public FaceletCache getFaceletCache()
 
         long refreshPeriod = myfacesConfig.getFaceletsRefreshPeriod();
 
+        FaceletCacheLimit limit = null;
+        if (myfacesConfig.getFaceletsCacheMaxSize() > 0 && refreshPeriod != 0)
+        {
+            limit = new FaceletCacheLimit(myfacesConfig.getFaceletsCacheMaxSize() * 1024);
+        }
+
         if (ELExpressionCacheMode.alwaysRecompile == myfacesConfig.getELExpressionCacheMode())
         {
-            return new CacheELFaceletCacheImpl(refreshPeriod);
+            return new CacheELFaceletCacheImpl(refreshPeriod, limit);
         }
         else
         {
-            return new FaceletCacheImpl(refreshPeriod);
+            return new FaceletCacheImpl(refreshPeriod, limit);
         }
     }
 
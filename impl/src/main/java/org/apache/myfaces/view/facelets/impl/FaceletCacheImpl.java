@@ -20,8 +20,6 @@
 
 import java.io.IOException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.faces.view.facelets.FaceletCache;
 import jakarta.faces.view.facelets.FaceletException;
@@ -52,17 +50,30 @@ class FaceletCacheImpl extends FaceletCache<DefaultFacelet>
     private static final long INFINITE_DELAY = -1;
     private static final long NO_CACHE_DELAY = 0;
     
-    private Map<String, DefaultFacelet> _facelets;
+    private final FaceletCacheMap<DefaultFacelet> _facelets;
     
-    private Map<String, DefaultFacelet> _viewMetadataFacelets;
+    private final FaceletCacheMap<DefaultFacelet> _viewMetadataFacelets;
 
     private long _refreshPeriod;
+
+    private final FaceletCacheLimit _limit;
     
     FaceletCacheImpl(long refreshPeriod)
+    {
+        this(refreshPeriod, null);
+    }
+
+    /**
+     * @param limit bounds the estimated size of the cached facelets, null if unbounded
+     */
+    FaceletCacheImpl(long refreshPeriod, FaceletCacheLimit limit)
     {
         _refreshPeriod = refreshPeriod < 0 ? INFINITE_DELAY : refreshPeriod * 1000;
-        _facelets = new HashMap<>();
-        _viewMetadataFacelets = new HashMap<>();
+        _limit = limit;
+        _facelets = new FaceletCacheMap<>(_refreshPeriod != NO_CACHE_DELAY, limit,
+                DefaultFacelet::getEstimatedSize);
+        _viewMetadataFacelets = new FaceletCacheMap<>(_refreshPeriod != NO_CACHE_DELAY, limit,
+                DefaultFacelet::getEstimatedSize);
     }
 
     @Override
@@ -70,22 +81,8 @@ public DefaultFacelet getFacelet(URL url) throws IOException
     {
         Assert.notNull(url, "url");
         
-        String key = url.toString();
-
-        DefaultFacelet f = _facelets.get(key);
-        if (f == null || this.needsToBeRefreshed(f))
-        {
-            //f = this._createFacelet(url);
-            f = getMemberFactory().newInstance(url);
-            if (_refreshPeriod != NO_CACHE_DELAY)
-            {
-                Map<String, DefaultFacelet> newLoc = new HashMap<>(_facelets);
-                newLoc.put(key, f);
-                _facelets = newLoc;
-            }
-        }
-        
-        return f;
+        return _facelets.get(url.toString(), this::needsToBeRefreshed,
+                () -> getMemberFactory().newInstance(url));
     }
     
     @Override
@@ -99,23 +96,8 @@ public DefaultFacelet getViewMetadataFacelet(URL url) throws IOException
     {
         Assert.notNull(url, "url");
         
-        String key = url.toString();
-        
-        DefaultFacelet f = _viewMetadataFacelets.get(key);
-        
-        if (f == null || this.needsToBeRefreshed(f))
-        {
-            //f = this._createViewMetadataFacelet(url);
-            f = getMetadataMemberFactory().newInstance(url);
-            if (_refreshPeriod != NO_CACHE_DELAY)
-            {
-                Map<String, DefaultFacelet> newLoc = new HashMap<>(_viewMetadataFacelets);
-                newLoc.put(key, f);
-                _viewMetadataFacelets = newLoc;
-            }
-        }
-        
-        return f;
+        return _viewMetadataFacelets.get(url.toString(), this::needsToBeRefreshed,
+                () -> getMetadataMemberFactory().newInstance(url));
     }
 
     @Override
@@ -124,6 +106,51 @@ public boolean isViewMetadataFaceletCached(URL url)
         return _viewMetadataFacelets.containsKey(url.toString());
     }
 
+    /**
+     * Number of facelets returned from the cache, without compiling them.
+     */
+    public long getHitCount()
+    {
+        return _facelets.getHitCount() + _viewMetadataFacelets.getHitCount();
+    }
+
+    /**
+     * Number of facelets compiled, because they were not cached yet or outdated.
+     */
+    public long getCompileCount()
+    {
+        return _facelets.getCompileCount() + _viewMetadataFacelets.getCompileCount();
+    }
+
+    /**
+     * Number of requests that waited for the compilation of a facelet by another request.
+     */
+    public long getWaitCount()
+    {
+        return _facelets.getWaitCount() + _viewMetadataFacelets.getWaitCount();
+    }
+
+    /**
+     * Number of facelets evicted to keep the cache under its size limit.
+     */
+    public long getEvictionCount()
+    {
+        return _limit != null ? _limit.getEvictionCount() : 0;
+    }
+
+    /**
+     * Estimated size in bytes of the cached facelets, only tracked if the cache is bounded.
+     */
+    public long getEstimatedSize()
+    {
+        return _limit != null ? _limit.getSize() : 0;
+    }
+
+    FaceletCacheLimit getLimit()
+    {
+        return _limit;
+    }
+
     /**
      * Template method for determining if the Facelet needs to be refreshed.
      * 
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Size limit shared by the {@link FaceletCacheMap} instances of a facelet cache, see
+ * {@link org.apache.myfaces.config.webparameters.MyfacesConfig#FACELETS_CACHE_MAX_SIZE}.
+ *
+ * <p>Each cached facelet is weighted with the estimated size of its compiled handlers. When the total
+ * goes over the limit, the least recently used facelets of all registered maps are evicted until the
+ * total is below 90% of the limit, so the eviction does not run again on the next insertion. Only one
+ * thread evicts at a time, the others continue without waiting.</p>
+ */
+class FaceletCacheLimit
+{
+    private static final Logger log = Logger.getLogger(FaceletCacheLimit.class.getName());
+
+    private final long maxSize;
+    private final long lowWaterMark;
+
+    private final AtomicLong size = new AtomicLong();
+    private final List<FaceletCacheMap<?>> maps = new CopyOnWriteArrayList<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder evictedSize = new LongAdder();
+
+    /**
+     * @param maxSize the maximum estimated size in bytes
+     */
+    FaceletCacheLimit(long maxSize)
+    {
+        this.maxSize = maxSize;
+        this.lowWaterMark = maxSize / 10 * 9;
+    }
+
+    void register(FaceletCacheMap<?> map)
+    {
+        maps.add(map);
+    }
+
+    void added(long weight)
+    {
+        if (size.addAndGet(weight) > maxSize)
+        {
+            evict();
+        }
+    }
+
+    void removed(long weight)
+    {
+        size.addAndGet(-weight);
+    }
+
+    private void evict()
+    {
+        if (!evictionLock.tryLock())
+        {
+            return;
+        }
+        try
+        {
+            if (size.get() <= maxSize)
+            {
+                return;
+            }
+
+            List<FaceletCacheMap.EvictionCandidate> candidates = new ArrayList<>();
+            for (FaceletCacheMap<?> map : maps)
+            {
+                map.collectEvictionCandidates(candidates);
+            }
+            candidates.sort(Comparator.comparingLong(FaceletCacheMap.EvictionCandidate::lastAccess));
+
+            int count = 0;
+            for (FaceletCacheMap.EvictionCandidate candidate : candidates)
+            {
+                if (size.get() <= lowWaterMark)
+                {
+                    break;
+                }
+                long weight = candidate.evict();
+                if (weight >= 0)
+                {
+                    count++;
+                    evictions.increment();
+                    evictedSize.add(weight);
+                }
+            }
+
+            if (log.isLoggable(Level.FINE))
+            {
+                log.fine("Evicted " + count + " facelets from the facelet cache, estimated size now "
+                        + size.get() + " of " + maxSize + " bytes");
+            }
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    long getMaxSize()
+    {
+        return maxSize;
+    }
+
+    long getSize()
+    {
+        return size.get();
+    }
+
+    long getEvictionCount()
+    {
+        return evictions.sum();
+    }
+
+    long getEvictedSize()
+    {
+        return evictedSize.sum();
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets.impl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import jakarta.faces.view.facelets.FaceletException;
+
+/**
+ * Concurrent map of compiled facelets, used by the FaceletCache implementations.
+ *
+ * <p>Compilation is single-flight per key: if several requests ask for the same missing or outdated
+ * facelet at the same time (typically right after a deploy), only one of them compiles it and the
+ * others wait for its result, instead of all compiling the same page in parallel.</p>
+ *
+ * <p>If a {@link FaceletCacheLimit} is given, the stored values are weighted and the least recently
+ * used ones can be evicted to keep the estimated size of the cache under the limit.</p>
+ *
+ * @param <V> the cached value
+ */
+class FaceletCacheMap<V>
+{
+    @FunctionalInterface
+    interface Compiler<V>
+    {
+        V compile() throws IOException;
+    }
+
+    private final Map<String, Entry<V>> values = new ConcurrentHashMap<>();
+    private final Map<String, FutureTask<V>> compilations = new ConcurrentHashMap<>();
+
+    /**
+     * If false the compiled values are only shared with the requests waiting for them, but not stored.
+     */
+    private final boolean store;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder compiles = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+
+    private final FaceletCacheLimit limit;
+    private final ToLongFunction<V> weigher;
+
+    FaceletCacheMap(boolean store)
+    {
+        this(store, null, null);
+    }
+
+    /**
+     * @param limit the limit shared with the other maps of the cache, or null if unbounded
+     * @param weigher returns the estimated size of a value in bytes, only used with a limit
+     */
+    FaceletCacheMap(boolean store, FaceletCacheLimit limit, ToLongFunction<V> weigher)
+    {
+        this.store = store;
+        this.limit = limit;
+        this.weigher = weigher;
+        if (limit != null)
+        {
+            limit.register(this);
+        }
+    }
+
+    /**
+     * Returns the cached value for the key, or compiles it if there is none or if it is outdated.
+     */
+    V get(String key, Predicate<V> outdated, Compiler<V> compiler) throws IOException
+    {
+        V value = get(key);
+        if (value != null && !outdated.test(value))
+        {
+            hits.increment();
+            return value;
+        }
+
+        FutureTask<V> task = new FutureTask<>(compiler::compile);
+        FutureTask<V> running = compilations.putIfAbsent(key, task);
+        if (running != null)
+        {
+            waits.increment();
+            return await(running);
+        }
+
+        try
+        {
+            // another thread could have stored a new value between the lookup and the registration
+            V current = get(key);
+            if (current != null && current != value && !outdated.test(current))
+            {
+                hits.increment();
+                return current;
+            }
+
+            compiles.increment();
+            task.run();
+            V compiled = await(task);
+            store(key, compiled);
+            return compiled;
+        }
+        finally
+        {
+            compilations.remove(key, task);
+        }
+    }
+
+    V get(String key)
+    {
+        Entry<V> entry = values.get(key);
+        if (entry == null)
+        {
+            return null;
+        }
+        if (limit != null)
+        {
+            entry.lastAccess = System.nanoTime();
+        }
+        return entry.value;
+    }
+
+    /**
+     * Stores a value compiled by the caller, without single-flight.
+     */
+    void putCompiled(String key, V value)
+    {
+        compiles.increment();
+        store(key, value);
+    }
+
+    private void store(String key, V value)
+    {
+        if (!store)
+        {
+            return;
+        }
+        if (limit == null)
+        {
+            values.put(key, new Entry<>(key, value, 0));
+            return;
+        }
+
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        Entry<V> previous = values.put(key, new Entry<>(key, value, weight));
+        if (previous != null)
+        {
+            limit.removed(previous.weight);
+        }
+        limit.added(weight);
+    }
+
+    /**
+     * Adds a snapshot of the entries of this map to the given list.
+     */
+    void collectEvictionCandidates(List<EvictionCandidate> candidates)
+    {
+        for (Entry<V> entry : values.values())
+        {
+            candidates.add(new EvictionCandidate(entry.lastAccess, () ->
+            {
+                if (values.remove(entry.key, entry))
+                {
+                    limit.removed(entry.weight);
+                    return entry.weight;
+                }
+                return -1;
+            }));
+        }
+    }
+
+    boolean containsKey(String key)
+    {
+        return values.containsKey(key);
+    }
+
+    long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    long getCompileCount()
+    {
+        return compiles.sum();
+    }
+
+    long getWaitCount()
+    {
+        return waits.sum();
+    }
+
+    private static final class Entry<V>
+    {
+        private final String key;
+        private final V value;
+        private final long weight;
+        private volatile long lastAccess = System.nanoTime();
+
+        Entry(String key, V value, long weight)
+        {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * An entry that can be evicted, with its last access time at the moment it was collected.
+     */
+    static final class EvictionCandidate
+    {
+        private final long lastAccess;
+        private final LongSupplier evictor;
+
+        EvictionCandidate(long lastAccess, LongSupplier evictor)
+        {
+            this.lastAccess = lastAccess;
+            this.evictor = evictor;
+        }
+
+        long lastAccess()
+        {
+            return lastAccess;
+        }
+
+        /**
+         * Removes the entry and returns its weight, or -1 if it was already replaced or removed.
+         */
+        long evict()
+        {
+            return evictor.getAsLong();
+        }
+    }
+
+    private static <V> V await(FutureTask<V> task) throws IOException
+    {
+        try
+        {
+            return task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the facelet compilation");
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException)
+            {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException)
+            {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error)
+            {
+                throw error;
+            }
+            throw new FaceletException(cause);
+        }
+    }
+}
@@ -39,6 +39,7 @@
 import jakarta.faces.view.facelets.TagAttributeException;
 
 import org.apache.myfaces.config.webparameters.MyfacesConfig;
+import org.apache.myfaces.core.api.shared.ComponentUtils;
 import org.apache.myfaces.core.api.shared.lang.SharedStringBuilder;
 import org.apache.myfaces.view.facelets.ComponentState;
 import org.apache.myfaces.view.facelets.PartialStateManagementStrategy;
@@ -217,18 +218,7 @@ else if (id.equals(facet.getAttributes().get(MARK_CREATED)))
     
     public static UIComponent findChildInChildrenByTagId(UIComponent parent, String id)
     {
-        if (parent.getChildCount() > 0)
-        {
-            for (int i = 0, childCount = parent.getChildCount(); i < childCount; i ++)
-            {
-                UIComponent child = parent.getChildren().get(i);
-                if (id.equals(child.getAttributes().get(MARK_CREATED)))
-                {
-                    return child;
-                }
-            }
-        }
-        return null;
+        return ComponentUtils.findChildByTagId(parent, id, MARK_CREATED);
     }
     
     /**
@@ -241,16 +231,10 @@ public static UIComponent findChildInChildrenByTagId(UIComponent parent, String
     public static UIComponent findChildByTagId(UIComponent parent, String id)
     {
         Iterator<UIComponent> itr = null;
-        if (parent.getChildCount() > 0)
+        UIComponent found = ComponentUtils.findChildByTagId(parent, id, MARK_CREATED);
+        if (found != null)
         {
-            for (int i = 0, childCount = parent.getChildCount(); i < childCount; i ++)
-            {
-                UIComponent child = parent.getChildren().get(i);
-                if (id.equals(child.getAttributes().get(MARK_CREATED)))
-                {
-                    return child;
-                }
-            }
+            return found;
         }
         if (parent.getFacetCount() > 0)
         {
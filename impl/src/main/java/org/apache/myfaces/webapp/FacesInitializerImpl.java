@@ -18,6 +18,7 @@
  */
 package org.apache.myfaces.webapp;
 
+import org.apache.myfaces.application.viewstate.ViewStateStore;
 import org.apache.myfaces.config.FacesConfigValidator;
 import org.apache.myfaces.config.FacesConfigurator;
 import org.apache.myfaces.config.RuntimeConfig;
@@ -31,12 +32,14 @@
 import org.apache.myfaces.spi.InjectionProviderException;
 import org.apache.myfaces.spi.InjectionProviderFactory;
 import org.apache.myfaces.util.ExternalSpecifications;
+import org.apache.myfaces.view.facelets.FaceletsPrecompiler;
 import org.apache.myfaces.view.facelets.tag.MetaRulesetImpl;
 
 import jakarta.el.ELManager;
 import jakarta.el.ExpressionFactory;
 import jakarta.faces.application.Application;
 import jakarta.faces.application.ProjectStage;
+import jakarta.faces.application.ViewHandler;
 import jakarta.faces.component.UIViewRoot;
 import jakarta.faces.context.ExceptionHandler;
 import jakarta.faces.context.ExternalContext;
@@ -193,6 +196,7 @@ public void initFaces(ServletContext servletContext)
             {
                 StateUtils.initSecret(servletContext);
             }
+            StateUtils.initDictionary(facesContext);
 
             _dispatchApplicationEvent(servletContext, PostConstructApplicationEvent.class);
             
@@ -205,6 +209,11 @@ public void initFaces(ServletContext servletContext)
             ViewPoolProcessor.initialize(facesContext);
 
             MyfacesConfig config = MyfacesConfig.getCurrentInstance(facesContext.getExternalContext());
+            if (config.isFaceletsPrecompile())
+            {
+                initFaceletsPrecompilation(facesContext, servletContext, config);
+            }
+
             if (config.isAutomaticExtensionlessMapping())
             {
                 initAutomaticExtensionlessMapping(facesContext, servletContext);
@@ -339,6 +348,12 @@ public void destroyFaces(ServletContext servletContext)
             sessionManager.clearSessions();
         }
 
+        ViewStateStore viewStateStore = ViewStateStore.getCurrentInstance(facesContext.getExternalContext());
+        if (viewStateStore != null)
+        {
+            viewStateStore.destroy(facesContext);
+        }
+
         // clear UIViewParameter default renderer map
         try
         {
@@ -674,6 +689,30 @@ protected void initWebsocketIntegration(ServletContext servletContext, ExternalC
         }
     }
     
+    /**
+     * Compiles the facelets of all views and composite components before the application reports ready,
+     * see {@link MyfacesConfig#FACELETS_PRECOMPILE}.
+     */
+    protected void initFaceletsPrecompilation(FacesContext facesContext, ServletContext servletContext,
+            MyfacesConfig config)
+    {
+        if (config.getFaceletsRefreshPeriod() == 0)
+        {
+            log.info("Facelets precompilation skipped, the facelets cache is disabled ("
+                    + ViewHandler.FACELETS_REFRESH_PERIOD_PARAM_NAME + " = 0)");
+            return;
+        }
+
+        try
+        {
+            new FaceletsPrecompiler(config).precompile(facesContext, () -> initStartupFacesContext(servletContext));
+        }
+        catch (Exception e)
+        {
+            log.log(Level.WARNING, "Facelets precompilation failed", e);
+        }
+    }
+
     /**
      * 
      * @since 2.3
@@ -24,6 +24,7 @@
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.http.HttpSessionEvent;
 import jakarta.servlet.http.HttpSessionListener;
+import org.apache.myfaces.application.viewstate.ViewStateStore;
 import org.apache.myfaces.cdi.clientwindow.ClientWindowScopeContext;
 import org.apache.myfaces.cdi.view.ViewScopeContext;
 import org.apache.myfaces.context.ExceptionHandlerImpl;
@@ -53,6 +54,7 @@ public void sessionDestroyed(HttpSessionEvent event)
         if (facesContext != null)
         {
             destroySessionDependentScopes(facesContext);
+            ViewStateStore.destroyAll(facesContext, event.getSession());
         }
         else
         {
@@ -67,6 +69,7 @@ public void sessionDestroyed(HttpSessionEvent event)
                 facesContext = new StartupFacesContextImpl(externalContext, externalContext, exceptionHandler, false);
 
                 destroySessionDependentScopes(facesContext);
+                ViewStateStore.destroyAll(facesContext, event.getSession());
             }
             finally
             {
@@ -20,8 +20,14 @@
 package jakarta.faces;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.myfaces.test.mock.api.Mock2ApplicationFactory;
 import org.apache.myfaces.test.mock.api.MockApplicationFactory;
@@ -276,6 +282,70 @@ public void testSetFactoryAdditiveClassNames() throws Exception
         }
     }
 
+    /*
+     * Test method for 'jakarta.faces.FactoryFinder.getFactory(String)'
+     */
+    @Test
+    public void testGetFactoryConcurrently() throws Exception
+    {
+        FactoryFinder.setFactory(FactoryFinder.APPLICATION_FACTORY, MockApplicationFactory.class.getName());
+
+        int threads = 64;
+        int lookups = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++)
+            {
+                futures.add(executor.submit(() ->
+                {
+                    start.await();
+                    Object factory = FactoryFinder.getFactory(FactoryFinder.APPLICATION_FACTORY);
+                    for (int j = 0; j < lookups; j++)
+                    {
+                        Assertions.assertSame(factory, FactoryFinder.getFactory(FactoryFinder.APPLICATION_FACTORY));
+                    }
+                    return factory;
+                }));
+            }
+
+            start.countDown();
+            Object factory = FactoryFinder.getFactory(FactoryFinder.APPLICATION_FACTORY);
+            for (Future<Object> future : futures)
+            {
+                // all threads must see the same instance, even if several created one at the same time
+                Assertions.assertSame(factory, future.get(60, TimeUnit.SECONDS));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * Test method for 'jakarta.faces.FactoryFinder.getFactory(String)'
+     * Test method for 'jakarta.faces.FactoryFinder.releaseFactories()'
+     */
+    @Test
+    public void testGetFactoryAfterRelease() throws Exception
+    {
+        FactoryFinder.setFactory(FactoryFinder.APPLICATION_FACTORY, MockApplicationFactory.class.getName());
+        Object factory = FactoryFinder.getFactory(FactoryFinder.APPLICATION_FACTORY);
+        Assertions.assertNotNull(factory);
+
+        FactoryFinder.releaseFactories();
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> FactoryFinder.getFactory(FactoryFinder.APPLICATION_FACTORY));
+
+        FactoryFinder.setFactory(FactoryFinder.APPLICATION_FACTORY, MockApplicationFactory.class.getName());
+        Object newFactory = FactoryFinder.getFactory(FactoryFinder.APPLICATION_FACTORY);
+        Assertions.assertNotNull(newFactory);
+        Assertions.assertNotSame(factory, newFactory);
+    }
+
     /*
      * Test method for 'jakarta.faces.FactoryFinder.releaseFactories()'
      */
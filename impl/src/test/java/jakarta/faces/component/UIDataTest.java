@@ -106,6 +106,30 @@ public void testGetClientId()
         Assertions.assertEquals("xxx:99", _testImpl.getContainerClientId(facesContext));
     }
 
+    @Test
+    public void testGetContainerClientIdPerRow()
+    {
+        _testImpl.setId("xxx");
+        _testImpl.setValue(List.of("a", "b", "c"));
+
+        _testImpl.setRowIndex(1);
+        String clientId = _testImpl.getContainerClientId(facesContext);
+        Assertions.assertEquals("xxx:1", clientId);
+        Assertions.assertSame(clientId, _testImpl.getContainerClientId(facesContext));
+
+        _testImpl.setRowIndex(2);
+        Assertions.assertEquals("xxx:2", _testImpl.getContainerClientId(facesContext));
+
+        // the client id of the table changes, e.g. with the row of an enclosing table
+        _testImpl.setId("yyy");
+        Assertions.assertEquals("yyy:2", _testImpl.getContainerClientId(facesContext));
+
+        _testImpl.setRowIndex(-1);
+        Assertions.assertEquals("yyy", _testImpl.getContainerClientId(facesContext));
+        _testImpl.setRowIndex(2);
+        Assertions.assertEquals("yyy:2", _testImpl.getContainerClientId(facesContext));
+    }
+
     /**
      * Test method for
      * {@link jakarta.faces.component.UIData#invokeOnComponent(jakarta.faces.context.FacesContext, java.lang.String, jakarta.faces.component.ContextCallback)}
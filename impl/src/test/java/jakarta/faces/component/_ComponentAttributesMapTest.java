@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package jakarta.faces.component;
+
+import java.util.Map;
+
+import org.apache.myfaces.core.api.shared.lang.PropertyDescriptorUtils;
+import org.apache.myfaces.test.base.junit.AbstractJsfTestCase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class _ComponentAttributesMapTest extends AbstractJsfTestCase
+{
+    @Override
+    protected void setUpServletObjects() throws Exception
+    {
+        super.setUpServletObjects();
+        servletContext.addInitParameter(PropertyDescriptorUtils.USE_LAMBDA_METAFACTORY, "true");
+    }
+
+    @Test
+    public void testNonPropertyKeys()
+    {
+        Assertions.assertTrue(_ComponentAttributesMap.isNonPropertyKey("oam.vf.MARK_ID"));
+        Assertions.assertTrue(_ComponentAttributesMap.isNonPropertyKey(UIComponent.VIEW_LOCATION_KEY));
+        Assertions.assertFalse(_ComponentAttributesMap.isNonPropertyKey("value"));
+    }
+
+    @Test
+    public void testDottedKeyIsAttribute()
+    {
+        UIOutput output = new UIOutput();
+        Map<String, Object> attributes = output.getAttributes();
+
+        attributes.put("org.example.key", "attribute");
+        attributes.put("value", "property");
+
+        Assertions.assertEquals("attribute", attributes.get("org.example.key"));
+        Assertions.assertTrue(attributes.containsKey("org.example.key"));
+        Assertions.assertEquals("property", output.getValue());
+        Assertions.assertEquals("property", attributes.get("value"));
+        Assertions.assertEquals("attribute", attributes.remove("org.example.key"));
+        Assertions.assertFalse(attributes.containsKey("org.example.key"));
+    }
+
+    @Test
+    public void testPropertyWrittenOnce()
+    {
+        CountingComponent component = new CountingComponent();
+
+        component.getAttributes().put("counted", "a");
+
+        Assertions.assertEquals("a", component.getAttributes().get("counted"));
+        Assertions.assertEquals(1, component.writes);
+    }
+
+    public static class CountingComponent extends UIOutput
+    {
+        private String counted;
+        private int writes;
+
+        public String getCounted()
+        {
+            return counted;
+        }
+
+        public void setCounted(String counted)
+        {
+            this.counted = counted;
+            writes++;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package jakarta.faces.component;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.myfaces.core.api.shared.ComponentUtils;
+import org.apache.myfaces.test.base.junit.AbstractJsfTestCase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class _ComponentChildrenListTest extends AbstractJsfTestCase
+{
+    private static final String MARK_CREATED = "oam.vf.MARK_ID";
+
+    private static UIOutput createChild(String tagId)
+    {
+        UIOutput child = new UIOutput();
+        child.getAttributes().put(MARK_CREATED, tagId);
+        return child;
+    }
+
+    private static UIPanel createPanel(int childCount)
+    {
+        UIPanel panel = new UIPanel();
+        for (int i = 0; i < childCount; i++)
+        {
+            panel.getChildren().add(createChild("tag" + i));
+        }
+        return panel;
+    }
+
+    private static UIComponent find(UIComponent parent, String tagId)
+    {
+        return ComponentUtils.findChildByTagId(parent, tagId, MARK_CREATED);
+    }
+
+    @Test
+    public void testFindSmallList()
+    {
+        UIPanel panel = createPanel(3);
+
+        Assertions.assertSame(panel.getChildren().get(1), find(panel, "tag1"));
+        Assertions.assertNull(find(panel, "unknown"));
+        Assertions.assertNull(find(new UIPanel(), "tag0"));
+    }
+
+    @Test
+    public void testFindIndexed()
+    {
+        UIPanel panel = createPanel(20);
+        List<UIComponent> children = panel.getChildren();
+
+        for (int i = 0; i < 20; i++)
+        {
+            Assertions.assertSame(children.get(i), find(panel, "tag" + i));
+        }
+        Assertions.assertNull(find(panel, "unknown"));
+    }
+
+    @Test
+    public void testRemoveAndAddAgain()
+    {
+        UIPanel panel = createPanel(20);
+        List<UIComponent> children = panel.getChildren();
+        Assertions.assertNotNull(find(panel, "tag5"));
+
+        // as done by the refresh of a view
+        UIComponent child = find(panel, "tag5");
+        children.remove(child);
+        Assertions.assertNull(find(panel, "tag5"));
+        children.add(child);
+        Assertions.assertSame(child, find(panel, "tag5"));
+
+        child = children.remove(0);
+        Assertions.assertNull(find(panel, "tag0"));
+        children.add(3, child);
+        Assertions.assertSame(child, find(panel, "tag0"));
+
+        UIOutput replacement = createChild("tag7");
+        UIComponent replaced = children.set(children.indexOf(find(panel, "tag7")), replacement);
+        Assertions.assertSame(replacement, find(panel, "tag7"));
+        Assertions.assertNull(replaced.getParent());
+
+        children.clear();
+        Assertions.assertNull(find(panel, "tag1"));
+    }
+
+    @Test
+    public void testMovedToOtherParent()
+    {
+        UIPanel panel = createPanel(20);
+        UIPanel other = new UIPanel();
+        UIComponent child = find(panel, "tag3");
+
+        other.getChildren().add(child);
+
+        Assertions.assertNull(find(panel, "tag3"));
+        Assertions.assertSame(child, find(other, "tag3"));
+    }
+
+    @Test
+    public void testTagIdChanged()
+    {
+        UIPanel panel = createPanel(20);
+        UIComponent child = find(panel, "tag3");
+
+        child.getAttributes().put(MARK_CREATED, "changed");
+        Assertions.assertNull(find(panel, "tag3"));
+        Assertions.assertSame(child, find(panel, "changed"));
+
+        child.getAttributes().remove(MARK_CREATED);
+        Assertions.assertNull(find(panel, "changed"));
+    }
+
+    @Test
+    public void testDuplicateTagIdFindsFirst()
+    {
+        UIPanel panel = createPanel(20);
+        List<UIComponent> children = panel.getChildren();
+        UIOutput duplicate = createChild("tag4");
+        children.add(duplicate);
+
+        Assertions.assertSame(children.get(4), find(panel, "tag4"));
+
+        children.remove(4);
+        Assertions.assertSame(duplicate, find(panel, "tag4"));
+    }
+
+    @Test
+    public void testRemoveIf()
+    {
+        UIPanel panel = createPanel(20);
+        Assertions.assertNotNull(find(panel, "tag2"));
+
+        panel.getChildren().removeIf(child -> "tag2".equals(child.getAttributes().get(MARK_CREATED)));
+
+        Assertions.assertNull(find(panel, "tag2"));
+        Assertions.assertNotNull(find(panel, "tag3"));
+    }
+
+    @Test
+    public void testRemoveAllAndRetainAll()
+    {
+        UIPanel panel = createPanel(20);
+        List<UIComponent> children = panel.getChildren();
+        UIComponent tag2 = find(panel, "tag2");
+        UIComponent tag3 = find(panel, "tag3");
+
+        children.removeAll(Arrays.asList(tag2));
+        Assertions.assertNull(find(panel, "tag2"));
+        Assertions.assertNull(tag2.getParent());
+        Assertions.assertSame(tag3, find(panel, "tag3"));
+
+        UIComponent tag4 = find(panel, "tag4");
+        children.retainAll(Arrays.asList(tag3, tag4));
+        Assertions.assertEquals(2, children.size());
+        Assertions.assertNull(find(panel, "tag5"));
+        Assertions.assertSame(tag4, find(panel, "tag4"));
+    }
+
+    @Test
+    public void testSubList()
+    {
+        UIPanel panel = createPanel(20);
+        List<UIComponent> children = panel.getChildren();
+        UIComponent tag5 = find(panel, "tag5");
+        UIComponent tag6 = find(panel, "tag6");
+        UIComponent tag8 = find(panel, "tag8");
+
+        List<UIComponent> subList = children.subList(5, 10);
+        Assertions.assertSame(tag6, subList.get(1));
+
+        UIOutput replacement = createChild("tag6");
+        Assertions.assertSame(tag6, subList.set(1, replacement));
+        Assertions.assertNull(tag6.getParent());
+        Assertions.assertSame(panel, replacement.getParent());
+        Assertions.assertSame(replacement, find(panel, "tag6"));
+
+        Assertions.assertSame(tag8, subList.remove(3));
+        Assertions.assertNull(tag8.getParent());
+        Assertions.assertNull(find(panel, "tag8"));
+        Assertions.assertEquals(4, subList.size());
+
+        subList.subList(0, 1).clear();
+        Assertions.assertNull(tag5.getParent());
+        Assertions.assertNull(find(panel, "tag5"));
+        Assertions.assertEquals(3, subList.size());
+
+        subList.clear();
+        Assertions.assertEquals(15, children.size());
+        Assertions.assertNull(find(panel, "tag6"));
+        Assertions.assertSame(children.get(5), find(panel, "tag10"));
+    }
+}
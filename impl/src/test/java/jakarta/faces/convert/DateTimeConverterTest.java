@@ -20,6 +20,7 @@
 package jakarta.faces.convert;
 
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
@@ -105,4 +106,32 @@ public void testGetAsObject()
             Assertions.assertTrue(false, "this date should not be parsable - and it is, so this is wrong.");
         }
     }
+
+    @Test
+    public void testFormatCache()
+    {
+        UIInput input = new UIInput();
+        _FormatCache cache = _FormatCache.getInstance(facesContext);
+
+        mock.setType("localDate");
+        mock.setPattern("dd.MM.yyyy");
+        int size = cache.size();
+        Assertions.assertEquals("24.12.2020",
+                mock.getAsString(facesContext, input, LocalDate.of(2020, 12, 24)));
+        Assertions.assertEquals(size + 1, cache.size());
+        Assertions.assertEquals(LocalDate.of(2020, 12, 24),
+                mock.getAsObject(facesContext, input, "24.12.2020"));
+        Assertions.assertEquals(size + 1, cache.size());
+
+        // the cached DateFormat is only a prototype, the time zone is set on a copy
+        DateTimeConverter converter = new DateTimeConverter();
+        converter.setPattern("HH:mm");
+        converter.setTimeZone(TimeZone.getTimeZone("GMT"));
+        Date date = new Date(0);
+        Assertions.assertEquals("00:00", converter.getAsString(facesContext, input, date));
+        converter.setTimeZone(TimeZone.getTimeZone("GMT+02:00"));
+        Assertions.assertEquals("02:00", converter.getAsString(facesContext, input, date));
+        converter.setTimeZone(TimeZone.getTimeZone("GMT"));
+        Assertions.assertEquals("00:00", converter.getAsString(facesContext, input, date));
+    }
 }
@@ -245,4 +245,28 @@ public void testGetAsObjectParseIntOnly(){
             Assertions.fail();
         }
     }
+
+    @Test
+    public void testFormatCache()
+    {
+        facesContext.getViewRoot().setLocale(Locale.US);
+        UIInput input = new UIInput();
+        mock.setType("currency");
+        mock.setCurrencyCode("EUR");
+        mock.setMaxFractionDigits(1);
+
+        _FormatCache cache = _FormatCache.getInstance(facesContext);
+        int size = cache.size();
+        String stringValue = mock.getAsString(facesContext, input, 12345.68d);
+        Assertions.assertEquals(size + 1, cache.size());
+
+        // settings applied to the copy of the cached format must not leak into the next conversion
+        NumberConverter other = new NumberConverter();
+        other.setType("currency");
+        String otherValue = other.getAsString(facesContext, input, 12345.68d);
+        Assertions.assertEquals(size + 1, cache.size());
+        Assertions.assertEquals("$12,345.68", otherValue);
+
+        Assertions.assertEquals(stringValue, mock.getAsString(facesContext, input, 12345.68d));
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package jakarta.faces.validator;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.groups.Default;
+
+import org.apache.myfaces.test.base.junit.AbstractJsfTestCase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class _BeanValidatorCacheTest extends AbstractJsfTestCase
+{
+    public static class ConstrainedBean
+    {
+        @NotNull
+        private String name;
+
+        private String comment;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public String getComment()
+        {
+            return comment;
+        }
+    }
+
+    public static class UnconstrainedBean
+    {
+        private String name;
+
+        public String getName()
+        {
+            return name;
+        }
+    }
+
+    public interface Group
+    {
+    }
+
+    @Test
+    public void testBeanMetadata()
+    {
+        ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+        _BeanValidatorCache cache = _BeanValidatorCache.getInstance(facesContext);
+        Assertions.assertSame(cache, _BeanValidatorCache.getInstance(facesContext));
+
+        _BeanValidatorCache.BeanMetadata constrained = cache.getBeanMetadata(ConstrainedBean.class, validatorFactory);
+        Assertions.assertTrue(constrained.isConstrained());
+        Assertions.assertTrue(constrained.isPropertyConstrained("name"));
+        Assertions.assertFalse(constrained.isPropertyConstrained("comment"));
+        Assertions.assertSame(constrained, cache.getBeanMetadata(ConstrainedBean.class, validatorFactory));
+
+        _BeanValidatorCache.BeanMetadata unconstrained = cache.getBeanMetadata(UnconstrainedBean.class,
+                validatorFactory);
+        Assertions.assertFalse(unconstrained.isConstrained());
+        Assertions.assertFalse(unconstrained.isPropertyConstrained("name"));
+    }
+
+    @Test
+    public void testValidationGroups()
+    {
+        _BeanValidatorCache cache = _BeanValidatorCache.getInstance(facesContext);
+
+        Assertions.assertArrayEquals(new Class<?>[] { Default.class }, cache.getValidationGroups(null));
+        Assertions.assertArrayEquals(new Class<?>[] { Default.class }, cache.getValidationGroups(" , "));
+
+        Class<?>[] groups = cache.getValidationGroups(Group.class.getName() + ", " + Default.class.getName());
+        Assertions.assertArrayEquals(new Class<?>[] { Group.class, Default.class }, groups);
+        Assertions.assertSame(groups, cache.getValidationGroups(Group.class.getName() + ", "
+                + Default.class.getName()));
+
+        Assertions.assertThrows(RuntimeException.class, () -> cache.getValidationGroups("not.existing.Group"));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.application.viewstate;
+
+import java.util.Arrays;
+
+import jakarta.faces.FacesException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>This TestCase uses the Advanced Encryption Standard with
+ * Galois/Counter mode, which authenticates the state without a MAC.</p>
+ */
+public class CachedStateUtilsAES_GCMTest extends AbstractStateUtilsTest
+{
+    @Override
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        super.setUp();
+
+        servletContext.addInitParameter(StateUtils.INIT_SECRET, BASE64_KEY_SIZE_16);
+        servletContext.addInitParameter(StateUtils.INIT_ALGORITHM, "AES");
+        servletContext.addInitParameter(StateUtils.INIT_ALGORITHM_PARAM, "GCM/NoPadding");
+        servletContext.addInitParameter(StateUtils.INIT_MAC_SECRET, BASE64_KEY_SIZE_8);
+        servletContext.addInitParameter(StateUtils.COMPRESS_STATE_IN_CLIENT, "true");
+        StateUtils.initSecret(servletContext);
+    }
+
+    @Test
+    public void testNonceNotReused()
+    {
+        byte[] sensitiveBytes = sensitiveString.getBytes();
+        byte[] first = StateUtils.encrypt(sensitiveBytes, externalContext);
+        byte[] second = StateUtils.encrypt(sensitiveBytes, externalContext);
+
+        Assertions.assertTrue(ClientStateCrypto.getInstance(externalContext).isAead());
+        Assertions.assertFalse(Arrays.equals(first, second));
+        Assertions.assertArrayEquals(sensitiveBytes, StateUtils.decrypt(first, externalContext));
+        Assertions.assertArrayEquals(sensitiveBytes, StateUtils.decrypt(second, externalContext));
+    }
+
+    @Test
+    public void testTamperedStateRejected()
+    {
+        byte[] secure = StateUtils.encrypt(sensitiveString.getBytes(), externalContext);
+        secure[secure.length / 2] ^= 1;
+
+        Assertions.assertThrows(FacesException.class, () -> StateUtils.decrypt(secure, externalContext));
+    }
+
+    @Test
+    public void testStreamedStateMatchesEncrypt()
+    {
+        String constructed = StateUtils.construct(sensitiveString, externalContext);
+        byte[] secure = StateUtils.decode(constructed.getBytes());
+
+        // the streamed token can be decrypted as a whole
+        byte[] compressed = StateUtils.decrypt(secure, externalContext);
+        Assertions.assertEquals(sensitiveString,
+                StateUtils.getAsObject(StateUtils.decompress(compressed), externalContext));
+    }
+}
@@ -20,9 +20,16 @@
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import jakarta.faces.application.ProjectStage;
 import jakarta.faces.application.StateManager;
 
@@ -265,5 +272,128 @@ public void testStateKeySerialization3() throws Exception
         
         tryStateKeySerialization();
     }
-    
+
+    @Test
+    public void testViewStateStoreMemory() throws Exception
+    {
+        servletContext.addInitParameter(StateManager.STATE_SAVING_METHOD_PARAM_NAME, StateManager.STATE_SAVING_METHOD_SERVER);
+        servletContext.addInitParameter("org.apache.myfaces.NUMBER_OF_VIEWS_IN_SESSION", "1");
+        servletContext.addInitParameter("org.apache.myfaces.VIEW_STATE_STORE", "memory");
+
+        // Initialization
+        setupRequest();
+        StateCache stateCache = new StateCacheServerSide();
+        tearDownRequest();
+
+        Object firstSavedToken;
+        List<String> firstIds = new ArrayList<>();
+
+        try
+        {
+            setupRequest();
+
+            facesContext.getViewRoot().setViewId("view1.xhtml");
+            firstSavedToken = stateCache.saveSerializedView(facesContext, 1);
+
+            // only a reference to the store is kept in the session
+            SerializedViewCollection collection = (SerializedViewCollection) facesContext.getExternalContext()
+                    .getSessionMap().get(StateCacheServerSide.SERIALIZED_VIEW_SESSION_ATTR);
+            collection.forEachState(state ->
+            {
+                Assertions.assertInstanceOf(ViewStateStoreReference.class, state);
+                firstIds.add(((ViewStateStoreReference) state).getId());
+            });
+            Assertions.assertEquals(1, firstIds.size());
+        }
+        finally
+        {
+            tearDownRequest();
+        }
+
+        try
+        {
+            setupRequest();
+
+            Object value = stateCache.restoreSerializedView(facesContext, "view1.xhtml", firstSavedToken);
+            Assertions.assertEquals(1, value);
+
+            facesContext.getViewRoot().setViewId("view2.xhtml");
+            stateCache.saveSerializedView(facesContext, 2);
+
+            // the first view was discarded from the collection, so it must be removed from the store too
+            ViewStateStore store = ViewStateStore.getCurrentInstance(facesContext.getExternalContext());
+            Assertions.assertInstanceOf(ViewStateStoreMemory.class, store);
+            Assertions.assertNull(store.get(facesContext, firstIds.get(0)));
+        }
+        finally
+        {
+            tearDownRequest();
+        }
+    }
+
+    @Test
+    public void testViewStateStoreDisk() throws Exception
+    {
+        File directory = Files.createTempDirectory("oam-viewstate-test").toFile();
+        try
+        {
+            testViewStateStoreDisk(directory);
+        }
+        finally
+        {
+            try (Stream<Path> paths = Files.walk(directory.toPath()))
+            {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private void testViewStateStoreDisk(File directory) throws Exception
+    {
+        // the directory may be shared, files not written by the store must be kept
+        File foreign = new File(directory, "foreign.state");
+        Files.createFile(foreign.toPath());
+
+        servletContext.addInitParameter(StateManager.STATE_SAVING_METHOD_PARAM_NAME, StateManager.STATE_SAVING_METHOD_SERVER);
+        servletContext.addInitParameter("org.apache.myfaces.VIEW_STATE_STORE", "disk");
+        servletContext.addInitParameter("org.apache.myfaces.VIEW_STATE_STORE_DIRECTORY", directory.getAbsolutePath());
+
+        // Initialization
+        setupRequest();
+        StateCache stateCache = new StateCacheServerSide();
+        tearDownRequest();
+
+        Object savedToken;
+
+        try
+        {
+            setupRequest();
+
+            facesContext.getViewRoot().setViewId("view1.xhtml");
+            savedToken = stateCache.saveSerializedView(facesContext, new Object[] { "a", new byte[64 * 1024] });
+            File[] storeDirectories = directory.listFiles(File::isDirectory);
+            Assertions.assertEquals(1, storeDirectories.length);
+            Assertions.assertEquals(1, storeDirectories[0].listFiles().length);
+        }
+        finally
+        {
+            tearDownRequest();
+        }
+
+        try
+        {
+            setupRequest();
+
+            Object[] value = (Object[]) stateCache.restoreSerializedView(facesContext, "view1.xhtml", savedToken);
+            Assertions.assertEquals("a", value[0]);
+            Assertions.assertEquals(64 * 1024, ((byte[]) value[1]).length);
+
+            ViewStateStore.getCurrentInstance(facesContext.getExternalContext()).destroy(facesContext);
+            Assertions.assertArrayEquals(new File[] { foreign }, directory.listFiles());
+        }
+        finally
+        {
+            tearDownRequest();
+        }
+    }
 }
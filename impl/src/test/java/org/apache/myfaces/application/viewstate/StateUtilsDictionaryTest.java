@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.application.viewstate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import jakarta.faces.FacesException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the StateUtils tests with the preset dictionary compression enabled.
+ */
+public class StateUtilsDictionaryTest extends AbstractStateUtilsTest
+{
+    @Override
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        super.setUp();
+
+        servletContext.addInitParameter(StateUtils.INIT_SECRET, BASE64_KEY_SIZE_16);
+        servletContext.addInitParameter(StateUtils.INIT_SECRET_KEY_CACHE, "false");
+        servletContext.addInitParameter(StateUtils.INIT_MAC_SECRET, AbstractStateUtilsTest.BASE64_KEY_SIZE_8);
+        servletContext.addInitParameter(StateUtils.COMPRESS_STATE_IN_CLIENT, "true");
+        servletContext.addInitParameter(StateUtils.COMPRESS_STATE_IN_CLIENT_MODE,
+                StateUtils.COMPRESS_STATE_IN_CLIENT_MODE_DICTIONARY);
+        StateUtils.initSecret(servletContext);
+        StateUtils.initDictionary(facesContext);
+    }
+
+    @Test
+    public void testDictionaryCompression() throws IOException
+    {
+        byte[] original = ("java.util.HashMapjakarta.faces.component.UIComponentBase$PropertyKeys"
+                + "renderedstyleClassjakarta.faces.component.UIOutput$PropertyKeysvalue")
+                .getBytes(StandardCharsets.UTF_8);
+
+        ClientStateDictionary dictionary = ClientStateDictionary.getInstance(externalContext);
+        byte[] compressed = compress(dictionary, original);
+        Assertions.assertTrue(compressed.length < StateUtils.compress(original).length);
+        Assertions.assertTrue(Arrays.equals(original, decompress(dictionary, compressed)));
+    }
+
+    @Test
+    public void testOtherDictionaryRejected() throws IOException
+    {
+        byte[] original = "value".getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = compress(new ClientStateDictionary("other".getBytes(StandardCharsets.UTF_8)), original);
+
+        Assertions.assertThrows(FacesException.class,
+                () -> decompress(ClientStateDictionary.getInstance(externalContext), compressed));
+    }
+
+    private static byte[] compress(ClientStateDictionary dictionary, byte[] bytes) throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (OutputStream os = dictionary.compressingStream(baos))
+        {
+            os.write(bytes);
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] decompress(ClientStateDictionary dictionary, byte[] bytes) throws IOException
+    {
+        try (InputStream is = dictionary.decompressingStream(new ByteArrayInputStream(bytes)))
+        {
+            return is.readAllBytes();
+        }
+    }
+}
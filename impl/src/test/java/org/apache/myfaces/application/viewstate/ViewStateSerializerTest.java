@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.application.viewstate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.myfaces.spi.impl.BinarySerialFactory;
+import org.apache.myfaces.spi.impl.DefaultSerialFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ViewStateSerializerTest
+{
+    private Object createState()
+    {
+        Map<String, Object> map = new HashMap<>();
+        map.put("value", "Hello World");
+        map.put("rendered", Boolean.TRUE);
+        return new Object[] { "jakarta.faces.Input", map, new Object[] { 1, 2L, null } };
+    }
+
+    @Test
+    public void testCompressed() throws Exception
+    {
+        ViewStateSerializer serializer = new ViewStateSerializer(true);
+
+        // run it more than once, the second time the pooled deflater and buffer are reused
+        for (int i = 0; i < 3; i++)
+        {
+            byte[] bytes = serializer.serialize(createState());
+            Assertions.assertEquals(ViewStateSerializer.DEFLATE_FLAG, bytes[0]);
+
+            Object[] state = (Object[]) serializer.deserialize(bytes);
+            Assertions.assertEquals("jakarta.faces.Input", state[0]);
+            Assertions.assertEquals("Hello World", ((Map) state[1]).get("value"));
+        }
+
+        Assertions.assertEquals(3, serializer.getSerializeCount());
+        Assertions.assertEquals(3, serializer.getDeserializeCount());
+        Assertions.assertTrue(serializer.getSerializedBytes() > 0);
+    }
+
+    @Test
+    public void testUncompressed() throws Exception
+    {
+        ViewStateSerializer serializer = new ViewStateSerializer(false);
+
+        byte[] bytes = serializer.serialize(createState());
+        Assertions.assertEquals(ViewStateSerializer.UNCOMPRESSED_FLAG, bytes[0]);
+
+        Object[] state = (Object[]) serializer.deserialize(bytes);
+        Assertions.assertEquals(2L, ((Object[]) state[2])[1]);
+    }
+
+    @Test
+    public void testBigState() throws Exception
+    {
+        ViewStateSerializer serializer = new ViewStateSerializer(true);
+
+        byte[] big = new byte[1024 * 1024];
+        big[big.length - 1] = 7;
+        byte[] bytes = serializer.serialize(new Object[] { big });
+        Object[] state = (Object[]) serializer.deserialize(bytes);
+        Assertions.assertEquals(7, ((byte[]) state[0])[big.length - 1]);
+
+        // the pooled buffer was replaced by a small one, but serialization still works
+        Assertions.assertNotNull(serializer.deserialize(serializer.serialize(createState())));
+    }
+
+    @Test
+    public void testReadGzipState() throws Exception
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(ViewStateSerializer.GZIP_FLAG);
+        try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(baos)))
+        {
+            out.writeObject(createState());
+        }
+
+        Object[] state = (Object[]) new ViewStateSerializer(true).deserialize(baos.toByteArray());
+        Assertions.assertEquals("jakarta.faces.Input", state[0]);
+    }
+
+    @Test
+    public void testDefaultSerialFactory() throws Exception
+    {
+        DefaultSerialFactory serialFactory = new DefaultSerialFactory();
+
+        byte[] bytes = new ViewStateSerializer(false, serialFactory).serialize(createState());
+        Assertions.assertArrayEquals(serialFactory.toByteArray(createState()),
+                Arrays.copyOfRange(bytes, 1, bytes.length));
+
+        ViewStateSerializer serializer = new ViewStateSerializer(true, serialFactory);
+        Object[] state = (Object[]) serializer.deserialize(serializer.serialize(createState()));
+        Assertions.assertEquals("Hello World", ((Map) state[1]).get("value"));
+    }
+
+    @Test
+    public void testBinarySerialFactory() throws Exception
+    {
+        ViewStateSerializer serializer = new ViewStateSerializer(true, new BinarySerialFactory());
+        Object[] state = (Object[]) serializer.deserialize(serializer.serialize(createState()));
+        Assertions.assertEquals("Hello World", ((Map) state[1]).get("value"));
+        Assertions.assertEquals(2L, ((Object[]) state[2])[1]);
+    }
+
+    @Test
+    public void testSerialFactoryOverridingToByteArray() throws Exception
+    {
+        int[] calls = new int[2];
+        DefaultSerialFactory serialFactory = new DefaultSerialFactory()
+        {
+            @Override
+            public byte[] toByteArray(Object object) throws IOException
+            {
+                calls[0]++;
+                return super.toByteArray(object);
+            }
+
+            @Override
+            public Object toObject(byte[] bytes) throws IOException, ClassNotFoundException
+            {
+                calls[1]++;
+                return super.toObject(bytes);
+            }
+        };
+
+        ViewStateSerializer serializer = new ViewStateSerializer(true, serialFactory);
+        Object[] state = (Object[]) serializer.deserialize(serializer.serialize(createState()));
+        Assertions.assertEquals("jakarta.faces.Input", state[0]);
+        Assertions.assertArrayEquals(new int[] { 1, 1 }, calls);
+    }
+}
@@ -27,6 +27,7 @@
 import jakarta.faces.application.StateManager;
 import jakarta.faces.component.ContextCallback;
 import jakarta.faces.component.UIComponent;
+import jakarta.faces.component.UIData;
 import jakarta.faces.component.UIOutput;
 import jakarta.faces.component.search.ComponentNotFoundException;
 import jakarta.faces.component.search.SearchExpressionContext;
@@ -323,6 +324,101 @@ public void testResolveClientIds1() throws Exception
         }
     }
 
+    @Test
+    public void testResolveClientIdsInRows() throws Exception
+    {
+        startViewRequest("/search1.xhtml");
+        processLifecycleExecute();
+        executeBeforeRender();
+        executeBuildViewCycle();
+
+        SearchExpressionHandler handler = facesContext.getApplication().getSearchExpressionHandler();
+
+        UIData table = (UIData) facesContext.getViewRoot().findComponent("mainForm:table");
+        UIComponent baseText = table.findComponent("baseText");
+        SearchExpressionContext searchContext =
+                SearchExpressionContext.createSearchExpressionContext(facesContext, baseText);
+
+        // resolved once, the components are reused for the other rows
+        for (int i = 0; i < 3; i++)
+        {
+            table.setRowIndex(i);
+            Assertions.assertEquals(List.of("mainForm:table:" + i + ":baseText", "mainForm",
+                    "mainForm:table:" + i + ":nestedText"),
+                    handler.resolveClientIds(searchContext, "@this @form nestedText"));
+        }
+        table.setRowIndex(-1);
+    }
+
+    @Test
+    public void testResolveClientIdsAfterRemove() throws Exception
+    {
+        startViewRequest("/search1.xhtml");
+        processLifecycleExecute();
+        executeBeforeRender();
+        executeBuildViewCycle();
+
+        SearchExpressionHandler handler = facesContext.getApplication().getSearchExpressionHandler();
+
+        UIComponent label = facesContext.getViewRoot().findComponent("mainForm:labelName");
+        Set<SearchExpressionHint> expressionHints = new HashSet<>();
+        expressionHints.add(SearchExpressionHint.IGNORE_NO_RESULT);
+        SearchExpressionContext searchContext =
+                SearchExpressionContext.createSearchExpressionContext(facesContext, label, expressionHints, null);
+
+        Assertions.assertEquals(List.of("mainForm:showName"), handler.resolveClientIds(searchContext, "showName"));
+
+        UIComponent showName = facesContext.getViewRoot().findComponent("mainForm:showName");
+        showName.getParent().getChildren().remove(showName);
+
+        Assertions.assertTrue(handler.resolveClientIds(searchContext, "showName").isEmpty());
+    }
+
+    @Test
+    public void testResolveClientIdsAfterAdd() throws Exception
+    {
+        startViewRequest("/search1.xhtml");
+        processLifecycleExecute();
+        executeBeforeRender();
+        executeBuildViewCycle();
+
+        SearchExpressionHandler handler = facesContext.getApplication().getSearchExpressionHandler();
+
+        UIComponent label = facesContext.getViewRoot().findComponent("mainForm:labelName");
+        Set<SearchExpressionHint> expressionHints = new HashSet<>();
+        expressionHints.add(SearchExpressionHint.IGNORE_NO_RESULT);
+        SearchExpressionContext searchContext =
+                SearchExpressionContext.createSearchExpressionContext(facesContext, label, expressionHints, null);
+
+        Assertions.assertTrue(handler.resolveClientIds(searchContext, "addedText").isEmpty());
+        String next = handler.resolveClientId(searchContext, "@next");
+
+        UIOutput added = new UIOutput();
+        added.setId("addedText");
+        List<UIComponent> children = label.getParent().getChildren();
+        children.add(children.indexOf(label) + 1, added);
+
+        Assertions.assertEquals(List.of("mainForm:addedText"), handler.resolveClientIds(searchContext, "addedText"));
+        Assertions.assertEquals("mainForm:addedText", handler.resolveClientId(searchContext, "@next"));
+        Assertions.assertNotEquals(next, handler.resolveClientId(searchContext, "@next"));
+    }
+
+    @Test
+    public void testSplitExpressions() throws Exception
+    {
+        startViewRequest("/search1.xhtml");
+
+        SearchExpressionHandler handler = facesContext.getApplication().getSearchExpressionHandler();
+
+        String[] expressions = handler.splitExpressions(facesContext, "@this, @form :mainForm:name");
+        Assertions.assertArrayEquals(new String[] {"@this", "@form", ":mainForm:name"}, expressions);
+
+        // the cached result is not exposed
+        expressions[0] = "@parent";
+        Assertions.assertArrayEquals(new String[] {"@this", "@form", ":mainForm:name"},
+                handler.splitExpressions(facesContext, "@this, @form :mainForm:name"));
+    }
+
     @Test
     public void testIsValid() throws Exception
     {
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.core.api.shared.lang;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CompactMapTest
+{
+    private enum PropertyKeys
+    {
+        value, rendered, styleClass
+    }
+
+    @Test
+    public void testNullValues()
+    {
+        Map<Object, Object> map = new CompactMap<>();
+
+        Assertions.assertNull(map.put(PropertyKeys.value, null));
+        Assertions.assertTrue(map.containsKey(PropertyKeys.value));
+        Assertions.assertNull(map.get(PropertyKeys.value));
+        Assertions.assertEquals(1, map.size());
+
+        Assertions.assertNull(map.put(PropertyKeys.value, "a"));
+        Assertions.assertEquals("a", map.put(PropertyKeys.value, "b"));
+        Assertions.assertEquals("b", map.remove(PropertyKeys.value));
+        Assertions.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testIteratorRemove()
+    {
+        Map<Object, Object> map = new CompactMap<>();
+        map.put(PropertyKeys.value, 1);
+        map.put(PropertyKeys.rendered, 2);
+        map.put(PropertyKeys.styleClass, 3);
+
+        Iterator<Map.Entry<Object, Object>> it = map.entrySet().iterator();
+        while (it.hasNext())
+        {
+            if (it.next().getKey() == PropertyKeys.rendered)
+            {
+                it.remove();
+            }
+        }
+
+        Assertions.assertEquals(Map.of(PropertyKeys.value, 1, PropertyKeys.styleClass, 3), map);
+    }
+
+    @Test
+    public void testOverflow()
+    {
+        Map<Object, Object> map = new CompactMap<>();
+        Map<Object, Object> expected = new HashMap<>();
+        for (int i = 0; i < CompactMap.MAX_ARRAY_SIZE * 2; i++)
+        {
+            map.put("key" + i, i);
+            expected.put("key" + i, i);
+        }
+
+        Assertions.assertEquals(expected, map);
+        Assertions.assertEquals(5, map.remove("key5"));
+        Assertions.assertFalse(map.containsKey("key5"));
+        Assertions.assertEquals(CompactMap.MAX_ARRAY_SIZE * 2 - 1, map.size());
+
+        map.clear();
+        Assertions.assertTrue(map.isEmpty());
+        map.put("key", "value");
+        Assertions.assertEquals("value", map.get("key"));
+    }
+
+    @Test
+    public void testSerialization() throws Exception
+    {
+        CompactMap<Object, Object> small = new CompactMap<>();
+        small.put(PropertyKeys.value, "a");
+        small.put(PropertyKeys.rendered, null);
+        CompactMap<Object, Object> large = new CompactMap<>();
+        for (int i = 0; i < CompactMap.MAX_ARRAY_SIZE * 2; i++)
+        {
+            large.put("key" + i, i);
+        }
+
+        Assertions.assertEquals(small, serializeAndDeserialize(small));
+        Assertions.assertEquals(large, serializeAndDeserialize(large));
+        Assertions.assertEquals(new CompactMap<>(), serializeAndDeserialize(new CompactMap<>()));
+    }
+
+    private static Object serializeAndDeserialize(Object object) throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            return in.readObject();
+        }
+    }
+}
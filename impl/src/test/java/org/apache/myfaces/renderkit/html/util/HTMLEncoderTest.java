@@ -379,6 +379,41 @@ public void testWriteURIAttribute() throws Exception
       //assertEquals(cad14,cad15);
   }
     
+  @Test
+  public void testEncodeUnchangedReturnsSameString() throws Exception {
+    MockFacesContext facesContext = new MockFacesContext();
+    String[] unchanged = {"", "j_id_1:form:table:0:name", "ui-button ui-widget ui-state-default",
+        "Hello, this is MyFaces speaking!", "tab\tand\r\nnewline"};
+    for (String string : unchanged) {
+      Assertions.assertSame(string, HTMLEncoder.encode(facesContext, string, false, true, true));
+    }
+    String uri = "/context/faces/page.xhtml;jsessionid=1234";
+    Assertions.assertSame(uri, HTMLEncoder.encodeURIAttribute(facesContext, uri, "UTF-8"));
+  }
+
+  @Test
+  public void testEncodeEscapesAfterUnchangedRun() throws Exception {
+    // the first characters to encode are found by a scan, the rest is encoded as before
+    MockFacesContext facesContext = new MockFacesContext();
+    Assertions.assertEquals("id&amp;x&lt;", HTMLEncoder.encode(facesContext, "id&x<"));
+    Assertions.assertEquals("a &#160;b", HTMLEncoder.encode(facesContext, "a  b", false, true, true));
+    Assertions.assertEquals("&#160;a", HTMLEncoder.encode(facesContext, " a", false, true, true));
+    Assertions.assertEquals("line<br/>next", HTMLEncoder.encode(facesContext, "line\nnext", true));
+    Assertions.assertEquals("ctrl", HTMLEncoder.encode(facesContext, "ct\u0001rl"));
+    Assertions.assertEquals("Hell&ouml;", HTMLEncoder.encode(facesContext, "Hell\u00F6", false, false, true));
+    Assertions.assertEquals("Hell\u00F6", HTMLEncoder.encode(facesContext, "Hell\u00F6", false, false, false));
+
+    CharArrayWriter writer = new CharArrayWriter();
+    HTMLEncoder.encode("xx<\"Hi\">xx".toCharArray(), 2, 6, false, false, true, writer);
+    Assertions.assertEquals("&lt;&quot;Hi&quot;&gt;", writer.toString());
+
+    writer = new CharArrayWriter();
+    HTMLEncoder.encodeURIAttribute(writer, "/page.xhtml?a=b c", "UTF-8");
+    Assertions.assertEquals("/page.xhtml?a=b%20c", writer.toString());
+    Assertions.assertEquals("/page.xhtml?", HTMLEncoder.encodeURIAttribute(facesContext, "/page.xhtml?", "UTF-8"));
+    Assertions.assertEquals("/a%41b", HTMLEncoder.encodeURIAttribute(facesContext, "/a%41b", "UTF-8"));
+  }
+
   private void assertCharArrayEquals(char[] expected, char[] actual) {
     if ((expected == null ^ actual == null) || expected.length != actual.length) {
       Assertions.fail();
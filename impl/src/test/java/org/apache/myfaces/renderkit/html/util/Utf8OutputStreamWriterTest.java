@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.renderkit.html.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.myfaces.renderkit.html.HtmlResponseWriterImpl;
+import org.apache.myfaces.test.base.junit.AbstractJsfTestCase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class Utf8OutputStreamWriterTest extends AbstractJsfTestCase
+{
+    private static final String TEXT = "<p>h\u00E1llo \u20AC \uD83D\uDE00</p>";
+
+    @Test
+    public void testEncoding() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // a small buffer, so it is flushed in the middle of multi byte characters
+        Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(out, 4);
+
+        writer.write(TEXT);
+        writer.write(TEXT.toCharArray(), 1, 5);
+        writer.write('\u00E1');
+        writer.flush();
+
+        String expected = TEXT + TEXT.substring(1, 6) + '\u00E1';
+        Assertions.assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    public void testSurrogatePairSplitAcrossWrites() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(out);
+
+        writer.write('\uD83D');
+        writer.write("\uDE00");
+        // malformed surrogates, as an OutputStreamWriter does
+        writer.write("\uDE00a\uD83D");
+        writer.close();
+
+        Assertions.assertArrayEquals("\uD83D\uDE00?a?".getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    public void testWritePreEncoded() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(out, 8);
+        PreEncodedText text = new PreEncodedText(TEXT);
+
+        writer.write("a");
+        writer.writePreEncoded(text);
+        writer.writePreEncoded(new PreEncodedText("\u00E1"));
+        writer.write("b");
+        writer.flush();
+
+        Assertions.assertArrayEquals(("a" + TEXT + "\u00E1b").getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    public void testResponseWriter() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(out);
+        HtmlResponseWriterImpl responseWriter = new HtmlResponseWriterImpl(writer, "text/html", "UTF-8");
+        Assertions.assertTrue(responseWriter.isPreEncodedOutput());
+
+        responseWriter.startElement("div", null);
+        responseWriter.writePreEncoded(new PreEncodedText("<span>\u00E1</span>"));
+        responseWriter.endElement("div");
+        writer.flush();
+
+        Assertions.assertEquals("<div><span>\u00E1</span></div>", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testResponseWriterNotUtf8() throws Exception
+    {
+        StringWriter out = new StringWriter();
+        HtmlResponseWriterImpl responseWriter = new HtmlResponseWriterImpl(out, "text/html", "ISO-8859-1");
+        Assertions.assertFalse(responseWriter.isPreEncodedOutput());
+
+        responseWriter.writePreEncoded(new PreEncodedText("<span>\u20AC</span>"));
+
+        Assertions.assertEquals("<span>&#8364;</span>", out.toString());
+    }
+}
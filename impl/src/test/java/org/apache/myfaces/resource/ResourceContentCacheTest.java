@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.resource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ResourceContentCacheTest
+{
+    private final ResourceContentCache.Content content = new ResourceContentCache.Content(
+            new byte[100], new byte[20], null, "\"abc\"");
+
+    @Test
+    public void testNegotiateEncoding()
+    {
+        Assertions.assertEquals(ResourceContentCache.GZIP, content.negotiateEncoding("gzip, deflate, br"));
+        Assertions.assertEquals(ResourceContentCache.GZIP, content.negotiateEncoding("*"));
+        Assertions.assertNull(content.negotiateEncoding("gzip;q=0, deflate"));
+        Assertions.assertNull(content.negotiateEncoding("br"));
+        Assertions.assertNull(content.negotiateEncoding(null));
+    }
+
+    @Test
+    public void testETag()
+    {
+        Assertions.assertEquals("\"abc\"", content.getETag(null));
+        Assertions.assertEquals("\"abc-gzip\"", content.getETag(ResourceContentCache.GZIP));
+
+        Assertions.assertTrue(content.matches("\"abc\""));
+        Assertions.assertTrue(content.matches("W/\"xyz\", \"abc-gzip\""));
+        Assertions.assertTrue(content.matches("*"));
+        Assertions.assertFalse(content.matches("\"abcd\""));
+        Assertions.assertFalse(content.matches(null));
+    }
+
+    @Test
+    public void testCompressible()
+    {
+        Assertions.assertTrue(ResourceContentCache.isCompressible("text/css"));
+        Assertions.assertTrue(ResourceContentCache.isCompressible("application/javascript;charset=UTF-8"));
+        Assertions.assertFalse(ResourceContentCache.isCompressible("image/png"));
+        Assertions.assertFalse(ResourceContentCache.isCompressible(null));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.spi.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.faces.component.UIComponentBase;
+import jakarta.faces.component.UIOutput;
+import jakarta.faces.convert.DateTimeConverter;
+
+import org.apache.myfaces.test.base.junit.AbstractJsfTestCase;
+import org.apache.myfaces.util.lang.FastByteArrayInputStream;
+import org.apache.myfaces.util.lang.FastByteArrayOutputStream;
+import org.apache.myfaces.view.facelets.AttachedFullStateWrapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BinarySerialFactoryTest extends AbstractJsfTestCase
+{
+    enum PropertyKeys
+    {
+        value, rendered
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception
+    {
+        Map<Object, Object> map = new HashMap<>();
+        map.put(PropertyKeys.value, "Hello World");
+        map.put(PropertyKeys.rendered, Boolean.FALSE);
+        map.put("int", -5);
+        map.put("long", Long.MIN_VALUE);
+        map.put("double", 3.5d);
+        map.put("char", 'z');
+        List<Object> list = new ArrayList<>();
+        list.add("Hello World");
+        list.add(null);
+
+        Object[] state = new Object[] { "Hello World", map, list, new Date(0),
+            new AttachedFullStateWrapper(new Object[] { null, Integer.MAX_VALUE }), UIOutput.class };
+
+        BinarySerialFactory factory = new BinarySerialFactory();
+        Object[] restored = (Object[]) factory.toObject(factory.toByteArray(state));
+
+        Assertions.assertEquals("Hello World", restored[0]);
+        Assertions.assertEquals(map, restored[1]);
+        Assertions.assertEquals(list, restored[2]);
+        Assertions.assertEquals(new Date(0), restored[3]);
+        Assertions.assertArrayEquals(new Object[] { null, Integer.MAX_VALUE },
+                (Object[]) ((AttachedFullStateWrapper) restored[4]).getWrappedStateObject());
+        Assertions.assertEquals(UIOutput.class, restored[5]);
+    }
+
+    @Test
+    public void testAttachedState() throws Exception
+    {
+        DateTimeConverter converter = new DateTimeConverter();
+        converter.setPattern("dd.MM.yyyy");
+        Object attached = UIComponentBase.saveAttachedState(facesContext, converter);
+
+        BinarySerialFactory factory = new BinarySerialFactory();
+        Object restored = factory.toObject(factory.toByteArray(attached));
+
+        DateTimeConverter restoredConverter = (DateTimeConverter)
+                UIComponentBase.restoreAttachedState(facesContext, restored);
+        Assertions.assertEquals("dd.MM.yyyy", restoredConverter.getPattern());
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() throws Exception
+    {
+        Object[] state = new Object[20];
+        for (int i = 0; i < state.length; i++)
+        {
+            Map<Object, Object> map = new HashMap<>();
+            map.put(PropertyKeys.value, "text");
+            map.put(PropertyKeys.rendered, Boolean.TRUE);
+            state[i] = new Object[] { map, null };
+        }
+
+        byte[] binary = new BinarySerialFactory().toByteArray(state);
+        byte[] java = new DefaultSerialFactory().toByteArray(state);
+        Assertions.assertTrue(binary.length < java.length);
+    }
+
+    @Test
+    public void testReadJavaSerialization() throws Exception
+    {
+        byte[] java = new DefaultSerialFactory().toByteArray(new Object[] { "a", 1 });
+        Object[] restored = (Object[]) new BinarySerialFactory().toObject(java);
+        Assertions.assertArrayEquals(new Object[] { "a", 1 }, restored);
+    }
+
+    @Test
+    public void testSharedReferencesAndCycles() throws Exception
+    {
+        List<Object> shared = new ArrayList<>();
+        shared.add("shared");
+        Object[] state = new Object[] { shared, shared, null };
+        state[2] = state;
+
+        BinarySerialFactory factory = new BinarySerialFactory();
+        Object[] restored = (Object[]) factory.toObject(factory.toByteArray(state));
+
+        Assertions.assertEquals(shared, restored[0]);
+        Assertions.assertSame(restored[0], restored[1]);
+        Assertions.assertSame(restored, restored[2]);
+    }
+
+    @Test
+    public void testClassesResolvedByObjectInputStream() throws Exception
+    {
+        List<String> resolved = new ArrayList<>();
+        BinarySerialFactory factory = new BinarySerialFactory()
+        {
+            @Override
+            protected ObjectInputStream getObjectInputStream(InputStream inputStream) throws IOException
+            {
+                return new ObjectInputStream(inputStream)
+                {
+                    @Override
+                    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException,
+                            ClassNotFoundException
+                    {
+                        resolved.add(desc.getName());
+                        return super.resolveClass(desc);
+                    }
+                };
+            }
+        };
+
+        Object[] restored = (Object[]) factory.toObject(factory.toByteArray(
+                new Object[] { PropertyKeys.value, PropertyKeys.value, UIOutput.class }));
+
+        Assertions.assertSame(PropertyKeys.value, restored[0]);
+        Assertions.assertSame(PropertyKeys.value, restored[1]);
+        Assertions.assertEquals(UIOutput.class, restored[2]);
+        Assertions.assertTrue(resolved.contains(PropertyKeys.class.getName()), resolved.toString());
+    }
+
+    @Test
+    public void testStreamRoundTrip() throws Exception
+    {
+        Object[] state = new Object[] { PropertyKeys.rendered, "Hello World", new Object[] { PropertyKeys.rendered } };
+
+        BinarySerialFactory factory = new BinarySerialFactory();
+        FastByteArrayOutputStream out = new FastByteArrayOutputStream(1024);
+        factory.writeObject(state, out);
+        byte[] bytes = Arrays.copyOf(out.getByteArray(), out.getSize());
+        Assertions.assertArrayEquals(factory.toByteArray(state), bytes);
+
+        Object[] restored = (Object[]) factory.readObject(new FastByteArrayInputStream(bytes));
+        Assertions.assertSame(PropertyKeys.rendered, restored[0]);
+        Assertions.assertEquals("Hello World", restored[1]);
+        Assertions.assertSame(PropertyKeys.rendered, ((Object[]) restored[2])[0]);
+
+        byte[] java = new DefaultSerialFactory().toByteArray(state);
+        restored = (Object[]) factory.readObject(new FastByteArrayInputStream(java));
+        Assertions.assertSame(PropertyKeys.rendered, restored[0]);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.util.lang;
+
+import java.util.function.Supplier;
+
+import jakarta.faces.FacesException;
+import jakarta.faces.component.UIComponent;
+import jakarta.faces.component.UIOutput;
+import jakarta.faces.convert.NumberConverter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class InstanceSuppliersTest
+{
+    public static class FailingConstructor
+    {
+        public FailingConstructor()
+        {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    public static class NoDefaultConstructor
+    {
+        public NoDefaultConstructor(String value)
+        {
+        }
+    }
+
+    public static class PrivateConstructor
+    {
+        private PrivateConstructor()
+        {
+        }
+    }
+
+    @Test
+    public void testCreate()
+    {
+        Supplier<UIOutput> supplier = InstanceSuppliers.create(UIOutput.class);
+
+        UIOutput first = supplier.get();
+        UIOutput second = supplier.get();
+        Assertions.assertNotNull(first);
+        Assertions.assertNotSame(first, second);
+
+        Assertions.assertTrue(InstanceSuppliers.create(NumberConverter.class).get() instanceof NumberConverter);
+    }
+
+    @Test
+    public void testCreateReflective()
+    {
+        Supplier<UIOutput> supplier = InstanceSuppliers.createReflective(UIOutput.class);
+
+        Assertions.assertNotSame(supplier.get(), supplier.get());
+    }
+
+    @Test
+    public void testConstructorException()
+    {
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> InstanceSuppliers.create(FailingConstructor.class).get());
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> InstanceSuppliers.createReflective(FailingConstructor.class).get());
+    }
+
+    @Test
+    public void testNotInstantiable()
+    {
+        // the supplier is created anyway, it fails when used
+        Supplier<UIComponent> abstractSupplier = InstanceSuppliers.create(UIComponent.class);
+        Assertions.assertThrows(FacesException.class, abstractSupplier::get);
+
+        Supplier<NoDefaultConstructor> supplier = InstanceSuppliers.create(NoDefaultConstructor.class);
+        Assertions.assertThrows(FacesException.class, supplier::get);
+    }
+
+    @Test
+    public void testPrivateConstructor()
+    {
+        Assertions.assertThrows(NoSuchMethodException.class,
+                () -> InstanceSuppliers.createLambda(PrivateConstructor.class));
+        Assertions.assertThrows(FacesException.class, () -> InstanceSuppliers.create(PrivateConstructor.class).get());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FaceletsPrecompilerTest
+{
+    @Test
+    public void testAllIncludedByDefault()
+    {
+        FaceletsPrecompiler precompiler = new FaceletsPrecompiler(null, " ", 1);
+
+        Assertions.assertTrue(precompiler.isIncluded("/index.xhtml"));
+        Assertions.assertTrue(precompiler.isIncluded("/resources/cc/input.xhtml"));
+    }
+
+    @Test
+    public void testIncludesAndExcludes()
+    {
+        FaceletsPrecompiler precompiler = new FaceletsPrecompiler("/admin/.*", ".*/debug.*", 1);
+
+        Assertions.assertTrue(precompiler.isIncluded("/admin/users.xhtml"));
+        Assertions.assertFalse(precompiler.isIncluded("/index.xhtml"));
+        Assertions.assertFalse(precompiler.isIncluded("/admin/debug.xhtml"));
+    }
+}
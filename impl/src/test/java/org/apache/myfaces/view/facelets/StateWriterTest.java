@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets;
+
+import java.io.StringWriter;
+
+import org.apache.myfaces.application.ViewHandlerImpl;
+import org.apache.myfaces.test.base.junit.AbstractJsfTestCase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class StateWriterTest extends AbstractJsfTestCase
+{
+    private static final String MARKER = ViewHandlerImpl.FORM_STATE_MARKER;
+
+    @Test
+    public void testWriteBufferedContent() throws Exception
+    {
+        StringWriter out = new StringWriter();
+        StateWriter stateWriter = new StateWriter(out, 16, facesContext);
+
+        stateWriter.write("<html><form>");
+        stateWriter.writingState();
+        stateWriter.write(MARKER);
+        stateWriter.write("</form><form>");
+        // not split, found by searching the segment
+        stateWriter.write(MARKER.toCharArray());
+        stateWriter.write("</form>");
+        stateWriter.write(MARKER, 0, MARKER.length());
+        stateWriter.write("</html>");
+
+        Assertions.assertEquals("<html><form>", out.toString());
+
+        stateWriter.writeBufferedContent(out, () -> stateWriter.write("STATE"));
+
+        Assertions.assertEquals("<html><form>STATE</form><form>STATE</form>STATE</html>", out.toString());
+        stateWriter.release(facesContext);
+    }
+
+    @Test
+    public void testWriteBufferedContentWithoutState() throws Exception
+    {
+        StringWriter out = new StringWriter();
+        StateWriter stateWriter = new StateWriter(out, 16, facesContext);
+
+        stateWriter.writingState();
+        stateWriter.write("<form>");
+        stateWriter.write(MARKER);
+        stateWriter.write("</form>");
+
+        stateWriter.writeBufferedContent(out, () -> { });
+
+        Assertions.assertEquals("<form></form>", out.toString());
+        stateWriter.release(facesContext);
+    }
+
+    @Test
+    public void testGetAndResetBuffer() throws Exception
+    {
+        StringWriter out = new StringWriter();
+        StateWriter stateWriter = new StateWriter(out, 16, facesContext);
+
+        stateWriter.writingState();
+        stateWriter.write("<form>");
+        stateWriter.write(MARKER);
+        stateWriter.write("</form>");
+
+        Assertions.assertEquals("<form>" + MARKER + "</form>", stateWriter.getAndResetBuffer());
+        Assertions.assertEquals("", stateWriter.getAndResetBuffer());
+
+        stateWriter.write("STATE");
+        Assertions.assertEquals("STATE", stateWriter.getAndResetBuffer());
+        Assertions.assertEquals("", out.toString());
+        stateWriter.release(facesContext);
+    }
+}
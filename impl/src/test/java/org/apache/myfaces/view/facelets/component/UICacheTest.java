@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets.component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import jakarta.faces.component.UIComponentBase;
+import jakarta.faces.context.FacesContext;
+
+import org.apache.myfaces.renderkit.html.HtmlResponseWriterImpl;
+import org.apache.myfaces.renderkit.html.util.PreEncodedText;
+import org.apache.myfaces.test.base.junit.AbstractJsfTestCase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class UICacheTest extends AbstractJsfTestCase
+{
+    private static class CountingComponent extends UIComponentBase
+    {
+        private int encoded;
+
+        @Override
+        public String getFamily()
+        {
+            return "test";
+        }
+
+        @Override
+        public void encodeBegin(FacesContext context) throws IOException
+        {
+            encoded++;
+            context.getResponseWriter().startElement("span", this);
+            context.getResponseWriter().writeText("a<b", null);
+            context.getResponseWriter().endElement("span");
+        }
+    }
+
+    private String encode(UICache cache) throws IOException
+    {
+        StringWriter out = new StringWriter();
+        facesContext.setResponseWriter(new HtmlResponseWriterImpl(out, "text/html", "UTF-8"));
+        facesContext.getResponseWriter().startElement("div", null);
+        cache.encodeAll(facesContext);
+        facesContext.getResponseWriter().endElement("div");
+        facesContext.getResponseWriter().flush();
+        return out.toString();
+    }
+
+    private static UICache createCache(String key, CountingComponent child)
+    {
+        UICache cache = new UICache();
+        cache.setKey(key);
+        cache.getChildren().add(child);
+        return cache;
+    }
+
+    @Test
+    public void testCachedMarkupIsReused() throws Exception
+    {
+        CountingComponent child = new CountingComponent();
+        UICache cache = createCache("menu", child);
+
+        String first = encode(cache);
+        Assertions.assertEquals("<div><span>a&lt;b</span></div>", first);
+        Assertions.assertEquals(first, encode(cache));
+        Assertions.assertEquals(1, child.encoded);
+
+        // another view with the same key
+        CountingComponent otherChild = new CountingComponent();
+        Assertions.assertEquals(first, encode(createCache("menu", otherChild)));
+        Assertions.assertEquals(0, otherChild.encoded);
+    }
+
+    @Test
+    public void testDisabledAndSessionScope() throws Exception
+    {
+        CountingComponent child = new CountingComponent();
+        UICache cache = createCache("footer", child);
+
+        cache.setDisabled(true);
+        encode(cache);
+        encode(cache);
+        Assertions.assertEquals(2, child.encoded);
+
+        cache.setDisabled(false);
+        cache.setScope("session");
+        encode(cache);
+        encode(cache);
+        Assertions.assertEquals(3, child.encoded);
+        Assertions.assertNull(FragmentCache.get(facesContext, false, "footer"));
+        Assertions.assertNotNull(FragmentCache.get(facesContext, true, "footer"));
+    }
+
+    @Test
+    public void testTimeToLive()
+    {
+        PreEncodedText markup = new PreEncodedText("x");
+
+        Assertions.assertFalse(new FragmentCache.Fragment(markup, 0).isExpired(Long.MAX_VALUE));
+        Assertions.assertFalse(new FragmentCache.Fragment(markup, 1000).isExpired(999));
+        Assertions.assertTrue(new FragmentCache.Fragment(markup, 1000).isExpired(1000));
+    }
+}
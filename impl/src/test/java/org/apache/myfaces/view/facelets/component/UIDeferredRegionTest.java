@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets.component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+
+import jakarta.faces.component.UIComponentBase;
+import jakarta.faces.component.html.HtmlBody;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.context.ResponseWriterWrapper;
+
+import org.apache.myfaces.renderkit.html.HtmlBodyRenderer;
+import org.apache.myfaces.renderkit.html.HtmlResponseWriterImpl;
+import org.apache.myfaces.test.base.junit.AbstractJsfTestCase;
+import org.apache.myfaces.test.mock.MockHttpServletResponse;
+import org.apache.myfaces.test.mock.MockRenderKitFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class UIDeferredRegionTest extends AbstractJsfTestCase
+{
+    private StringWriter out;
+    private HtmlBody body;
+
+    private static class TextComponent extends UIComponentBase
+    {
+        private final String text;
+        private final Runnable onEncode;
+
+        TextComponent(String text, Runnable onEncode)
+        {
+            this.text = text;
+            this.onEncode = onEncode;
+        }
+
+        @Override
+        public String getFamily()
+        {
+            return "test";
+        }
+
+        @Override
+        public void encodeBegin(FacesContext context) throws IOException
+        {
+            if (onEncode != null)
+            {
+                onEncode.run();
+            }
+            Object value = context.getExternalContext().getRequestMap().get("data");
+            context.getResponseWriter().writeText(value == null ? text : text + "=" + value, null);
+        }
+    }
+
+    @Override
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        super.setUp();
+
+        body = new HtmlBody();
+        body.setId("body");
+        facesContext.getViewRoot().getChildren().add(body);
+
+        facesContext.getViewRoot().setRenderKitId(MockRenderKitFactory.HTML_BASIC_RENDER_KIT);
+        facesContext.getRenderKit().addRenderer(body.getFamily(), body.getRendererType(), new HtmlBodyRenderer());
+        facesContext.getAttributes().put("org.apache.myfaces.RENDERED_FACES_JS", Boolean.TRUE);
+
+        out = new StringWriter();
+        facesContext.setResponseWriter(new HtmlResponseWriterImpl(out, "text/html", "UTF-8"));
+    }
+
+    private static UIDeferredRegion createRegion(String id, Object value, TextComponent child)
+    {
+        UIDeferredRegion region = new UIDeferredRegion();
+        region.setId(id);
+        region.setValue(value);
+        region.setVar("data");
+        region.getChildren().add(child);
+        return region;
+    }
+
+    @Test
+    public void testRenderedAtEndOfBody() throws Exception
+    {
+        body.getChildren().add(createRegion("slow", null, new TextComponent("region", null)));
+        body.getChildren().add(new TextComponent("below", null));
+
+        body.encodeAll(facesContext);
+        facesContext.getResponseWriter().flush();
+        String html = out.toString();
+
+        int placeholder = html.indexOf("<span id=\"slow\"></span>");
+        int below = html.indexOf("below");
+        int content = html.indexOf("<div id=\"slow:content\" hidden=\"hidden\">region</div>");
+        int script = html.indexOf("document.getElementById('slow:content')");
+        Assertions.assertTrue(placeholder >= 0 && placeholder < below, html);
+        Assertions.assertTrue(below < content && content < script, html);
+        Assertions.assertTrue(script < html.indexOf("</body>"), html);
+    }
+
+    @Test
+    public void testAvailableRegionRenderedFirst() throws Exception
+    {
+        FutureTask<String> pending = new FutureTask<>(() -> "first");
+        body.getChildren().add(createRegion("pending", pending, new TextComponent("pending", null)));
+        // rendering the second region completes the value of the first one
+        body.getChildren().add(createRegion("available", CompletableFuture.completedFuture("second"),
+                new TextComponent("available", pending)));
+
+        body.encodeAll(facesContext);
+        facesContext.getResponseWriter().flush();
+        String html = out.toString();
+
+        int available = html.indexOf("available=second");
+        int first = html.indexOf("pending=first");
+        Assertions.assertTrue(available >= 0 && available < first, html);
+        Assertions.assertNull(request.getAttribute("data"));
+    }
+
+    @Test
+    public void testRenderedInPlaceOutsideOfBody() throws Exception
+    {
+        UIDeferredRegion region = createRegion("region", "value", new TextComponent("inline", null));
+        facesContext.getViewRoot().getChildren().add(region);
+
+        region.encodeAll(facesContext);
+        UIDeferredRegion.encodeDeferredRegions(facesContext);
+        facesContext.getResponseWriter().flush();
+
+        Assertions.assertEquals("inline=value", out.toString());
+    }
+
+    @Test
+    public void testFlushedWithWrappedWriter() throws Exception
+    {
+        List<String> flushed = new ArrayList<>();
+        externalContext.setResponse(new MockHttpServletResponse()
+        {
+            @Override
+            public void flushBuffer()
+            {
+                flushed.add(out.toString());
+            }
+        });
+        facesContext.setResponseWriter(new ResponseWriterWrapper(facesContext.getResponseWriter()) {});
+
+        body.getChildren().add(createRegion("slow", null, new TextComponent("region", null)));
+        body.getChildren().add(new TextComponent("below", null));
+        body.encodeAll(facesContext);
+
+        Assertions.assertEquals(1, flushed.size());
+        Assertions.assertTrue(flushed.get(0).contains("below"), flushed.get(0));
+        Assertions.assertFalse(flushed.get(0).contains("region"), flushed.get(0));
+    }
+}
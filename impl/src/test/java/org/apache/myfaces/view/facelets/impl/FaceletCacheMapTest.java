@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.myfaces.view.facelets.impl;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FaceletCacheMapTest
+{
+    @Test
+    public void testSingleFlight() throws Exception
+    {
+        FaceletCacheMap<Object> map = new FaceletCacheMap<>(true);
+        AtomicInteger compilations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+            {
+                results.add(executor.submit(() -> map.get("/page.xhtml", value -> false, () ->
+                {
+                    compilations.incrementAndGet();
+                    started.countDown();
+                    try
+                    {
+                        release.await(10, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new Object();
+                })));
+            }
+
+            Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+            // the compilation blocks until all the other threads wait for it
+            long deadline = System.currentTimeMillis() + 10000;
+            while (map.getWaitCount() < threads - 1 && System.currentTimeMillis() < deadline)
+            {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            Object first = results.get(0).get();
+            for (Future<Object> result : results)
+            {
+                Assertions.assertSame(first, result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(1, compilations.get());
+        Assertions.assertEquals(1, map.getCompileCount());
+        Assertions.assertEquals(threads - 1, map.getWaitCount());
+        Assertions.assertTrue(map.containsKey("/page.xhtml"));
+    }
+
+    @Test
+    public void testOutdatedValueRecompiled() throws Exception
+    {
+        FaceletCacheMap<String> map = new FaceletCacheMap<>(true);
+
+        Assertions.assertEquals("v1", map.get("a", value -> false, () -> "v1"));
+        Assertions.assertEquals("v1", map.get("a", value -> false, () -> "v2"));
+        Assertions.assertEquals("v2", map.get("a", value -> true, () -> "v2"));
+        Assertions.assertEquals("v2", map.get("a"));
+
+        Assertions.assertEquals(2, map.getCompileCount());
+        Assertions.assertEquals(1, map.getHitCount());
+    }
+
+    @Test
+    public void testNotStored() throws Exception
+    {
+        FaceletCacheMap<String> map = new FaceletCacheMap<>(false);
+
+        Assertions.assertEquals("v1", map.get("a", value -> true, () -> "v1"));
+        Assertions.assertFalse(map.containsKey("a"));
+    }
+
+    @Test
+    public void testCompilationFailure() throws Exception
+    {
+        FaceletCacheMap<String> map = new FaceletCacheMap<>(true);
+
+        Assertions.assertThrows(FileNotFoundException.class, () -> map.get("a", value -> false, () ->
+        {
+            throw new FileNotFoundException("a");
+        }));
+
+        // the failed compilation is not remembered
+        Assertions.assertEquals("v1", map.get("a", value -> false, () -> "v1"));
+    }
+
+    @Test
+    public void testSizeLimit() throws Exception
+    {
+        FaceletCacheLimit limit = new FaceletCacheLimit(1000);
+        FaceletCacheMap<String> facelets = new FaceletCacheMap<>(true, limit, value -> 300);
+        FaceletCacheMap<String> metadata = new FaceletCacheMap<>(true, limit, value -> 100);
+
+        facelets.get("a", value -> false, () -> "a");
+        facelets.get("b", value -> false, () -> "b");
+        metadata.get("a", value -> false, () -> "a");
+        Thread.sleep(1);
+        // make "a" the most recently used facelet
+        facelets.get("a", value -> false, () -> "a2");
+        Assertions.assertEquals(700, limit.getSize());
+        Assertions.assertEquals(0, limit.getEvictionCount());
+
+        facelets.get("c", value -> false, () -> "c");
+        facelets.get("d", value -> false, () -> "d");
+
+        // over the limit, the least recently used entries are evicted until 90% of the limit
+        Assertions.assertTrue(limit.getSize() <= 900);
+        Assertions.assertEquals(2, limit.getEvictionCount());
+        Assertions.assertFalse(facelets.containsKey("b"));
+        Assertions.assertFalse(metadata.containsKey("a"));
+        Assertions.assertTrue(facelets.containsKey("a"));
+        Assertions.assertTrue(facelets.containsKey("d"));
+
+        // an evicted facelet is compiled again
+        Assertions.assertEquals("b2", facelets.get("b", value -> false, () -> "b2"));
+    }
+}